@@ -0,0 +1,223 @@
+package fu.se.swd392csms.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Sales Cube
+ * Keeps quantity sold and revenue (in hundredths) per day, hour of day and product in two flat
+ * long arrays laid out as [day slot][hour][product slot], so a slice over a date range reads
+ * contiguous memory. Days live in a ring of fixed size: writing a newer day recycles the slot of
+ * the oldest one, and writes for days that already left the window are dropped. Products get a
+ * dense slot the first time they are seen; the product dimension grows by doubling.
+ * Time is passed in by the caller as epoch days, so the cube never reads the clock itself.
+ */
+public class SalesCube {
+
+    public static final int HOURS = 24;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int days;
+    private final long[] dayOfSlot;
+    private final Map<Long, Integer> slotByProduct = new HashMap<>();
+
+    private long[] productIds;
+    private int productCount;
+    private long[] quantities;
+    private long[] revenue;
+    private long latestDay = EMPTY;
+
+    /**
+     * @param days Number of days kept, ending with the most recent day written
+     * @param initialProducts Product slots allocated up front
+     */
+    public SalesCube(int days, int initialProducts) {
+        if (days <= 0 || initialProducts <= 0) {
+            throw new IllegalArgumentException("Days and initial products must be positive");
+        }
+        this.days = days;
+        this.dayOfSlot = new long[days];
+        this.productIds = new long[initialProducts];
+        this.quantities = new long[days * HOURS * initialProducts];
+        this.revenue = new long[days * HOURS * initialProducts];
+        Arrays.fill(dayOfSlot, EMPTY);
+    }
+
+    /**
+     * Add (or, with negative values, remove) sales to one cell
+     * @param epochDay Day of the sale
+     * @param hour Hour of day, 0 to 23
+     * @param productId Product ID
+     * @param quantity Quantity sold
+     * @param revenueCents Revenue in hundredths
+     * @return false if the day is older than the window and was ignored
+     */
+    public synchronized boolean add(long epochDay, int hour, long productId, long quantity, long revenueCents) {
+        if (hour < 0 || hour >= HOURS) {
+            throw new IllegalArgumentException("Hour must be between 0 and 23");
+        }
+        if (latestDay != EMPTY && epochDay <= latestDay - days) {
+            return false;
+        }
+        int daySlot = (int) Math.floorMod(epochDay, (long) days);
+        if (dayOfSlot[daySlot] != epochDay) {
+            clearDaySlot(daySlot);
+            dayOfSlot[daySlot] = epochDay;
+            latestDay = latestDay == EMPTY ? epochDay : Math.max(latestDay, epochDay);
+        }
+        // The product slot first, since allocating it may widen the rows
+        int productSlot = productSlot(productId);
+        int cell = (daySlot * HOURS + hour) * productIds.length + productSlot;
+        quantities[cell] += quantity;
+        revenue[cell] += revenueCents;
+        return true;
+    }
+
+    /**
+     * Visit every non-empty cell of a date range whose product passes a filter
+     * @param fromDay First epoch day, inclusive
+     * @param toDay Last epoch day, inclusive
+     * @param productFilter Products to include, by ID
+     * @param visitor Receives the cells in day, hour, product slot order
+     */
+    public synchronized void forEach(long fromDay, long toDay, LongPredicate productFilter, CellVisitor visitor) {
+        if (latestDay == EMPTY) {
+            return;
+        }
+        boolean[] included = new boolean[productCount];
+        for (int p = 0; p < productCount; p++) {
+            included[p] = productFilter.test(productIds[p]);
+        }
+        int stride = productIds.length;
+        for (long day = Math.max(fromDay, latestDay - days + 1); day <= Math.min(toDay, latestDay); day++) {
+            int daySlot = (int) Math.floorMod(day, (long) days);
+            if (dayOfSlot[daySlot] != day) {
+                continue;
+            }
+            for (int hour = 0; hour < HOURS; hour++) {
+                int row = (daySlot * HOURS + hour) * stride;
+                for (int p = 0; p < productCount; p++) {
+                    long quantity = quantities[row + p];
+                    long cents = revenue[row + p];
+                    if (included[p] && (quantity != 0 || cents != 0)) {
+                        visitor.accept(day, hour, productIds[p], quantity, cents);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the totals of every product sold in a date range, summed over its days and hours
+     * @param fromDay First epoch day, inclusive
+     * @param toDay Last epoch day, inclusive
+     * @param visitor Receives the products in slot order
+     */
+    public synchronized void forEachProduct(long fromDay, long toDay, ProductVisitor visitor) {
+        if (latestDay == EMPTY) {
+            return;
+        }
+        long[] productQuantities = new long[productCount];
+        long[] productRevenue = new long[productCount];
+        int stride = productIds.length;
+        for (long day = Math.max(fromDay, latestDay - days + 1); day <= Math.min(toDay, latestDay); day++) {
+            int daySlot = (int) Math.floorMod(day, (long) days);
+            if (dayOfSlot[daySlot] != day) {
+                continue;
+            }
+            for (int hour = 0; hour < HOURS; hour++) {
+                int row = (daySlot * HOURS + hour) * stride;
+                for (int p = 0; p < productCount; p++) {
+                    productQuantities[p] += quantities[row + p];
+                    productRevenue[p] += revenue[row + p];
+                }
+            }
+        }
+        for (int p = 0; p < productCount; p++) {
+            if (productQuantities[p] != 0 || productRevenue[p] != 0) {
+                visitor.accept(productIds[p], productQuantities[p], productRevenue[p]);
+            }
+        }
+    }
+
+    /**
+     * Drop all sales and products
+     */
+    public synchronized void clear() {
+        Arrays.fill(dayOfSlot, EMPTY);
+        Arrays.fill(quantities, 0L);
+        Arrays.fill(revenue, 0L);
+        slotByProduct.clear();
+        productCount = 0;
+        latestDay = EMPTY;
+    }
+
+    /**
+     * Get the first epoch day still held, or null before anything was written
+     */
+    public synchronized Long firstDay() {
+        return latestDay == EMPTY ? null : latestDay - days + 1;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    /**
+     * Get the slot of a product, allocating one (and growing the cube) on first sight
+     */
+    private int productSlot(long productId) {
+        Integer slot = slotByProduct.get(productId);
+        if (slot != null) {
+            return slot;
+        }
+        if (productCount == productIds.length) {
+            grow(productIds.length * 2);
+        }
+        productIds[productCount] = productId;
+        slotByProduct.put(productId, productCount);
+        return productCount++;
+    }
+
+    /**
+     * Re-lay both arrays with a wider product dimension
+     */
+    private void grow(int capacity) {
+        int stride = productIds.length;
+        long[] newQuantities = new long[days * HOURS * capacity];
+        long[] newRevenue = new long[days * HOURS * capacity];
+        for (int row = 0; row < days * HOURS; row++) {
+            System.arraycopy(quantities, row * stride, newQuantities, row * capacity, stride);
+            System.arraycopy(revenue, row * stride, newRevenue, row * capacity, stride);
+        }
+        quantities = newQuantities;
+        revenue = newRevenue;
+        productIds = Arrays.copyOf(productIds, capacity);
+    }
+
+    private void clearDaySlot(int daySlot) {
+        int from = daySlot * HOURS * productIds.length;
+        int to = from + HOURS * productIds.length;
+        Arrays.fill(quantities, from, to, 0L);
+        Arrays.fill(revenue, from, to, 0L);
+    }
+
+    /**
+     * Receives one cell of a slice
+     */
+    @FunctionalInterface
+    public interface CellVisitor {
+        void accept(long epochDay, int hour, long productId, long quantity, long revenueCents);
+    }
+
+    /**
+     * Receives the totals of one product
+     */
+    @FunctionalInterface
+    public interface ProductVisitor {
+        void accept(long productId, long quantity, long revenueCents);
+    }
+}
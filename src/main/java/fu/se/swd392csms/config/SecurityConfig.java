@@ -3,6 +3,7 @@ package fu.se.swd392csms.config;
 import fu.se.swd392csms.security.CustomAccessDeniedHandler;
 import fu.se.swd392csms.security.JwtAuthenticationFilter;
 import fu.se.swd392csms.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -90,6 +91,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll() // Public access to view products
                         .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
+                        // Async dispatches of streaming responses were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // All authenticated endpoints - role-based security handled by @PreAuthorize in controllers
                         .anyRequest().authenticated()
                 )
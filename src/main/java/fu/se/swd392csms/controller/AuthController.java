@@ -58,4 +58,17 @@ public class AuthController {
         LoginResponse response = authService.getCurrentUser();
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * User logout endpoint
+     * @param authorization Authorization header with the JWT token
+     * @return Success message
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", description = "Revoke the JWT token of the request")
+    public ResponseEntity<MessageResponse> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        MessageResponse response = authService.logout(token);
+        return ResponseEntity.ok(response);
+    }
 }
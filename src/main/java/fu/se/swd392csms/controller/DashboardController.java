@@ -1,10 +1,9 @@
 package fu.se.swd392csms.controller;
 
 import fu.se.swd392csms.dto.response.DashboardStatsResponse;
-import fu.se.swd392csms.repository.EmployeeRepository;
-import fu.se.swd392csms.repository.IngredientRepository;
-import fu.se.swd392csms.repository.OrderRepository;
-import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.ResponseCacheService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * Dashboard Controller
@@ -29,10 +24,8 @@ import java.time.LocalTime;
 @Tag(name = "Dashboard", description = "Dashboard statistics APIs")
 public class DashboardController {
     
-    private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
-    private final EmployeeRepository employeeRepository;
-    private final IngredientRepository ingredientRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final ResponseCacheService responseCacheService;
     
     /**
      * Get dashboard statistics
@@ -40,51 +33,14 @@ public class DashboardController {
     @GetMapping("/stats")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'STAFF', 'FINANCE')")
     @Operation(summary = "Get dashboard stats", description = "Get overview statistics for dashboard")
-    public ResponseEntity<DashboardStatsResponse> getDashboardStats() {
-        
-        // Today's date range
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-        
-        // Month's date range
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime monthEnd = LocalDate.now().atTime(LocalTime.MAX);
-        
-        // Count orders by status
-        int totalOrders = (int) orderRepository.count();
-        int pendingOrders = (int) orderRepository.countByStatus("Pending");
-        int completedOrders = (int) orderRepository.countByStatus("Completed");
-        
-        // Calculate revenue
-        Double todayRevenueDouble = orderRepository.getTotalRevenue(todayStart, todayEnd);
-        Double monthRevenueDouble = orderRepository.getTotalRevenue(monthStart, monthEnd);
-        
-        BigDecimal todayRevenue = todayRevenueDouble != null ? BigDecimal.valueOf(todayRevenueDouble) : BigDecimal.ZERO;
-        BigDecimal monthRevenue = monthRevenueDouble != null ? BigDecimal.valueOf(monthRevenueDouble) : BigDecimal.ZERO;
-        
-        // Count low stock items (quantity <= minimum stock)
-        int lowStockItems = ingredientRepository.findAll().stream()
-                .filter(i -> i.getQuantity().compareTo(i.getMinimumStock()) <= 0)
-                .toList()
-                .size();
-        
-        // Count active employees
-        int activeEmployees = employeeRepository.findByStatus("Active").size();
-        
-        // Count total products
-        int totalProducts = (int) productRepository.count();
+    public ResponseEntity<DashboardStatsResponse> getDashboardStats(ServletWebRequest request) {
         
-        DashboardStatsResponse stats = DashboardStatsResponse.builder()
-                .totalOrders(totalOrders)
-                .pendingOrders(pendingOrders)
-                .completedOrders(completedOrders)
-                .todayRevenue(todayRevenue)
-                .monthRevenue(monthRevenue)
-                .lowStockItems(lowStockItems)
-                .activeEmployees(activeEmployees)
-                .totalProducts(totalProducts)
-                .build();
+        // Unchanged stats are answered with 304
+        if (responseCacheService.checkNotModified(Scope.DASHBOARD, request)) {
+            return null;
+        }
         
-        return ResponseEntity.ok(stats);
+        // Served from in-memory counters kept current by change hooks
+        return ResponseEntity.ok(responseCacheService.cachedBody(request, dashboardStatsService::getStats));
     }
 }
@@ -1,9 +1,14 @@
 package fu.se.swd392csms.controller;
 
+import fu.se.swd392csms.dto.request.BatchCreateOrderRequest;
 import fu.se.swd392csms.dto.request.CreateOrderRequest;
 import fu.se.swd392csms.dto.request.UpdateOrderStatusRequest;
 import fu.se.swd392csms.dto.response.MessageResponse;
+import fu.se.swd392csms.dto.response.OrderBatchResponse;
+import fu.se.swd392csms.dto.response.OrderCursorResponse;
 import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.service.OrderEventService;
+import fu.se.swd392csms.service.OrderIdempotencyService;
 import fu.se.swd392csms.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,9 +19,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Order Controller
@@ -29,6 +36,8 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderEventService orderEventService;
     
     /**
      * Get all orders with optional filtering and pagination
@@ -51,6 +60,40 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
     
+    /**
+     * Get orders newest first with cursor pagination
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'STAFF', 'FINANCE')")
+    @Operation(summary = "Get orders by cursor",
+            description = "Get orders newest first; pass the returned nextCursor to get the following slice. " +
+                    "The total count is only computed when includeTotal is true")
+    public ResponseEntity<OrderCursorResponse> getOrdersByCursor(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        OrderCursorResponse orders = orderService.getOrdersByCursor(status, cursor, size, includeTotal);
+        return ResponseEntity.ok(orders);
+    }
+    
+    /**
+     * Stream order changes to order board displays
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'STAFF')")
+    @Operation(summary = "Stream order events",
+            description = "Server-Sent Events for order creation, status changes and deletion. A display starts by " +
+                    "receiving a RESET event, on which it loads its orders; on reconnect it sends the Last-Event-ID " +
+                    "header (or lastEventId parameter) and receives only the events it missed")
+    public ResponseEntity<SseEmitter> streamOrders(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        SseEmitter emitter = orderEventService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+        return ResponseEntity.ok(emitter);
+    }
+    
     /**
      * Get order by ID
      */
@@ -67,12 +110,31 @@ public class OrderController {
      */
     @PostMapping
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'STAFF')")
-    @Operation(summary = "Create new order", description = "Create a new order with items")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse order = orderService.createOrder(request);
+    @Operation(summary = "Create new order",
+            description = "Create a new order with items. With an Idempotency-Key header, retries of the same " +
+                    "request return the order created by the first attempt instead of creating another")
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        OrderResponse order = idempotencyKey == null
+                ? orderService.createOrder(request)
+                : orderIdempotencyService.createOrder(idempotencyKey, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
     
+    /**
+     * Create many orders at once
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'STAFF')")
+    @Operation(summary = "Create orders in batch",
+            description = "Sync orders queued offline by a POS client. Each order needs a client-generated clientOrderId; " +
+                    "the response reports CREATED, DUPLICATE or FAILED per order")
+    public ResponseEntity<OrderBatchResponse> createOrders(@Valid @RequestBody BatchCreateOrderRequest request) {
+        OrderBatchResponse response = orderService.createOrders(request);
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Update order status
      */
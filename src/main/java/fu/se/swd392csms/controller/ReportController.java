@@ -2,13 +2,14 @@ package fu.se.swd392csms.controller;
 
 import fu.se.swd392csms.dto.response.DailyReportResponse;
 import fu.se.swd392csms.dto.response.IngredientTransactionResponse;
-import fu.se.swd392csms.repository.OrderRepository;
-import fu.se.swd392csms.repository.OrderItemRepository;
-import fu.se.swd392csms.repository.ProductIngredientRepository;
-import fu.se.swd392csms.repository.SalaryRepository;
-import fu.se.swd392csms.entity.Order;
-import fu.se.swd392csms.entity.OrderItem;
-import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.dto.response.SalesHeatmapResponse;
+import fu.se.swd392csms.dto.response.TopProductsResponse;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.ReportExportService;
+import fu.se.swd392csms.service.ResponseCacheService;
+import fu.se.swd392csms.service.SalesCubeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -16,16 +17,23 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Report Controller
@@ -37,11 +45,14 @@ import java.util.List;
 @Tag(name = "Reports", description = "Report management APIs")
 public class ReportController {
     
-    private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
-    private final ProductIngredientRepository productIngredientRepository;
-    private final SalaryRepository salaryRepository;
+    // Slots of running exports are released when their async request completes
+    private static final String EXPORT_SLOT = ReportController.class.getName() + ".EXPORT_SLOT";
+    
+    private final DailyReportService dailyReportService;
     private final fu.se.swd392csms.service.IngredientService ingredientService;
+    private final ReportExportService reportExportService;
+    private final SalesCubeService salesCubeService;
+    private final ResponseCacheService responseCacheService;
     
     /**
      * Get daily reports with optional date range filter
@@ -51,7 +62,8 @@ public class ReportController {
     @Operation(summary = "Get daily reports", description = "Get daily sales reports with optional date range")
     public ResponseEntity<List<DailyReportResponse>> getDailyReports(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest request) {
         
         // Default to last 7 days if no dates provided
         if (startDate == null) {
@@ -61,48 +73,17 @@ public class ReportController {
             endDate = LocalDate.now();
         }
         
-        List<DailyReportResponse> reports = new ArrayList<>();
-        
-        // Generate report for each day in range
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            LocalDateTime dayStart = currentDate.atStartOfDay();
-            LocalDateTime dayEnd = currentDate.atTime(LocalTime.MAX);
-            
-            var orders = orderRepository.findByOrderDateBetween(dayStart, dayEnd);
-            
-            int totalOrders = orders.size();
-            int completedOrders = (int) orders.stream().filter(o -> "Completed".equals(o.getStatus())).count();
-            int cancelledOrders = (int) orders.stream().filter(o -> "Cancelled".equals(o.getStatus())).count();
-            
-            BigDecimal totalRevenue = orders.stream()
-                    .filter(o -> "Completed".equals(o.getStatus()))
-                    .map(o -> o.getTotalAmount())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // Calculate ingredient cost for completed orders
-            BigDecimal ingredientCost = calculateIngredientCost(orders);
-            
-            // Calculate salary cost for this day (prorated daily salary)
-            BigDecimal salaryCost = calculateDailySalaryCost(currentDate);
-            
-            BigDecimal totalCost = ingredientCost.add(salaryCost);
-            BigDecimal profit = totalRevenue.subtract(totalCost);
-            
-            DailyReportResponse report = DailyReportResponse.builder()
-                    .reportDate(currentDate)
-                    .totalOrders(totalOrders)
-                    .completedOrders(completedOrders)
-                    .cancelledOrders(cancelledOrders)
-                    .totalRevenue(totalRevenue)
-                    .totalCost(totalCost)
-                    .profit(profit)
-                    .build();
-            
-            reports.add(report);
-            currentDate = currentDate.plusDays(1);
+        // Answered with 304 while nothing changed
+        if (responseCacheService.checkNotModified(Scope.REPORTS, request)) {
+            return null;
         }
         
+        // Read straight from the daily_reports rollup
+        LocalDate from = startDate;
+        LocalDate to = endDate;
+        List<DailyReportResponse> reports =
+                responseCacheService.cachedBody(request, () -> dailyReportService.getDailyReports(from, to));
+        
         return ResponseEntity.ok(reports);
     }
     
@@ -128,94 +109,133 @@ public class ReportController {
      */
     @GetMapping("/daily/{date}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'FINANCE')")
-    @Operation(summary = "Get daily report by date", description = "Get sales report for a specific date")
+    @Operation(summary = "Get daily report by date", description = "Get sales report for a specific date, with ingredient cost per product")
     public ResponseEntity<DailyReportResponse> getDailyReportByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        
-        LocalDateTime dayStart = date.atStartOfDay();
-        LocalDateTime dayEnd = date.atTime(LocalTime.MAX);
-        
-        var orders = orderRepository.findByOrderDateBetween(dayStart, dayEnd);
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServletWebRequest request) {
         
-        int totalOrders = orders.size();
-        int completedOrders = (int) orders.stream().filter(o -> "Completed".equals(o.getStatus())).count();
-        int cancelledOrders = (int) orders.stream().filter(o -> "Cancelled".equals(o.getStatus())).count();
-        
-        BigDecimal totalRevenue = orders.stream()
-                .filter(o -> "Completed".equals(o.getStatus()))
-                .map(o -> o.getTotalAmount())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Calculate ingredient cost for completed orders
-        BigDecimal ingredientCost = calculateIngredientCost(orders);
-        
-        // Calculate salary cost for this day (prorated daily salary)
-        BigDecimal salaryCost = calculateDailySalaryCost(date);
-        
-        BigDecimal totalCost = ingredientCost.add(salaryCost);
-        BigDecimal profit = totalRevenue.subtract(totalCost);
+        if (responseCacheService.checkNotModified(Scope.REPORTS, request)) {
+            return null;
+        }
         
-        DailyReportResponse report = DailyReportResponse.builder()
-                .reportDate(date)
-                .totalOrders(totalOrders)
-                .completedOrders(completedOrders)
-                .cancelledOrders(cancelledOrders)
-                .totalRevenue(totalRevenue)
-                .totalCost(totalCost)
-                .profit(profit)
-                .build();
+        DailyReportResponse report = responseCacheService.cachedBody(request, () -> dailyReportService.getDailyReport(date));
         
         return ResponseEntity.ok(report);
     }
     
     /**
-     * Calculate ingredient cost for a list of orders
+     * Get sales by hour of day
      */
-    private BigDecimal calculateIngredientCost(List<Order> orders) {
-        BigDecimal totalCost = BigDecimal.ZERO;
+    @GetMapping("/heatmap")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'FINANCE')")
+    @Operation(summary = "Get sales heatmap", description = "Get quantity sold by hour of day per date or weekday, optionally for one category or product")
+    public ResponseEntity<SalesHeatmapResponse> getSalesHeatmap(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = "date") String groupBy,
+            ServletWebRequest request) {
         
-        // Only calculate for completed orders
-        List<Order> completedOrders = orders.stream()
-                .filter(o -> "Completed".equals(o.getStatus()))
-                .toList();
+        // Default to the last 30 days
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        if (startDate == null) {
+            startDate = endDate.minusDays(29);
+        }
         
-        for (Order order : completedOrders) {
-            List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
-            
-            for (OrderItem item : orderItems) {
-                // Get ingredients for this product
-                List<ProductIngredient> productIngredients = 
-                        productIngredientRepository.findByProductIdWithIngredient(item.getProduct().getId());
-                
-                // Calculate cost for each ingredient
-                for (ProductIngredient pi : productIngredients) {
-                    BigDecimal ingredientCostPerUnit = pi.getIngredient().getPricePerUnit();
-                    BigDecimal quantityNeeded = pi.getQuantityRequired().multiply(new BigDecimal(item.getQuantity()));
-                    BigDecimal itemIngredientCost = ingredientCostPerUnit.multiply(quantityNeeded);
-                    totalCost = totalCost.add(itemIngredientCost);
-                }
-            }
+        if (responseCacheService.checkNotModified(Scope.REPORTS, request)) {
+            return null;
         }
         
-        return totalCost;
+        // Served from the in-memory sales cube
+        LocalDate from = startDate;
+        LocalDate to = endDate;
+        return ResponseEntity.ok(responseCacheService.cachedBody(request,
+                () -> salesCubeService.getHeatmap(from, to, category, productId, groupBy)));
     }
     
     /**
-     * Calculate prorated daily salary cost
-     * Takes the monthly salary and divides by average days in month (30)
+     * Get best-selling products
      */
-    private BigDecimal calculateDailySalaryCost(LocalDate date) {
-        int month = date.getMonthValue();
-        int year = date.getYear();
-        
-        // Get paid salaries for this month
-        Double totalMonthSalary = salaryRepository.getTotalSalaryPaid(month, year);
-        
-        if (totalMonthSalary == null || totalMonthSalary == 0) {
-            return BigDecimal.ZERO;
+    @GetMapping("/top-products")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'FINANCE')")
+    @Operation(summary = "Get top products", description = "Get the best-selling products of today, this week or this month")
+    public ResponseEntity<TopProductsResponse> getTopProducts(
+            @RequestParam(defaultValue = "today") String window,
+            @RequestParam(defaultValue = "10") int limit,
+            ServletWebRequest request) {
+        
+        if (responseCacheService.checkNotModified(Scope.REPORTS, request)) {
+            return null;
         }
         
-        // Prorate to daily cost (divide by 30 days)
-        return new BigDecimal(totalMonthSalary).divide(new BigDecimal(30), 2, java.math.RoundingMode.HALF_UP);
+        // Served from the in-memory sales cube
+        return ResponseEntity.ok(responseCacheService.cachedBody(request, () -> salesCubeService.getTopProducts(window, limit)));
+    }
+    
+    /**
+     * Export orders as CSV
+     */
+    @GetMapping("/export/orders")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'FINANCE')")
+    @Operation(summary = "Export orders", description = "Stream the orders of a date range as CSV, gzip-compressed on request")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            ServletWebRequest request) {
+        
+        return csvDownload("orders", startDate, endDate, gzip, request,
+                out -> reportExportService.exportOrders(startDate, endDate, out));
+    }
+    
+    /**
+     * Export ingredient transactions as CSV
+     */
+    @GetMapping("/export/transactions")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'FINANCE')")
+    @Operation(summary = "Export ingredient transactions", description = "Stream the ingredient transactions of a date range as CSV, gzip-compressed on request")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            ServletWebRequest request) {
+        
+        return csvDownload("ingredient-transactions", startDate, endDate, gzip, request,
+                out -> reportExportService.exportTransactions(startDate, endDate, out));
+    }
+    
+    /**
+     * Build a CSV attachment whose body is written after the handler returns
+     */
+    private ResponseEntity<StreamingResponseBody> csvDownload(String name, LocalDate startDate, LocalDate endDate,
+                                                              boolean gzip, ServletWebRequest request,
+                                                              StreamingResponseBody export) {
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        String filename = name + "_" + startDate + "_" + endDate + (gzip ? ".csv.gz" : ".csv");
+        StreamingResponseBody body = !gzip ? export : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            export.writeTo(compressed);
+            compressed.finish();
+        };
+        ResponseEntity<StreamingResponseBody> response = ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+        
+        // Answered with 429 while every export slot is busy. The slot is freed when the async request
+        // completes, which also happens on a timeout, an error or a task that never ran.
+        reportExportService.acquireSlot();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                reportExportService.releaseSlot();
+            }
+        });
+        return response;
     }
 }
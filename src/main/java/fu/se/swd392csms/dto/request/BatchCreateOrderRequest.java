@@ -0,0 +1,27 @@
+package fu.se.swd392csms.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for creating many orders at once, e.g. orders queued offline by a POS client
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderRequest {
+    
+    /**
+     * Orders to create; each one must carry a clientOrderId
+     */
+    @NotEmpty(message = "Batch must contain at least one order")
+    @Valid
+    private List<CreateOrderRequest> orders;
+}
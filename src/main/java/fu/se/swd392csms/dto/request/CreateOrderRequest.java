@@ -3,6 +3,7 @@ package fu.se.swd392csms.dto.request;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -36,4 +37,10 @@ public class CreateOrderRequest {
      * Optional notes for the order
      */
     private String notes;
+    
+    /**
+     * Client-generated order ID, required for batch sync so a resent order is not created twice
+     */
+    @Size(max = 64, message = "Client order ID must be at most 64 characters")
+    private String clientOrderId;
 }
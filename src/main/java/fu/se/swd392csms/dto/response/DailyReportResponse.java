@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Daily Report Response DTO
@@ -24,4 +25,6 @@ public class DailyReportResponse {
     private BigDecimal profit;
     private Integer completedOrders;
     private Integer cancelledOrders;
+    private BigDecimal ingredientCost;
+    private List<ProductCostResponse> productCosts; // Only filled for single-day reports
 }
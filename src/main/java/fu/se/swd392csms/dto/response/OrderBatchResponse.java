@@ -0,0 +1,24 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Order Batch Response DTO
+ * Used for returning the per-order outcome of a batch, in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponse {
+    
+    private int created;
+    private int duplicates;
+    private int failed;
+    private List<OrderBatchResultResponse> results;
+}
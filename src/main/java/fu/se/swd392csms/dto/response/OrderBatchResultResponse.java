@@ -0,0 +1,22 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order Batch Result Response DTO
+ * Outcome of one order of a batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultResponse {
+    
+    private String clientOrderId;
+    private String status; // CREATED, DUPLICATE (created by an earlier sync) or FAILED
+    private OrderResponse order; // Null when the order failed
+    private String error; // Reason of the failure, null otherwise
+}
@@ -0,0 +1,24 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Order Cursor Response DTO
+ * Used for returning one slice of orders in keyset (cursor) pagination
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCursorResponse {
+    
+    private List<OrderResponse> orders;
+    private String nextCursor; // Opaque token for the next slice, null on the last slice
+    private boolean hasMore;
+    private Long totalElements; // Only filled when the total was requested
+}
@@ -0,0 +1,25 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order Event Response DTO
+ * One change to an order, pushed to order board displays
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventResponse {
+    
+    private String type; // CREATED, STATUS_CHANGED, DELETED, or RESET when the display must reload its orders
+    private Long orderId;
+    private String status; // Status after the change
+    private OrderResponse order; // Full order when the change was made through the API, null otherwise
+    private LocalDateTime occurredAt;
+}
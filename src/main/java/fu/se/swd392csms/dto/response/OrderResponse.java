@@ -25,5 +25,6 @@ public class OrderResponse {
     private LocalDateTime orderDate;
     private BigDecimal totalAmount;
     private String status;
+    private String clientOrderId;
     private List<OrderItemResponse> items;
 }
@@ -0,0 +1,26 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Product Cost Response DTO
+ * Sales, ingredient cost and margin of the completed orders of one product
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCostResponse {
+    private Long productId;
+    private String productName;
+    private Long quantitySold;
+    private BigDecimal revenue;
+    private BigDecimal unitCost;
+    private BigDecimal ingredientCost;
+    private BigDecimal margin;
+}
@@ -0,0 +1,63 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales Heatmap Response DTO
+ * Quantity sold by hour of day for a date range, optionally narrowed to a category or product
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesHeatmapResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String category;
+    private Long productId;
+    private String groupBy; // date, weekday or none
+    private Long totalQuantity;
+    private BigDecimal totalRevenue;
+    private Integer peakHour; // null when nothing was sold
+    private List<Long> hourQuantities; // 24 entries, hour 0 first
+    private List<BigDecimal> hourRevenue; // 24 entries, hour 0 first
+    private List<HeatmapRow> rows;
+    private List<ProductSales> products;
+
+    /**
+     * One row of the grid: a date or a day of the week
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeatmapRow {
+        private String label;
+        private List<Long> quantities; // 24 entries, hour 0 first
+        private Long totalQuantity;
+        private BigDecimal revenue;
+    }
+
+    /**
+     * Totals of one product over the range
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductSales {
+        private Long productId;
+        private String productName;
+        private String category;
+        private Long quantity;
+        private BigDecimal revenue;
+        private Integer peakHour;
+    }
+}
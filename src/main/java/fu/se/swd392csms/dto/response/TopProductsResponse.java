@@ -0,0 +1,41 @@
+package fu.se.swd392csms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Top Products Response DTO
+ * Best-selling products of a window, ranked by quantity sold
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopProductsResponse {
+    private String window; // today, week or month
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<TopProduct> products;
+
+    /**
+     * One ranked product
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopProduct {
+        private Integer rank;
+        private Long productId;
+        private String productName;
+        private String category;
+        private Long quantity;
+        private BigDecimal revenue;
+    }
+}
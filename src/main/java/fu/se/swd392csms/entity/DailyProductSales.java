@@ -0,0 +1,40 @@
+package fu.se.swd392csms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DailyProductSales Entity
+ * Quantity sold and revenue of one product on one day, from completed orders; maintained with the
+ * daily_reports rollup. Ingredient cost is not stored: reports cost these quantities at current prices.
+ */
+@Entity
+@Table(name = "daily_product_sales",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_product_sales_day_product", columnNames = {"report_date", "product_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductSales {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_product_sales_id_seq")
+    @SequenceGenerator(name = "daily_product_sales_id_seq", sequenceName = "daily_product_sales_seq", allocationSize = 50) // Pooled so inserts can be batched
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate reportDate;
+    
+    @ManyToOne
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @Column(nullable = false)
+    private Long quantitySold;
+    
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal revenue;
+}
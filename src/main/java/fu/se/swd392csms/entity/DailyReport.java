@@ -28,11 +28,15 @@ public class DailyReport {
     
     private Integer totalOrders; // Total number of orders for the day
     
+    private Integer completedOrders; // Orders completed, counted in revenue and ingredient cost
+    
+    private Integer cancelledOrders; // Orders cancelled
+    
     @Column(precision = 18, scale = 2)
     private BigDecimal totalRevenue; // Total revenue for the day
     
     @Column(precision = 18, scale = 2)
-    private BigDecimal totalIngredientCost; // Total cost of ingredients used
+    private BigDecimal totalIngredientCost; // Not kept by the rollup: reports cost daily_product_sales at current prices
     
     @Column(precision = 18, scale = 2)
     private BigDecimal totalSalaryPaid; // Total salaries paid (if applicable)
@@ -44,7 +48,7 @@ public class DailyReport {
     @JoinColumn(name = "created_by")
     private Employee createdBy; // User who generated the report
     
-    private LocalDateTime createdAt;
+    private LocalDateTime createdAt; // Time the rollup was last recomputed
     
     private String notes;
 }
@@ -0,0 +1,32 @@
+package fu.se.swd392csms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency Key Entity
+ * Records the order created for an Idempotency-Key so client retries return it instead of creating another
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request, to reject a key reused for a different order
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -27,8 +27,8 @@ public class Ingredient {
     @Column(nullable = false)
     private String unit; // kg, grams, liters, etc.
     
-    @Column(nullable = false, precision = 18, scale = 2)
-    private BigDecimal quantity; // Current stock quantity
+    @Column(nullable = false, updatable = false, precision = 18, scale = 2)
+    private BigDecimal quantity; // Current stock quantity, changed only through IngredientRepository stock updates
 
     @Column(precision = 18, scale = 2)
     @Builder.Default
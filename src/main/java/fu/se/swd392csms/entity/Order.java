@@ -13,7 +13,11 @@ import java.util.List;
  * Represents customer orders in the coffee shop
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset pagination seeks on (orderDate, id), optionally within one status
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, id"),
+        @Index(name = "idx_orders_status_order_date_id", columnList = "status, order_date, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +25,8 @@ import java.util.List;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_seq")
+    @SequenceGenerator(name = "order_id_seq", sequenceName = "orders_seq", allocationSize = 50) // Pooled so inserts can be batched
     private Long id;
     
     @ManyToOne
@@ -37,6 +42,12 @@ public class Order {
     @Column(nullable = false)
     private String status; // Pending, Preparing, Completed, Cancelled
     
+    @Column(name = "client_order_id", unique = true, length = 64)
+    private String clientOrderId; // ID generated by the POS client for orders synced in batches
+    
+    @Column(name = "stock_pending")
+    private Boolean stockPending; // True while ledger-reserved stock is not yet written to ingredients
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
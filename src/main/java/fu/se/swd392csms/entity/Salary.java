@@ -5,11 +5,13 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +23,7 @@ import lombok.NoArgsConstructor;
  * Represents employee monthly salary records
  */
 @Entity
+@EntityListeners(SalaryChangeListener.class)
 @Table(name = "salaries")
 @Data
 @Builder
@@ -29,7 +32,8 @@ import lombok.NoArgsConstructor;
 public class Salary {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salary_id_seq")
+    @SequenceGenerator(name = "salary_id_seq", sequenceName = "salaries_seq", allocationSize = 50) // Pooled so inserts can be batched
     private Long id;
     
     @ManyToOne
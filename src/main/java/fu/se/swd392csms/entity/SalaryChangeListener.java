@@ -0,0 +1,29 @@
+package fu.se.swd392csms.entity;
+
+import fu.se.swd392csms.service.SalaryCostService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Salary Change Listener
+ * Reports every inserted, updated or deleted salary to the salary cost cache, whichever service wrote it.
+ * Created by Hibernate through Spring; the cache is looked up lazily because it depends on the repositories
+ * that are built together with this listener.
+ */
+public class SalaryChangeListener {
+
+    private final ObjectProvider<SalaryCostService> salaryCostService;
+
+    public SalaryChangeListener(ObjectProvider<SalaryCostService> salaryCostService) {
+        this.salaryCostService = salaryCostService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void salaryChanged(Salary salary) {
+        salaryCostService.ifAvailable(service -> service.salariesChanged(salary.getMonth(), salary.getYear()));
+    }
+}
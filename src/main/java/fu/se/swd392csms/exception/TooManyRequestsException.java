@@ -0,0 +1,16 @@
+package fu.se.swd392csms.exception;
+
+/**
+ * Too Many Requests Exception
+ * Thrown when a limited resource is busy and the request should be retried later
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+    
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
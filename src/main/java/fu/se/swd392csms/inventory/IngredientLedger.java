@@ -0,0 +1,186 @@
+package fu.se.swd392csms.inventory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingredient Ledger
+ * Keeps live ingredient stock in memory as fixed-point longs (hundredths of a unit).
+ * Each ingredient has its own CAS cell, so reservations on different ingredients never contend.
+ * Committed reservations are queued until they are written behind to the database.
+ */
+public class IngredientLedger {
+
+    /**
+     * Decimal places kept per quantity, matching the scale of ingredients.quantity
+     */
+    public static final int SCALE = 2;
+
+    private final ConcurrentMap<Long, AtomicLong> cells = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Reservation> committed = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Convert a quantity to fixed-point units
+     */
+    public static long toUnits(BigDecimal quantity) {
+        return quantity.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert fixed-point units back to a quantity
+     */
+    public static BigDecimal toQuantity(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Load (or replace) the stock cell of an ingredient
+     * @param ingredientId Ingredient ID
+     * @param quantity Current stock quantity
+     */
+    public void load(Long ingredientId, BigDecimal quantity) {
+        cells.put(ingredientId, new AtomicLong(toUnits(quantity)));
+    }
+
+    /**
+     * Drop the stock cell of a deleted ingredient
+     * @param ingredientId Ingredient ID
+     */
+    public void remove(Long ingredientId) {
+        cells.remove(ingredientId);
+    }
+
+    /**
+     * Get the live stock of an ingredient
+     * @param ingredientId Ingredient ID
+     * @return Available units, 0 if the ingredient is unknown
+     */
+    public long available(Long ingredientId) {
+        AtomicLong cell = cells.get(ingredientId);
+        return cell != null ? cell.get() : 0L;
+    }
+
+    /**
+     * Take units from one ingredient if enough stock is available
+     * @param ingredientId Ingredient ID
+     * @param units Units to take
+     * @return true if the units were taken
+     */
+    public boolean tryTake(Long ingredientId, long units) {
+        AtomicLong cell = cells.get(ingredientId);
+        if (cell == null) {
+            return false;
+        }
+        long current;
+        do {
+            current = cell.get();
+            if (current < units) {
+                return false;
+            }
+        } while (!cell.compareAndSet(current, current - units));
+        return true;
+    }
+
+    /**
+     * Reserve units from several ingredients, all or nothing
+     * @param units Units keyed by ingredient ID
+     * @return ID of the first ingredient that could not be reserved, or null if everything was reserved
+     */
+    public Long tryReserve(Map<Long, Long> units) {
+        List<Map.Entry<Long, Long>> taken = new ArrayList<>(units.size());
+        for (Map.Entry<Long, Long> entry : units.entrySet()) {
+            if (!tryTake(entry.getKey(), entry.getValue())) {
+                taken.forEach(t -> add(t.getKey(), t.getValue()));
+                return entry.getKey();
+            }
+            taken.add(entry);
+        }
+        return null;
+    }
+
+    /**
+     * Give back previously reserved units
+     * @param units Units keyed by ingredient ID
+     */
+    public void release(Map<Long, Long> units) {
+        units.forEach(this::add);
+    }
+
+    /**
+     * Add units to an ingredient (negative to remove without a stock check)
+     * @param ingredientId Ingredient ID
+     * @param units Units to add
+     */
+    public void add(Long ingredientId, long units) {
+        AtomicLong cell = cells.get(ingredientId);
+        if (cell != null) {
+            cell.addAndGet(units);
+        }
+    }
+
+    /**
+     * Overwrite the stock of an ingredient
+     * @param ingredientId Ingredient ID
+     * @param units New stock in units
+     * @return Previous stock in units
+     */
+    public long set(Long ingredientId, long units) {
+        AtomicLong cell = cells.computeIfAbsent(ingredientId, id -> new AtomicLong(units));
+        return cell.getAndSet(units);
+    }
+
+    /**
+     * Queue a committed reservation for write-behind
+     * @param reservation Reservation of a committed order
+     */
+    public void commit(Reservation reservation) {
+        committed.addLast(reservation);
+    }
+
+    /**
+     * Take up to max committed reservations off the write-behind queue
+     * @param max Maximum number of reservations
+     * @return Reservations in commit order
+     */
+    public List<Reservation> drain(int max) {
+        List<Reservation> batch = new ArrayList<>();
+        Reservation reservation;
+        while (batch.size() < max && (reservation = committed.pollFirst()) != null) {
+            batch.add(reservation);
+        }
+        return batch;
+    }
+
+    /**
+     * Put a batch back at the head of the queue after a failed write
+     * @param batch Reservations previously returned by drain
+     */
+    public void requeue(List<Reservation> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            committed.addFirst(batch.get(i));
+        }
+    }
+
+    /**
+     * Get the number of committed reservations waiting for write-behind
+     */
+    public int pendingCount() {
+        return committed.size();
+    }
+
+    /**
+     * Stock reserved by one committed order
+     * @param orderId Order ID
+     * @param employeeId Employee who created the order
+     * @param units Units keyed by ingredient ID
+     */
+    public record Reservation(Long orderId, Long employeeId, Map<Long, Long> units) {
+    }
+}
@@ -0,0 +1,14 @@
+package fu.se.swd392csms.inventory;
+
+import java.math.BigDecimal;
+
+/**
+ * Low Stock Event
+ * Published once when an ingredient falls below its minimum stock, and once when it recovers
+ * @param ingredientId Ingredient ID
+ * @param quantity Stock after the change
+ * @param minimumStock Minimum stock of the ingredient
+ * @param low true if the ingredient fell below its minimum, false if it recovered
+ */
+public record LowStockEvent(Long ingredientId, BigDecimal quantity, BigDecimal minimumStock, boolean low) {
+}
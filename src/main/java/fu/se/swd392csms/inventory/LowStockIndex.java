@@ -0,0 +1,147 @@
+package fu.se.swd392csms.inventory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Low Stock Index
+ * Keeps the stock and minimum stock of every ingredient in memory as fixed-point longs, together with
+ * the set of ingredients whose stock is below their minimum. Every change reports whether the ingredient
+ * crossed its threshold, so callers can raise an alert exactly once per crossing.
+ */
+public class LowStockIndex {
+
+    private final ConcurrentMap<Long, Level> levels = new ConcurrentHashMap<>();
+    private final Set<Long> lowStockIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Set (or add) the stock and minimum stock of an ingredient
+     * @param ingredientId Ingredient ID
+     * @param quantity Stock in units
+     * @param minimumStock Minimum stock in units
+     * @return How the ingredient crossed its threshold; a new ingredient that starts low counts as BELOW
+     */
+    public Crossing set(Long ingredientId, long quantity, long minimumStock) {
+        Level next = new Level(quantity, minimumStock);
+        Crossing[] crossing = {Crossing.NONE};
+        levels.compute(ingredientId, (id, current) -> {
+            crossing[0] = track(id, current, next);
+            return next;
+        });
+        return crossing[0];
+    }
+
+    /**
+     * Add units to the stock of an ingredient (negative to remove)
+     * @param ingredientId Ingredient ID
+     * @param units Units to add
+     * @return How the ingredient crossed its threshold; NONE for an ingredient that is not indexed
+     */
+    public Crossing adjust(Long ingredientId, long units) {
+        Crossing[] crossing = {Crossing.NONE};
+        levels.computeIfPresent(ingredientId, (id, current) -> {
+            Level next = new Level(current.quantity() + units, current.minimumStock());
+            crossing[0] = track(id, current, next);
+            return next;
+        });
+        return crossing[0];
+    }
+
+    /**
+     * Drop a deleted ingredient
+     * @param ingredientId Ingredient ID
+     */
+    public void remove(Long ingredientId) {
+        levels.computeIfPresent(ingredientId, (id, level) -> {
+            lowStockIds.remove(id);
+            return null;
+        });
+    }
+
+    /**
+     * Drop every ingredient
+     */
+    public void clear() {
+        levels.clear();
+        lowStockIds.clear();
+    }
+
+    /**
+     * Get the current level of an ingredient
+     * @param ingredientId Ingredient ID
+     * @return Level, or null if the ingredient is not indexed
+     */
+    public Level level(Long ingredientId) {
+        return levels.get(ingredientId);
+    }
+
+    /**
+     * Get the IDs of every indexed ingredient
+     * @return Live, unmodifiable view of the IDs
+     */
+    public Set<Long> ids() {
+        return Collections.unmodifiableSet(levels.keySet());
+    }
+
+    /**
+     * Get the IDs of ingredients below their minimum stock
+     * @return Live, unmodifiable view of the IDs
+     */
+    public Set<Long> lowStockIds() {
+        return Collections.unmodifiableSet(lowStockIds);
+    }
+
+    /**
+     * Count the ingredients below their minimum stock
+     */
+    public int lowStockCount() {
+        return lowStockIds.size();
+    }
+
+    /**
+     * Count the indexed ingredients
+     */
+    public int size() {
+        return levels.size();
+    }
+
+    /**
+     * Move the ingredient in or out of the low-stock set; runs inside the compute of its level
+     */
+    private Crossing track(Long ingredientId, Level previous, Level next) {
+        boolean wasLow = previous != null && previous.isLow();
+        if (next.isLow()) {
+            lowStockIds.add(ingredientId);
+        } else {
+            lowStockIds.remove(ingredientId);
+        }
+        if (next.isLow() == wasLow) {
+            return Crossing.NONE;
+        }
+        return wasLow ? Crossing.RECOVERED : Crossing.BELOW;
+    }
+
+    /**
+     * Stock and minimum stock of one ingredient, in units
+     */
+    public record Level(long quantity, long minimumStock) {
+
+        /**
+         * Low stock means strictly below the minimum, as shown on ingredient responses
+         */
+        public boolean isLow() {
+            return quantity < minimumStock;
+        }
+    }
+
+    /**
+     * How a change moved an ingredient relative to its minimum stock
+     */
+    public enum Crossing {
+        NONE,
+        BELOW,
+        RECOVERED
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -45,6 +46,16 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                      @Param("startDate") LocalDate startDate,
                                                      @Param("endDate") LocalDate endDate);
 
+    /**
+     * Find attendance records of all employees within date range
+     * @param startDate Start date
+     * @param endDate End date
+     * @return List of attendance records
+     */
+    @Query("SELECT a FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate")
+    List<Attendance> findByDateBetween(@Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
     /**
      * Find attendance records for an employee within check-in time range
      * Note: This method uses date field for filtering since checkInTime is LocalTime
@@ -65,6 +76,17 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
      */
     List<Attendance> findByDate(LocalDate date);
     
+    /**
+     * Delete Absent records without a check-in for employees who also have a check-in on the same date,
+     * e.g. when they checked in while absent marking was running
+     * @param date Date
+     * @return Number of records deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Attendance a WHERE a.date = :date AND a.status = 'Absent' AND a.checkInTime IS NULL " +
+           "AND EXISTS (SELECT 1 FROM Attendance b WHERE b.employee = a.employee AND b.date = :date AND b.checkInTime IS NOT NULL)")
+    int deleteAbsentOfCheckedIn(@Param("date") LocalDate date);
+    
     /**
      * Find attendance records by status
      * @param status Attendance status (Present, Absent, Late)
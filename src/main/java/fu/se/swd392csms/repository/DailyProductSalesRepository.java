@@ -0,0 +1,39 @@
+package fu.se.swd392csms.repository;
+
+import fu.se.swd392csms.entity.DailyProductSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for DailyProductSales entity
+ * Reads and replaces the per-product lines of the daily_reports rollup
+ */
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, Long> {
+    
+    /**
+     * Read the product lines of the days within a date range without loading entities
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Rows of [report date, product ID, product name, quantity sold, revenue]
+     */
+    @Query("SELECT s.reportDate, p.id, p.name, s.quantitySold, s.revenue FROM DailyProductSales s JOIN s.product p " +
+           "WHERE s.reportDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findLinesBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Delete the product lines of some days before they are recomputed
+     * @param reportDates Report dates
+     * @return Number of deleted lines
+     */
+    @Modifying
+    @Query("DELETE FROM DailyProductSales s WHERE s.reportDate IN :reportDates")
+    int deleteByReportDateIn(@Param("reportDates") Collection<LocalDate> reportDates);
+}
@@ -3,6 +3,7 @@ package fu.se.swd392csms.repository;
 import fu.se.swd392csms.entity.DailyReport;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -32,6 +33,26 @@ public interface DailyReportRepository extends JpaRepository<DailyReport, Long>
     @Query("SELECT r FROM DailyReport r WHERE r.reportDate BETWEEN :startDate AND :endDate ORDER BY r.reportDate DESC")
     List<DailyReport> findByReportDateBetween(LocalDate startDate, LocalDate endDate);
     
+    /**
+     * Read the rollup columns of the reports within a date range without loading entities
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Rows of [id, report date, total orders, completed orders, cancelled orders, revenue]
+     */
+    @Query("SELECT r.id, r.reportDate, r.totalOrders, r.completedOrders, r.cancelledOrders, " +
+           "r.totalRevenue FROM DailyReport r " +
+           "WHERE r.reportDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findRollupsBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Find the dates within a range that already have a report
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Report dates
+     */
+    @Query("SELECT r.reportDate FROM DailyReport r WHERE r.reportDate BETWEEN :startDate AND :endDate")
+    List<LocalDate> findReportDatesBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
     /**
      * Find reports created by an employee
      * @param employeeId Employee ID
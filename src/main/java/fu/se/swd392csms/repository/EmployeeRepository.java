@@ -23,6 +23,13 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
      */
     List<Employee> findByStatus(String status);
     
+    /**
+     * Count employees by status, ignoring case
+     * @param status Employee status (Active, Inactive)
+     * @return Number of employees with the given status
+     */
+    long countByStatusIgnoreCase(String status);
+    
     /**
      * Find all employees by position
      * @param position Employee position (Manager, Barista, Cashier, etc.)
@@ -7,6 +7,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -63,6 +64,27 @@ public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
      * @return List of ingredients
      */
     List<Ingredient> findByQuantityLessThanEqual(BigDecimal quantity);
+    
+    /**
+     * Count ingredients below their own minimum stock
+     * @return Number of low-stock ingredients
+     */
+    @Query("SELECT COUNT(i) FROM Ingredient i WHERE i.quantity < i.minimumStock")
+    long countBelowMinimumStock();
+
+    /**
+     * Find the IDs of ingredients below their own minimum stock
+     * @return Ingredient IDs in ascending order
+     */
+    @Query("SELECT i.id FROM Ingredient i WHERE i.quantity < i.minimumStock ORDER BY i.id")
+    List<Long> findIdsBelowMinimumStock();
+
+    /**
+     * Load the stock levels of every ingredient without loading the entities
+     * @return Rows of [id, quantity, minimumStock]
+     */
+    @Query("SELECT i.id, i.quantity, i.minimumStock FROM Ingredient i")
+    List<Object[]> findStockLevels();
 
     /**
      * Search ingredients by name (case-insensitive)
@@ -78,4 +100,45 @@ public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
      */
     @Query("SELECT DISTINCT i.supplier FROM Ingredient i WHERE i.supplier IS NOT NULL ORDER BY i.supplier")
     List<String> findAllSuppliers();
+
+    /**
+     * Atomically reduce stock if enough is available.
+     * The check and the update run as one statement, so concurrent orders cannot lose updates.
+     * @param id Ingredient ID
+     * @param quantity Quantity to deduct
+     * @return Number of rows updated (0 when the ingredient is missing or stock is insufficient)
+     */
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.quantity = i.quantity - :quantity WHERE i.id = :id AND i.quantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Atomically add stock
+     * @param id Ingredient ID
+     * @param quantity Quantity to add
+     * @return Number of rows updated (0 when the ingredient is missing)
+     */
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.quantity = i.quantity + :quantity WHERE i.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Apply a relative stock change without a stock check (used by the write-behind ledger)
+     * @param id Ingredient ID
+     * @param delta Quantity to add, negative to deduct
+     * @return Number of rows updated (0 when the ingredient is missing)
+     */
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.quantity = i.quantity + :delta WHERE i.id = :id")
+    int adjustStock(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    /**
+     * Overwrite the stock of an ingredient (e.g. after a stock count)
+     * @param id Ingredient ID
+     * @param quantity New stock quantity
+     * @return Number of rows updated (0 when the ingredient is missing)
+     */
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.quantity = :quantity WHERE i.id = :id")
+    int setStock(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
 }
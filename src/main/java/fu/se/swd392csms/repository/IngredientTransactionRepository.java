@@ -1,13 +1,17 @@
 package fu.se.swd392csms.repository;
 
 import fu.se.swd392csms.entity.IngredientTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for IngredientTransaction entity
@@ -76,4 +80,24 @@ public interface IngredientTransactionRepository extends JpaRepository<Ingredien
      */
     @Query("SELECT t FROM IngredientTransaction t ORDER BY t.transactionDate DESC")
     List<IngredientTransaction> findAllOrderByDateDesc();
+    
+    /**
+     * Stream the transactions within a date range as plain values for export,
+     * read forward-only in fetches of 1000 rows; must be consumed inside a transaction
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (exclusive)
+     * @return Rows of [id, transactionDate, ingredient name, unit, type, quantity, pricePerUnit,
+     *         supplier, employee name, note], oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id, t.transactionDate, i.name, i.unit, t.type, t.quantity, t.pricePerUnit, " +
+           "t.supplier, e.fullName, COALESCE(t.note, t.notes) " +
+           "FROM IngredientTransaction t JOIN t.ingredient i LEFT JOIN t.employee e " +
+           "WHERE t.transactionDate >= :startDate AND t.transactionDate < :endDate " +
+           "ORDER BY t.transactionDate, t.id")
+    Stream<Object[]> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate);
 }
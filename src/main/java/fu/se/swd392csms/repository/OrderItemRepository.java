@@ -3,8 +3,11 @@ package fu.se.swd392csms.repository;
 import fu.se.swd392csms.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,4 +44,39 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      */
     @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.product WHERE oi.order.id = :orderId")
     List<OrderItem> findByOrderIdWithProduct(Long orderId);
+    
+    /**
+     * Get order items with product details for several orders
+     * @param orderIds Order IDs
+     * @return List of order items with product information
+     */
+    @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.product WHERE oi.order.id IN :orderIds")
+    List<OrderItem> findByOrderIdInWithProduct(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Sum the quantity sold and revenue of completed orders per day and product;
+     * statuses are compared case-insensitively
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Rows of [day, product ID, product name, quantity sold, revenue]
+     */
+    @Query("SELECT CAST(o.orderDate AS LocalDate), p.id, p.name, SUM(oi.quantity), SUM(oi.quantity * oi.price) " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE UPPER(o.status) = 'COMPLETED' AND o.orderDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), p.id, p.name")
+    List<Object[]> summarizeCompletedByDayAndProduct(@Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Sum the quantity sold and revenue of completed orders per day, hour of day and product,
+     * used to rebuild the in-memory sales cube; statuses are compared case-insensitively
+     * @param since Earliest order date
+     * @return Rows of [day, hour, product ID, quantity sold, revenue]
+     */
+    @Query("SELECT CAST(o.orderDate AS LocalDate), EXTRACT(HOUR FROM o.orderDate), oi.product.id, " +
+           "SUM(oi.quantity), SUM(oi.quantity * oi.price) " +
+           "FROM OrderItem oi JOIN oi.order o " +
+           "WHERE UPPER(o.status) = 'COMPLETED' AND o.orderDate >= :since " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), EXTRACT(HOUR FROM o.orderDate), oi.product.id")
+    List<Object[]> summarizeCompletedByDayHourProduct(@Param("since") LocalDateTime since);
 }
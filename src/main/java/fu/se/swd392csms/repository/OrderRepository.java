@@ -1,15 +1,25 @@
 package fu.se.swd392csms.repository;
 
 import fu.se.swd392csms.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Order entity
@@ -33,6 +43,102 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByStatus(String status, Pageable pageable);
     
+    /**
+     * Find a page of orders with their employee fetched in the same query
+     * @param pageable Pagination parameters
+     * @return Page of orders
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o")
+    Page<Order> findPageWithEmployee(Pageable pageable);
+    
+    /**
+     * Find a page of orders by status with their employee fetched in the same query
+     * @param status Order status
+     * @param pageable Pagination parameters
+     * @return Page of orders with the given status
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o WHERE o.status = :status")
+    Page<Order> findPageWithEmployeeByStatus(@Param("status") String status, Pageable pageable);
+    
+    /**
+     * Find an order with its employee, items and item products in a single query
+     * @param id Order ID
+     * @return Optional containing the order if found
+     */
+    @EntityGraph(attributePaths = {"employee", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findDetailedById(@Param("id") Long id);
+
+    /**
+     * Find an order by client-generated ID with its employee, items and their products
+     * @param clientOrderId Client order ID
+     * @return Order created for the client ID, if any
+     */
+    @EntityGraph(attributePaths = {"employee", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.clientOrderId = :clientOrderId")
+    Optional<Order> findDetailedByClientOrderId(@Param("clientOrderId") String clientOrderId);
+
+    /**
+     * Find orders by client-generated ID with their employee fetched in the same query
+     * @param clientOrderIds Client order IDs
+     * @return Orders that were already created for the given client IDs
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o WHERE o.clientOrderId IN :clientOrderIds")
+    List<Order> findByClientOrderIdIn(@Param("clientOrderIds") Collection<String> clientOrderIds);
+
+    /**
+     * Find the newest orders, for the first slice of keyset pagination
+     * @param pageable Slice size (page number is always 0)
+     * @return Orders sorted by order date and ID descending
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findFirstSlice(Pageable pageable);
+
+    /**
+     * Find the newest orders by status, for the first slice of keyset pagination
+     * @param status Order status
+     * @param pageable Slice size (page number is always 0)
+     * @return Orders sorted by order date and ID descending
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findFirstSliceByStatus(@Param("status") String status, Pageable pageable);
+
+    /**
+     * Find the orders that come after a given (orderDate, id) position, newest first
+     * @param orderDate Order date of the last order already returned
+     * @param id ID of the last order already returned
+     * @param pageable Slice size (page number is always 0)
+     * @return Orders sorted by order date and ID descending
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o WHERE o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findSliceAfter(@Param("orderDate") LocalDateTime orderDate,
+                               @Param("id") Long id,
+                               Pageable pageable);
+
+    /**
+     * Find the orders by status that come after a given (orderDate, id) position, newest first
+     * @param status Order status
+     * @param orderDate Order date of the last order already returned
+     * @param id ID of the last order already returned
+     * @param pageable Slice size (page number is always 0)
+     * @return Orders sorted by order date and ID descending
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT o FROM Order o WHERE o.status = :status " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findSliceByStatusAfter(@Param("status") String status,
+                                       @Param("orderDate") LocalDateTime orderDate,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
     /**
      * Find all orders by employee
      * @param employeeId Employee ID
@@ -91,12 +197,80 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Double getTotalRevenue(@Param("startDate") LocalDateTime startDate, 
                           @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Summarize the orders placed within a date range per day in one grouped query;
+     * statuses are compared case-insensitively and days without orders are not returned
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Rows of [day, total orders, completed orders, cancelled orders, completed revenue]
+     */
+    @Query("SELECT CAST(o.orderDate AS LocalDate), COUNT(o), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'CANCELLED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'COMPLETED' THEN o.totalAmount ELSE 0 END) " +
+           "FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY CAST(o.orderDate AS LocalDate)")
+    List<Object[]> summarizeByDay(@Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Stream the orders placed within a date range as plain values for export,
+     * read forward-only in fetches of 1000 rows; must be consumed inside a transaction
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (exclusive)
+     * @return Rows of [id, orderDate, status, totalAmount, employee name, clientOrderId], oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.id, o.orderDate, o.status, o.totalAmount, e.fullName, o.clientOrderId " +
+           "FROM Order o LEFT JOIN o.employee e " +
+           "WHERE o.orderDate >= :startDate AND o.orderDate < :endDate ORDER BY o.orderDate, o.id")
+    Stream<Object[]> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Find the date of the first order
+     * @return Earliest order date, null if there are no orders
+     */
+    @Query("SELECT MIN(o.orderDate) FROM Order o")
+    LocalDateTime findEarliestOrderDate();
+    
+    /**
+     * Find the order dates of the given orders
+     * @param orderIds Order IDs
+     * @return Order dates, one per order
+     */
+    @Query("SELECT o.orderDate FROM Order o WHERE o.id IN :orderIds")
+    List<LocalDateTime> findOrderDatesByIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
     /**
      * Count orders by status
      * @param status Order status
      * @return Number of orders with the status
      */
     long countByStatus(String status);
+    
+    /**
+     * Count all orders, pending and completed orders, and sum completed revenue for the month and the day
+     * in one pass; statuses are compared case-insensitively
+     * @param monthStart Start of the current month
+     * @param dayStart Start of the current day
+     * @param dayEnd Start of the next day, exclusive
+     * @return One row of [total orders, pending orders, completed orders, month revenue, day revenue]
+     */
+    @Query("SELECT COUNT(o), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'PENDING' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'COMPLETED' AND o.orderDate >= :monthStart AND o.orderDate < :dayEnd " +
+           "THEN o.totalAmount ELSE 0 END), " +
+           "SUM(CASE WHEN UPPER(o.status) = 'COMPLETED' AND o.orderDate >= :dayStart AND o.orderDate < :dayEnd " +
+           "THEN o.totalAmount ELSE 0 END) " +
+           "FROM Order o")
+    List<Object[]> summarizeForDashboard(@Param("monthStart") LocalDateTime monthStart,
+                                         @Param("dayStart") LocalDateTime dayStart,
+                                         @Param("dayEnd") LocalDateTime dayEnd);
 
     /**
      * Find pending orders older than the provided threshold (optimized filtering at DB level)
@@ -104,4 +278,55 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o WHERE o.status = 'PENDING' AND o.orderDate < :threshold")
     List<Order> findPendingOrdersOlderThan(@Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Find IDs of pending orders older than the threshold, oldest first
+     * @param threshold Orders with orderDate before this are returned
+     * @param pageable Maximum number of IDs (page number is always 0)
+     * @return Order IDs
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = 'PENDING' AND o.orderDate < :threshold ORDER BY o.orderDate, o.id")
+    List<Long> findPendingIdsOlderThan(@Param("threshold") LocalDateTime threshold, Pageable pageable);
+
+    /**
+     * Find the ID and order date of every pending order, served from the (status, order_date, id) index
+     * @return Rows of [id, orderDate]
+     */
+    @Query("SELECT o.id, o.orderDate FROM Order o WHERE o.status = 'PENDING'")
+    List<Object[]> findPendingIdsAndOrderDates();
+
+    /**
+     * Cancel the given orders if they are still pending
+     * @param orderIds Order IDs
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'CANCELLED' WHERE o.id IN :orderIds AND o.status = 'PENDING'")
+    int cancelPendingByIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Lock the given orders that are still pending, so no one else can change their status
+     * before the current transaction ends
+     * @param orderIds Order IDs
+     * @return IDs of the locked pending orders
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :orderIds AND o.status = 'PENDING'")
+    List<Long> lockPendingIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Find orders whose ledger-reserved stock has not been written to ingredients yet
+     * @return List of order IDs
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.stockPending = true")
+    List<Long> findStockPendingOrderIds();
+
+    /**
+     * Mark orders as having their stock written to ingredients
+     * @param orderIds Order IDs
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.stockPending = false WHERE o.id IN :orderIds")
+    int markStockSettled(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -3,8 +3,10 @@ package fu.se.swd392csms.repository;
 import fu.se.swd392csms.entity.ProductIngredient;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -55,4 +57,21 @@ public interface ProductIngredientRepository extends JpaRepository<ProductIngred
      */
     @Query("SELECT pi FROM ProductIngredient pi JOIN FETCH pi.ingredient WHERE pi.product.id = :productId")
     List<ProductIngredient> findByProductIdWithIngredient(Long productId);
+    
+    /**
+     * Get all ingredients for a set of products with details in a single query
+     * @param productIds Product IDs
+     * @return List of product-ingredient mappings with ingredient details
+     */
+    @Query("SELECT pi FROM ProductIngredient pi JOIN FETCH pi.ingredient WHERE pi.product.id IN :productIds")
+    List<ProductIngredient> findByProductIdInWithIngredient(@Param("productIds") Collection<Long> productIds);
+    
+    /**
+     * Get the recipe lines of a set of products as plain values in a single query
+     * @param productIds Product IDs
+     * @return Rows of [product ID, ingredient ID, quantity required, ingredient price per unit]
+     */
+    @Query("SELECT pi.product.id, i.id, pi.quantityRequired, i.pricePerUnit " +
+           "FROM ProductIngredient pi JOIN pi.ingredient i WHERE pi.product.id IN :productIds")
+    List<Object[]> findCostLinesByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
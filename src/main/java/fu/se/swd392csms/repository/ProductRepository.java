@@ -66,4 +66,11 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
      */
     @Query("SELECT DISTINCT p.category FROM Product p ORDER BY p.category")
     List<String> findAllCategories();
+    
+    /**
+     * Get the name and category of every product as plain values
+     * @return Rows of [product ID, name, category]
+     */
+    @Query("SELECT p.id, p.name, p.category FROM Product p")
+    List<Object[]> findNamesAndCategories();
 }
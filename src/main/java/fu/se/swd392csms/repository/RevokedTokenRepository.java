@@ -0,0 +1,44 @@
+package fu.se.swd392csms.repository;
+
+import fu.se.swd392csms.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for RevokedToken entity
+ * Provides the deny-list lookups and cleanup of entries whose tokens have expired
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    
+    /**
+     * Check whether a token is revoked and not yet expired
+     * @param tokenId Token ID
+     * @param now Current time
+     * @return true if the token is on the deny-list
+     */
+    boolean existsByTokenIdAndExpiresAtAfter(String tokenId, LocalDateTime now);
+    
+    /**
+     * Find the IDs of revoked tokens that have not expired yet
+     * @param now Current time
+     * @return Token IDs
+     */
+    @Query("SELECT t.tokenId FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<String> findTokenIdsExpiringAfter(@Param("now") LocalDateTime now);
+    
+    /**
+     * Delete entries whose tokens have expired
+     * @param now Current time
+     * @return Number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
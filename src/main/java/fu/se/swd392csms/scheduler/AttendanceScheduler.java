@@ -15,7 +15,10 @@ import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Attendance Scheduler
@@ -109,35 +112,31 @@ public class AttendanceScheduler {
           // Get all active employees
           List<Employee> allEmployees = employeeRepository.findAll();
 
-          // Find employees who have already checked in today
-          // (ensures we don't mark those who did check in)
-          List<Long> checkedInToday = attendanceRepository.findByDate(today).stream()
-                  .filter(a -> a.getCheckInTime() != null)
+          // Employees with any attendance today, loaded once instead of one lookup per employee
+          Set<Long> attendedToday = attendanceRepository.findByDate(today).stream()
                   .map(a -> a.getEmployee().getId())
-                  .toList();
+                  .collect(Collectors.toSet());
 
+          List<Attendance> absentAttendances = new ArrayList<>();
           for (Employee employee : allEmployees) {
-              if (!checkedInToday.contains(employee.getId())) {
-                  // Avoid duplicate absent: ensure no attendance exists for today for this employee
-                  boolean hasAnyAttendance = attendanceRepository
-                          .findByEmployeeIdAndDate(employee.getId(), today)
-                          .isPresent();
-                  if (hasAnyAttendance) {
-                      continue;
-                  }
-
-                  Attendance absentAttendance = Attendance.builder()
+              if (!attendedToday.contains(employee.getId())) {
+                  absentAttendances.add(Attendance.builder()
                           .employee(employee)
                           .date(today)
                           .status("Absent")
                           .notes("Auto-marked absent after shift - no check-in record by 17:00")
-                          .build();
-
-                  attendanceRepository.save(absentAttendance);
-                  log.info("Early absent marked for employee {} (ID: {})", employee.getFullName(), employee.getId());
+                          .build());
               }
           }
 
+          // Inserted together so Hibernate sends them as JDBC batches; one failed row rolls back the whole batch
+          attendanceRepository.saveAll(absentAttendances);
+          removeAbsentOfCheckedIn(today);
+          for (Attendance absent : absentAttendances) {
+              log.info("Early absent marked for employee {} (ID: {})",
+                      absent.getEmployee().getFullName(), absent.getEmployee().getId());
+          }
+
           log.info("Early absent marking finished");
       } catch (Exception e) {
           log.error("Error during early absent marking: {}", e.getMessage(), e);
@@ -159,12 +158,12 @@ public class AttendanceScheduler {
             // Get all active employees
             List<Employee> allEmployees = employeeRepository.findAll();
             
-            // Find employees who didn't check in today
+            // Find employees who didn't check in today, with one attendance query for all of them
+            Set<Long> attendedToday = attendanceRepository.findByDate(today).stream()
+                    .map(a -> a.getEmployee().getId())
+                    .collect(Collectors.toSet());
             List<Employee> absentEmployees = allEmployees.stream()
-                    .filter(emp -> {
-                        boolean hasAttendanceToday = attendanceRepository.findByEmployeeIdAndDate(emp.getId(), today).isPresent();
-                        return !hasAttendanceToday;
-                    })
+                    .filter(emp -> !attendedToday.contains(emp.getId()))
                     .toList();
             
             if (absentEmployees.isEmpty()) {
@@ -174,28 +173,24 @@ public class AttendanceScheduler {
             
             log.info("Found {} employee(s) to mark as absent", absentEmployees.size());
             
+            List<Attendance> absentAttendances = new ArrayList<>();
             for (Employee employee : absentEmployees) {
-                try {
-                    // Create absent attendance record
-                    Attendance absentAttendance = Attendance.builder()
-                            .employee(employee)
-                            .date(today)
-                            .status("Absent")
-                            .notes("Auto-marked absent - no check-in record")
-                            .build();
-                    
-                    attendanceRepository.save(absentAttendance);
-                    
-                    log.info("Auto-marked employee {} (ID: {}) as absent", 
-                            employee.getFullName(), 
-                            employee.getId());
-                    
-                } catch (Exception e) {
-                    log.error("Error marking employee {} (ID: {}) as absent: {}", 
-                            employee.getFullName(), 
-                            employee.getId(), 
-                            e.getMessage(), e);
-                }
+                // Create absent attendance record
+                absentAttendances.add(Attendance.builder()
+                        .employee(employee)
+                        .date(today)
+                        .status("Absent")
+                        .notes("Auto-marked absent - no check-in record")
+                        .build());
+            }
+            
+            // Inserted together so Hibernate sends them as JDBC batches; one failed row rolls back the whole batch
+            attendanceRepository.saveAll(absentAttendances);
+            removeAbsentOfCheckedIn(today);
+            for (Attendance absent : absentAttendances) {
+                log.info("Auto-marked employee {} (ID: {}) as absent", 
+                        absent.getEmployee().getFullName(), 
+                        absent.getEmployee().getId());
             }
             
             log.info("Auto-absent marking process completed successfully");
@@ -205,6 +200,17 @@ public class AttendanceScheduler {
         }
     }
     
+    /**
+     * Undo absent marks of employees who checked in after today's attendance was read,
+     * so a concurrent check-in does not leave the employee both present and absent
+     */
+    private void removeAbsentOfCheckedIn(LocalDate today) {
+        int removed = attendanceRepository.deleteAbsentOfCheckedIn(today);
+        if (removed > 0) {
+            log.info("Removed {} absent mark(s) of employees who checked in meanwhile", removed);
+        }
+    }
+    
     /**
      * Calculate working hours and overtime
      */
@@ -0,0 +1,34 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.DailyReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Daily Report Scheduler
+ * Keeps the daily_reports rollup up to date, by default every 5 seconds
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyReportScheduler {
+
+    private final DailyReportService dailyReportService;
+
+    /**
+     * Backfill missing days and recompute the days whose orders changed
+     */
+    @Scheduled(fixedDelayString = "${reports.rollup.refresh-interval-ms:5000}")
+    public void refreshRollups() {
+        try {
+            int recomputed = dailyReportService.refreshRollups();
+            if (recomputed > 0) {
+                log.debug("[DailyReportScheduler] Recomputed {} day(s)", recomputed);
+            }
+        } catch (Exception e) {
+            log.error("[DailyReportScheduler] Error refreshing daily reports: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.LowStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dashboard Stats Scheduler
+ * Re-syncs every dashboard counter and the low-stock index from the database, by default every 5 minutes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardStatsScheduler {
+
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockService lowStockService;
+
+    /**
+     * Replace the counters with fresh counts to correct drift
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stats.resync-interval-ms:300000}")
+    public void resync() {
+        try {
+            if (!dashboardStatsService.resync()) {
+                log.debug("[DashboardStatsScheduler] Resync skipped, counters changed while reading");
+            }
+        } catch (Exception e) {
+            log.error("[DashboardStatsScheduler] Error re-syncing dashboard stats: {}", e.getMessage(), e);
+        }
+        try {
+            if (!lowStockService.resync()) {
+                log.debug("[DashboardStatsScheduler] Low-stock resync skipped, stock changed while reading");
+            }
+        } catch (Exception e) {
+            log.error("[DashboardStatsScheduler] Error re-syncing low stock: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.OrderIdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotency Key Scheduler
+ * Removes stored Idempotency-Keys once clients can no longer be retrying them
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyScheduler {
+    
+    private final OrderIdempotencyService orderIdempotencyService;
+    
+    /**
+     * Purge expired keys
+     * Runs every hour
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    public void purgeExpiredKeys() {
+        int deleted = orderIdempotencyService.purgeExpiredKeys();
+        if (deleted > 0) {
+            log.info("[IdempotencyKeyScheduler] Deleted {} expired idempotency key(s)", deleted);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.impl.LedgerIngredientStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ingredient Ledger Scheduler
+ * Periodically writes stock reserved in memory back to the database (ledger mode only)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "ledger")
+public class IngredientLedgerScheduler {
+
+    private final LedgerIngredientStockService ledgerStockService;
+
+    /**
+     * Flush committed reservations, by default every second
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:1000}")
+    public void flushLedger() {
+        int written = ledgerStockService.flush();
+        if (written > 0) {
+            log.debug("[IngredientLedgerScheduler] Wrote stock for {} order(s), {} pending", written, ledgerStockService.pendingCount());
+        }
+    }
+}
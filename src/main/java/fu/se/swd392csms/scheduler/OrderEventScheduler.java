@@ -0,0 +1,25 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.OrderEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Order Event Scheduler
+ * Keeps idle order board streams open through proxies that drop silent connections
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventScheduler {
+
+    private final OrderEventService orderEventService;
+
+    /**
+     * Send a keep-alive comment to every connected display, by default every 15 seconds
+     */
+    @Scheduled(fixedRateString = "${orders.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        orderEventService.heartbeat();
+    }
+}
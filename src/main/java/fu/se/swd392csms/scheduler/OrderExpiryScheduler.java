@@ -0,0 +1,65 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.OrderEventService;
+import fu.se.swd392csms.service.OrderExpiryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Order Expiry Scheduler
+ * Advances the order expiry timers, by default every second
+ */
+@Slf4j
+@Component
+public class OrderExpiryScheduler {
+
+    private final OrderExpiryService orderExpiryService;
+    private final OrderEventService orderEventService;
+    private final DailyReportService dailyReportService;
+    private final DashboardStatsService dashboardStatsService;
+    private final Counter expiredOrders;
+
+    public OrderExpiryScheduler(OrderExpiryService orderExpiryService,
+                                OrderEventService orderEventService,
+                                DailyReportService dailyReportService,
+                                DashboardStatsService dashboardStatsService,
+                                MeterRegistry meterRegistry) {
+        this.orderExpiryService = orderExpiryService;
+        this.orderEventService = orderEventService;
+        this.dailyReportService = dailyReportService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.expiredOrders = Counter.builder("orders.expiry.cancelled")
+                .description("Orders cancelled when their expiry timer fired")
+                .register(meterRegistry);
+        Gauge.builder("orders.expiry.timers", orderExpiryService, OrderExpiryService::pendingTimers)
+                .description("Pending orders with a running expiry timer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cancel pending orders whose expiry timer has fired
+     */
+    @Scheduled(fixedRateString = "${orders.expiry.tick-ms:1000}")
+    public void expireOrders() {
+        try {
+            List<Long> cancelled = orderExpiryService.expireDueOrders();
+            if (!cancelled.isEmpty()) {
+                expiredOrders.increment(cancelled.size());
+                orderEventService.publishCancelled(cancelled);
+                dailyReportService.markOrdersChanged(cancelled);
+                dashboardStatsService.ordersCancelled(cancelled.size());
+                log.info("[OrderExpiryScheduler] Auto-cancelled {} expired order(s): {}", cancelled.size(), cancelled);
+            }
+        } catch (Exception e) {
+            log.error("[OrderExpiryScheduler] Error cancelling expired orders: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,66 +1,137 @@
 package fu.se.swd392csms.scheduler;
 
-import fu.se.swd392csms.entity.Order;
 import fu.se.swd392csms.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.OrderEventService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Order Scheduler
- * Handles automatic order cancellation for expired orders
+ * Handles automatic order cancellation for expired orders.
+ * Orders normally expire through their timers in OrderExpiryService; this sweep is the safety net
+ * for orders whose timer was lost, e.g. ones placed on another instance or a failed expiry tick.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OrderScheduler {
     
     private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderEventService orderEventService;
+    private final DailyReportService dailyReportService;
+    private final DashboardStatsService dashboardStatsService;
+    private final Timer autoCancelTimer;
+    private final DistributionSummary autoCancelRows;
+    private final Counter autoCancelFailures;
     
     @Value("${orders.auto-cancel.threshold-minutes:60}")
     private int autoCancelThresholdMinutes;
 
+    @Value("${orders.auto-cancel.chunk-size:500}")
+    private int autoCancelChunkSize;
+
+    public OrderScheduler(OrderRepository orderRepository,
+                          TransactionTemplate transactionTemplate,
+                          OrderEventService orderEventService,
+                          DailyReportService dailyReportService,
+                          DashboardStatsService dashboardStatsService,
+                          MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.orderEventService = orderEventService;
+        this.dailyReportService = dailyReportService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.autoCancelTimer = Timer.builder("orders.auto_cancel.duration")
+                .description("Runtime of an auto-cancel run")
+                .register(meterRegistry);
+        this.autoCancelRows = DistributionSummary.builder("orders.auto_cancel.rows")
+                .description("Orders cancelled per auto-cancel run")
+                .baseUnit("orders")
+                .register(meterRegistry);
+        this.autoCancelFailures = Counter.builder("orders.auto_cancel.failures")
+                .description("Auto-cancel runs that stopped on an error")
+                .register(meterRegistry);
+    }
+
     /**
      * Auto-cancel orders that are still PENDING beyond a configurable threshold (default 60 minutes)
-     * Runs every minute for timely cancellation.
+     * Runs every orders.auto-cancel.sweep-interval-ms (default 15 minutes). Orders are cancelled with bulk
+     * UPDATEs of at most orders.auto-cancel.chunk-size rows, each chunk committed in its own short transaction.
      */
-    @Scheduled(fixedRate = 60000)
-    @Transactional
+    @Scheduled(fixedRateString = "${orders.auto-cancel.sweep-interval-ms:900000}")
     public void autoCancelExpiredOrders() {
-        final LocalDateTime now = LocalDateTime.now();
-        final LocalDateTime threshold = now.minusMinutes(autoCancelThresholdMinutes);
+        final LocalDateTime threshold = LocalDateTime.now().minusMinutes(autoCancelThresholdMinutes);
         log.info("[OrderScheduler] Running auto-cancel. Threshold: {} minute(s) ago at {}", autoCancelThresholdMinutes, threshold);
 
-        try {
-            // Query only the orders that need cancellation at DB level
-            List<Order> expiredPendingOrders = orderRepository.findPendingOrdersOlderThan(threshold);
+        List<Long> cancelledIds = autoCancelTimer.record(() -> cancelOrdersOlderThan(threshold));
+        autoCancelRows.record(cancelledIds.size());
 
-            if (expiredPendingOrders.isEmpty()) {
-                log.info("[OrderScheduler] No expired pending orders found.");
-                return;
-            }
+        if (cancelledIds.isEmpty()) {
+            log.info("[OrderScheduler] No expired pending orders found.");
+        } else {
+            orderEventService.publishCancelled(cancelledIds);
+            dailyReportService.markOrdersChanged(cancelledIds);
+            dashboardStatsService.ordersCancelled(cancelledIds.size());
+            log.info("[OrderScheduler] Completed. Cancelled {} order(s): {}", cancelledIds.size(), cancelledIds);
+        }
+    }
 
-            int cancelledCount = 0;
-            for (Order order : expiredPendingOrders) {
-                try {
-                    order.setStatus("CANCELLED");
-                    orderRepository.save(order);
-                    cancelledCount++;
-                    log.info("[OrderScheduler] Auto-cancelled order ID: {} (created at: {})", order.getId(), order.getOrderDate());
-                } catch (Exception e) {
-                    log.error("[OrderScheduler] Error auto-cancelling order ID: {}: {}", order.getId(), e.getMessage(), e);
+    /**
+     * Cancel pending orders placed before the threshold, one chunk at a time
+     * @param threshold Orders with orderDate before this are cancelled
+     * @return IDs of the cancelled orders
+     */
+    List<Long> cancelOrdersOlderThan(LocalDateTime threshold) {
+        List<Long> cancelledIds = new ArrayList<>();
+        try {
+            while (true) {
+                Chunk chunk = transactionTemplate.execute(status -> cancelChunk(threshold));
+                cancelledIds.addAll(chunk.cancelledIds());
+                if (chunk.selected() < autoCancelChunkSize) {
+                    break;
                 }
             }
-
-            log.info("[OrderScheduler] Completed. Cancelled {} order(s).", cancelledCount);
         } catch (Exception e) {
+            // Chunks committed so far stay cancelled; the rest is picked up by the next run
+            autoCancelFailures.increment();
             log.error("[OrderScheduler] Error during auto-cancel run: {}", e.getMessage(), e);
         }
+        return cancelledIds;
+    }
+
+    private Chunk cancelChunk(LocalDateTime threshold) {
+        List<Long> ids = orderRepository.findPendingIdsOlderThan(threshold, PageRequest.of(0, autoCancelChunkSize));
+        if (ids.isEmpty()) {
+            return new Chunk(0, ids);
+        }
+        // Orders that changed status since they were selected are skipped; the rest stay locked until the update
+        List<Long> pending = orderRepository.lockPendingIds(ids);
+        if (pending.size() < ids.size()) {
+            log.debug("[OrderScheduler] {} of {} order(s) in chunk were no longer pending", ids.size() - pending.size(), ids.size());
+        }
+        if (!pending.isEmpty()) {
+            orderRepository.cancelPendingByIds(pending);
+        }
+        return new Chunk(ids.size(), pending);
+    }
+
+    /**
+     * Number of expired orders a chunk picked up and the ones it cancelled
+     */
+    private record Chunk(int selected, List<Long> cancelledIds) {
     }
 }
@@ -0,0 +1,35 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token Revocation Scheduler
+ * Removes revoked tokens from the deny-list once they have expired on their own
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationScheduler {
+    
+    private final TokenRevocationService tokenRevocationService;
+    
+    /**
+     * Purge expired revocations
+     * Runs every hour
+     */
+    @Scheduled(cron = "0 30 * * * ?")
+    public void purgeExpiredRevocations() {
+        try {
+            int deleted = tokenRevocationService.purgeExpired();
+            if (deleted > 0) {
+                log.info("[TokenRevocationScheduler] Deleted {} expired revoked token(s)", deleted);
+            }
+        } catch (Exception e) {
+            log.error("[TokenRevocationScheduler] Error purging revoked tokens: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package fu.se.swd392csms.security;
 
+import fu.se.swd392csms.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +30,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -35,10 +43,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Verified and read in a single parse; null when the token is rejected
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseAndValidate(jwt) : null;
+            
+            // Logged-out tokens stay unauthenticated; tokens that were never revoked are ruled out in memory
+            if (claims != null && !tokenRevocationService.isRevoked(tokenProvider.getTokenId(claims))) {
+                // Cached or read from the token's roles; the database is only asked for tokens without roles,
+                // issued more than one ttl ago, or issued before the user's last role change
+                UserDetails userDetails = principalCache.resolve(claims, userDetailsService::loadUserByUsername);
                 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
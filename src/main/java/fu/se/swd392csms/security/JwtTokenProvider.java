@@ -2,26 +2,59 @@ package fu.se.swd392csms.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT Token Provider
- * Handles JWT token generation, validation, and parsing
+ * Handles JWT token generation, validation, and parsing.
+ * The signing key and parser are built once; both are immutable and shared by all requests.
+ * Rejected tokens are counted per reason in the security.jwt.rejected meter instead of being logged.
+ * Tokens issued at login carry the user's roles, so requests can be authorized without loading the user.
+ * Every token carries a random ID (jti), so a single token can be revoked at logout.
  */
 @Component
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    /**
+     * Claim holding the authorities of the user at login
+     */
+    public static final String ROLES_CLAIM = "roles";
     
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    private final long jwtExpirationMs;
+    private final Key key;
+    private final JwtParser parser;
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+    
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration}") long jwtExpirationMs,
+                            MeterRegistry meterRegistry) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("security.jwt.rejected")
+                    .description("Bearer tokens rejected by the JWT filter")
+                    .tag("reason", rejection.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
     
     /**
      * Generate JWT token from authentication
@@ -30,7 +63,11 @@ public class JwtTokenProvider {
      */
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return generateTokenFromUsername(userDetails.getUsername());
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .toList();
+        return buildToken(userDetails.getUsername(), roles);
     }
     
     /**
@@ -39,34 +76,41 @@ public class JwtTokenProvider {
      * @return JWT token string
      */
     public String generateTokenFromUsername(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        return buildToken(username, null);
+    }
+    
+    /**
+     * Verify a JWT token and read its claims in one pass
+     * @param token JWT token
+     * @return Claims of the token, or null if it is invalid (the reason is counted)
+     */
+    public Claims parseAndValidate(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException ex) {
+            reject(Rejection.EXPIRED);
+        } catch (UnsupportedJwtException ex) {
+            reject(Rejection.UNSUPPORTED);
+        } catch (MalformedJwtException ex) {
+            reject(Rejection.MALFORMED);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            reject(Rejection.SIGNATURE);
+        } catch (IllegalArgumentException ex) {
+            reject(Rejection.EMPTY);
+        } catch (JwtException ex) {
+            reject(Rejection.INVALID);
+        }
+        return null;
     }
     
     /**
      * Get username from JWT token
      * @param token JWT token
-     * @return Username
+     * @return Username, or null if the token is invalid
      */
     public String getUsernameFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+        Claims claims = parseAndValidate(token);
+        return claims != null ? claims.getSubject() : null;
     }
     
     /**
@@ -75,25 +119,62 @@ public class JwtTokenProvider {
      * @return true if valid, false otherwise
      */
     public boolean validateToken(String token) {
-        try {
-            Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            
-            return true;
-        } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token: " + ex.getMessage());
-        } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token: " + ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token: " + ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty: " + ex.getMessage());
+        return parseAndValidate(token) != null;
+    }
+    
+    /**
+     * Get the ID a token is revoked by
+     * @param claims Claims of a verified token
+     * @return The token's jti, or its subject and issue time for tokens issued without one
+     */
+    public String getTokenId(Claims claims) {
+        if (claims.getId() != null) {
+            return claims.getId();
         }
+        Date issuedAt = claims.getIssuedAt();
+        return claims.getSubject() + "@" + (issuedAt != null ? issuedAt.getTime() / 1000 : 0);
+    }
+    
+    /**
+     * Get the number of tokens rejected for a reason since startup
+     * @param rejection Reason
+     * @return Count
+     */
+    public long getRejectedCount(Rejection rejection) {
+        return (long) rejections.get(rejection).count();
+    }
+    
+    /**
+     * Sign a token for a user, with the user's roles as a claim when they are known
+     */
+    private String buildToken(String username, List<String> roles) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
         
-        return false;
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .setIssuedAt(now)
+                .setExpiration(expiryDate);
+        if (roles != null) {
+            builder.claim(ROLES_CLAIM, roles);
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256).compact();
+    }
+    
+    private void reject(Rejection rejection) {
+        rejections.get(rejection).increment();
+    }
+    
+    /**
+     * Reasons a token is rejected
+     */
+    public enum Rejection {
+        EXPIRED,
+        UNSUPPORTED,
+        MALFORMED,
+        SIGNATURE,
+        EMPTY,
+        INVALID
     }
 }
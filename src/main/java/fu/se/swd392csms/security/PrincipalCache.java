@@ -0,0 +1,138 @@
+package fu.se.swd392csms.security;
+
+import fu.se.swd392csms.util.AfterCommit;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Principal Cache
+ * Keeps the UserDetails of recently active users for a bounded time, keyed by username, so an
+ * authenticated request does not load the user and its roles from the database.
+ * On a miss the roles are taken from the token's claims only if the token was issued within the
+ * last ttl and not before a change seen by this instance; otherwise the user is loaded.
+ * A change made on another instance therefore reaches this one within one ttl, the same bound as
+ * for a cached user.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    // Time each user's roles or account last changed on this instance; kept for one ttl, as older claims are not trusted anyway
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    // Number of changes so far; a user resolved while it moved is not cached
+    private final AtomicLong changes = new AtomicLong();
+
+    // Current time in epoch milliseconds
+    private final LongSupplier clock;
+
+    @Autowired
+    public PrincipalCache(@Value("${security.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this(ttlMs, maxEntries, System::currentTimeMillis);
+    }
+
+    PrincipalCache(long ttlMs, int maxEntries, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the user a verified token belongs to
+     * @param claims Claims of a verified token
+     * @param loader Loads a user from the database, used only when the claims cannot be trusted
+     * @return User details
+     */
+    public UserDetails resolve(Claims claims, Function<String, UserDetails> loader) {
+        String username = claims.getSubject();
+        long now = clock.getAsLong();
+        CachedPrincipal cached = principals.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.userDetails();
+        }
+
+        long seenChanges = changes.get();
+        Collection<?> roles = claims.get(JwtTokenProvider.ROLES_CLAIM, Collection.class);
+        Date issuedAt = claims.getIssuedAt();
+        UserDetails userDetails;
+        if (roles != null && issuedAt != null && issuedAt.getTime() >= trustedSince(username, now)) {
+            userDetails = User.withUsername(username)
+                    .password("")
+                    .authorities(roles.stream().map(String::valueOf).toArray(String[]::new))
+                    .build();
+        } else {
+            userDetails = loader.apply(username);
+        }
+
+        if (principals.size() >= maxEntries) {
+            evict(now);
+        }
+        // A change that committed while this user was resolved must not be overwritten with older details
+        principals.put(username, new CachedPrincipal(userDetails, now + ttlMs));
+        if (changes.get() != seenChanges) {
+            principals.remove(username);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Forget a user whose roles changed or who was deleted, once the current transaction commits.
+     * Tokens issued before that are checked against the database again.
+     * @param username Username
+     */
+    public void invalidate(String username) {
+        AfterCommit.run(() -> forget(username));
+    }
+
+    /**
+     * Count the cached users
+     */
+    public int size() {
+        return principals.size();
+    }
+
+    /**
+     * Earliest issue time of a token whose roles are trusted: one ttl ago, or the user's last change if later
+     */
+    private long trustedSince(String username, long now) {
+        return Math.max(now - ttlMs, changedAt.getOrDefault(username, Long.MIN_VALUE));
+    }
+
+    private void forget(String username) {
+        long now = clock.getAsLong();
+        changedAt.put(username, now);
+        changes.incrementAndGet();
+        principals.remove(username);
+        changedAt.values().removeIf(time -> time < now - ttlMs);
+    }
+
+    /**
+     * Drop expired users, or everyone if all are still current
+     */
+    private void evict(long now) {
+        principals.values().removeIf(cached -> cached.expiresAt() <= now);
+        if (principals.size() >= maxEntries) {
+            principals.clear();
+        }
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAt) {
+    }
+}
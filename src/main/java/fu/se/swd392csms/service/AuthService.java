@@ -30,4 +30,11 @@ public interface AuthService {
      * @return Login response with user details
      */
     LoginResponse getCurrentUser();
+    
+    /**
+     * Revoke a JWT token so it can no longer be used
+     * @param token JWT token
+     * @return Success message
+     */
+    MessageResponse logout(String token);
 }
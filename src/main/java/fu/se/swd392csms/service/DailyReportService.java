@@ -0,0 +1,51 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.dto.response.DailyReportResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Daily Report Service Interface
+ * Maintains the daily_reports rollup: one row per day with its order counts and revenue, plus the quantity
+ * sold of each product in daily_product_sales. Order changes mark their day as changed and only changed
+ * days are recomputed by the scheduled refresh, the only writer. Ingredient cost is not stored; every report costs the quantities at current prices.
+ */
+public interface DailyReportService {
+
+    /**
+     * Get daily reports for a date range from the rollup
+     * Days the backfill has not reached yet are computed for the response without being stored
+     * @param startDate Start date
+     * @param endDate End date
+     * @return One report per day, oldest first
+     */
+    List<DailyReportResponse> getDailyReports(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get the report of one day from the rollup, with the ingredient cost of each product
+     * @param date Report date
+     * @return Daily report
+     */
+    DailyReportResponse getDailyReport(LocalDate date);
+
+    /**
+     * Mark the day of an order as changed once the current transaction commits
+     * @param orderDate Order date of the created, updated or deleted order
+     */
+    void markOrderChanged(LocalDateTime orderDate);
+
+    /**
+     * Mark the days of orders changed in bulk, e.g. by auto-cancel
+     * @param orderIds Order IDs
+     */
+    void markOrdersChanged(Collection<Long> orderIds);
+
+    /**
+     * Backfill the next chunk of days missing from the rollup and recompute the changed days
+     * @return Number of days recomputed
+     */
+    int refreshRollups();
+}
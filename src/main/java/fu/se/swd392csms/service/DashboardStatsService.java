@@ -0,0 +1,54 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.dto.response.DashboardStatsResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Dashboard Stats Service Interface
+ * Keeps the dashboard figures as in-memory counters that are moved by change hooks
+ * and periodically re-synced from the database
+ */
+public interface DashboardStatsService {
+
+    /**
+     * Get the current dashboard figures without querying the database
+     * @return Dashboard statistics
+     */
+    DashboardStatsResponse getStats();
+
+    /**
+     * Record an order being created, changing status or being deleted, once the current transaction commits
+     * @param oldStatus Status before the change, null for a new order
+     * @param newStatus Status after the change, null for a deleted order
+     * @param orderDate Time the order was placed
+     * @param totalAmount Order total
+     */
+    void orderChanged(String oldStatus, String newStatus, LocalDateTime orderDate, BigDecimal totalAmount);
+
+    /**
+     * Record pending orders cancelled in bulk, once the current transaction commits
+     * @param count Number of orders moved from PENDING to CANCELLED
+     */
+    void ordersCancelled(int count);
+
+    /**
+     * Record an employee being created, changing status or being deleted, once the current transaction commits
+     * @param oldStatus Status before the change, null for a new employee
+     * @param newStatus Status after the change, null for a deleted employee
+     */
+    void employeeChanged(String oldStatus, String newStatus);
+
+    /**
+     * Record products being created or deleted, once the current transaction commits
+     * @param delta Change in the number of products
+     */
+    void productsChanged(int delta);
+
+    /**
+     * Reload every counter from the database to correct drift, e.g. from changes made by another instance
+     * @return true if the counters were replaced, false if a change raced with the reload
+     */
+    boolean resync();
+}
@@ -0,0 +1,32 @@
+package fu.se.swd392csms.service;
+
+/**
+ * Data Version Service Interface
+ * Keeps a version counter per group of read endpoints that moves forward whenever data they
+ * show changes, so responses can be tagged and revalidated without re-running their queries
+ */
+public interface DataVersionService {
+
+    /**
+     * Get the current version of a scope
+     * @param scope Group of endpoints
+     * @return Version, only ever increasing
+     */
+    long version(Scope scope);
+
+    /**
+     * Move a scope to a new version; call once the change is visible to readers, e.g. after commit
+     * @param scope Group of endpoints whose data changed
+     */
+    void dataChanged(Scope scope);
+
+    /**
+     * Groups of endpoints that share a version
+     */
+    enum Scope {
+        /** /api/dashboard/stats */
+        DASHBOARD,
+        /** Daily reports, the sales heatmap and top products */
+        REPORTS
+    }
+}
@@ -0,0 +1,75 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Order;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingredient Stock Service Interface
+ * Applies every change to ingredient stock quantities.
+ * The implementation is selected with inventory.mode: jpa (default) or ledger
+ */
+public interface IngredientStockService {
+
+    /**
+     * Deduct the summed ingredient demand of an order, all or nothing
+     * @param order Order being created
+     * @param demandByIngredient Required quantity keyed by ingredient ID
+     * @param ingredients Ingredient entities keyed by ID
+     * @throws fu.se.swd392csms.exception.BadRequestException if any ingredient has insufficient stock
+     */
+    void deductForOrder(Order order, Map<Long, BigDecimal> demandByIngredient, Map<Long, Ingredient> ingredients);
+
+    /**
+     * Deduct the demand of several orders created together as one summed deduction, all or nothing
+     * @param orderDemands Orders being created with their required quantity keyed by ingredient ID
+     * @param ingredients Ingredient entities keyed by ID
+     * @throws fu.se.swd392csms.exception.BadRequestException if any ingredient has insufficient stock for the sum
+     */
+    void deductForOrders(List<OrderDemand> orderDemands, Map<Long, Ingredient> ingredients);
+
+    /**
+     * Add stock to an ingredient (import)
+     * @param ingredient Ingredient entity
+     * @param quantity Quantity to add
+     */
+    void addStock(Ingredient ingredient, BigDecimal quantity);
+
+    /**
+     * Remove stock from an ingredient (export)
+     * @param ingredient Ingredient entity
+     * @param quantity Quantity to remove
+     * @throws fu.se.swd392csms.exception.BadRequestException if stock is insufficient
+     */
+    void removeStock(Ingredient ingredient, BigDecimal quantity);
+
+    /**
+     * Overwrite the stock of an ingredient
+     * @param ingredient Ingredient entity
+     * @param quantity New stock quantity
+     */
+    void setStock(Ingredient ingredient, BigDecimal quantity);
+
+    /**
+     * Start tracking a newly created ingredient
+     * @param ingredient Saved ingredient entity
+     */
+    void registerIngredient(Ingredient ingredient);
+
+    /**
+     * Stop tracking a deleted ingredient
+     * @param ingredientId Ingredient ID
+     */
+    void unregisterIngredient(Long ingredientId);
+
+    /**
+     * Ingredient demand of one order in a batch
+     * @param order Order being created
+     * @param demandByIngredient Required quantity keyed by ingredient ID
+     */
+    record OrderDemand(Order order, Map<Long, BigDecimal> demandByIngredient) {
+    }
+}
@@ -0,0 +1,57 @@
+package fu.se.swd392csms.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Low Stock Service Interface
+ * Tracks which ingredients are below their minimum stock in memory, moved by the stock changes of
+ * orders, transactions and ingredient edits, and publishes a LowStockEvent whenever an ingredient
+ * crosses its threshold. Falls back to the database while the index is not loaded.
+ */
+public interface LowStockService {
+
+    /**
+     * Apply relative stock changes once the current transaction commits
+     * @param deltaByIngredient Quantity added per ingredient ID, negative for stock taken
+     */
+    void stockAdjusted(Map<Long, BigDecimal> deltaByIngredient);
+
+    /**
+     * Record the absolute stock and minimum stock of a new or edited ingredient once the current transaction commits
+     * @param ingredientId Ingredient ID
+     * @param quantity Stock quantity
+     * @param minimumStock Minimum stock
+     */
+    void levelChanged(Long ingredientId, BigDecimal quantity, BigDecimal minimumStock);
+
+    /**
+     * Forget a deleted ingredient once the current transaction commits
+     * @param ingredientId Ingredient ID
+     */
+    void ingredientRemoved(Long ingredientId);
+
+    /**
+     * Get the IDs of ingredients below their minimum stock
+     * @return Ingredient IDs in ascending order
+     */
+    List<Long> getLowStockIds();
+
+    /**
+     * Count the ingredients below their minimum stock
+     * @return Number of low-stock ingredients
+     */
+    long countLowStock();
+
+    /**
+     * Reload every stock level from the database
+     */
+    void rebuild();
+    
+    /**
+     * Correct stock levels that drifted from the database, publishing any threshold crossing this causes
+     * @return false if the index changed while the database was read and nothing was corrected
+     */
+    boolean resync();
+}
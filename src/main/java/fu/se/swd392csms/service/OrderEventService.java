@@ -0,0 +1,56 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.dto.response.OrderResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+/**
+ * Order Event Service Interface
+ * Pushes order changes to order board displays as Server-Sent Events.
+ * Changes made inside a transaction are published once it commits.
+ */
+public interface OrderEventService {
+
+    /**
+     * Open an event stream
+     * @param lastEventId ID of the last event the display received, or null for a new display.
+     *                    Missed events are replayed; if they are no longer available a RESET event is sent first.
+     * @return Emitter streaming order events
+     */
+    SseEmitter subscribe(String lastEventId);
+
+    /**
+     * Publish a newly created order
+     * @param order Created order
+     */
+    void publishCreated(OrderResponse order);
+
+    /**
+     * Publish a status change made through the API
+     * @param order Updated order
+     */
+    void publishStatusChanged(OrderResponse order);
+
+    /**
+     * Publish orders cancelled in bulk, e.g. by auto-cancel
+     * @param orderIds Cancelled order IDs
+     */
+    void publishCancelled(Collection<Long> orderIds);
+
+    /**
+     * Publish a deleted order
+     * @param orderId Order ID
+     */
+    void publishDeleted(Long orderId);
+
+    /**
+     * Send a keep-alive comment to every display
+     */
+    void heartbeat();
+
+    /**
+     * Get the number of connected displays
+     */
+    int subscriberCount();
+}
@@ -0,0 +1,36 @@
+package fu.se.swd392csms.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order Expiry Service Interface
+ * Cancels PENDING orders once they are older than orders.auto-cancel.threshold-minutes,
+ * driven by an in-memory timer per order instead of polling the orders table
+ */
+public interface OrderExpiryService {
+
+    /**
+     * Start (or restart) the expiry timer of a pending order once the current transaction commits
+     * @param orderId Order ID
+     * @param orderDate Time the order was placed
+     */
+    void scheduleExpiry(Long orderId, LocalDateTime orderDate);
+
+    /**
+     * Stop the expiry timer of an order once the current transaction commits
+     * @param orderId Order ID
+     */
+    void cancelExpiry(Long orderId);
+
+    /**
+     * Cancel the orders whose timers have fired and are still pending
+     * @return IDs of the cancelled orders
+     */
+    List<Long> expireDueOrders();
+
+    /**
+     * Get the number of running expiry timers
+     */
+    int pendingTimers();
+}
@@ -0,0 +1,27 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.response.OrderResponse;
+
+/**
+ * Order Idempotency Service Interface
+ * Makes order creation safe to retry with an Idempotency-Key
+ */
+public interface OrderIdempotencyService {
+    
+    /**
+     * Create an order once per idempotency key.
+     * A retry with the same key returns the order created by the first attempt,
+     * waiting for it if that attempt is still in progress.
+     * @param idempotencyKey Client-chosen key identifying the order attempt
+     * @param request Order creation request
+     * @return Created (or previously created) order response
+     */
+    OrderResponse createOrder(String idempotencyKey, CreateOrderRequest request);
+    
+    /**
+     * Delete stored keys older than the retention period
+     * @return Number of deleted keys
+     */
+    int purgeExpiredKeys();
+}
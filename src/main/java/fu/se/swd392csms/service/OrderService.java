@@ -1,8 +1,11 @@
 package fu.se.swd392csms.service;
 
+import fu.se.swd392csms.dto.request.BatchCreateOrderRequest;
 import fu.se.swd392csms.dto.request.CreateOrderRequest;
 import fu.se.swd392csms.dto.request.UpdateOrderStatusRequest;
 import fu.se.swd392csms.dto.response.MessageResponse;
+import fu.se.swd392csms.dto.response.OrderBatchResponse;
+import fu.se.swd392csms.dto.response.OrderCursorResponse;
 import fu.se.swd392csms.dto.response.OrderResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +23,13 @@ public interface OrderService {
      */
     OrderResponse createOrder(CreateOrderRequest request);
     
+    /**
+     * Create many orders at once, reporting the outcome of each
+     * @param request Batch of order creation requests with client order IDs
+     * @return Outcome of every order, in request order
+     */
+    OrderBatchResponse createOrders(BatchCreateOrderRequest request);
+    
     /**
      * Get order by ID
      * @param id Order ID
@@ -35,6 +45,16 @@ public interface OrderService {
      */
     Page<OrderResponse> getAllOrders(String status, Pageable pageable);
     
+    /**
+     * Get orders newest first with keyset (cursor) pagination
+     * @param status Optional status filter
+     * @param cursor Token returned with the previous slice, or null for the first slice
+     * @param size Maximum number of orders to return
+     * @param includeTotal Whether to count all matching orders as well
+     * @return Slice of orders with the token for the next slice
+     */
+    OrderCursorResponse getOrdersByCursor(String status, String cursor, int size, boolean includeTotal);
+    
     /**
      * Update order status
      * @param id Order ID
@@ -0,0 +1,41 @@
+package fu.se.swd392csms.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Product Cost Service Interface
+ * Serves the ingredient cost of one unit of each product from memory, recomputing only the
+ * products affected by a recipe or ingredient price change
+ */
+public interface ProductCostService {
+
+    /**
+     * Get the ingredient cost of one unit of a product
+     * @param productId Product ID
+     * @return Unit cost, zero for a product without a recipe
+     */
+    BigDecimal getUnitCost(Long productId);
+
+    /**
+     * Get the ingredient cost of one unit of several products, loading the uncached ones in one query
+     * @param productIds Product IDs
+     * @return Unit cost by product ID
+     */
+    Map<Long, BigDecimal> getUnitCosts(Collection<Long> productIds);
+
+    /**
+     * Forget the unit cost of a product once the current transaction commits,
+     * after its recipe changed or it was deleted
+     * @param productId Product ID
+     */
+    void recipeChanged(Long productId);
+
+    /**
+     * Forget the unit cost of every product that uses an ingredient once the current
+     * transaction commits, after the ingredient's price changed or it was deleted
+     * @param ingredientId Ingredient ID
+     */
+    void priceChanged(Long ingredientId);
+}
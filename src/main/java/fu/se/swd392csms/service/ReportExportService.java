@@ -0,0 +1,42 @@
+package fu.se.swd392csms.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Report Export Service Interface
+ * Writes report data as CSV while it is read, so exports of any size use constant memory.
+ * An export holds a pooled connection until its last row is written, so callers take a slot first.
+ */
+public interface ReportExportService {
+
+    /**
+     * Take one of the export slots, limited by reports.export.max-concurrent
+     * @throws fu.se.swd392csms.exception.TooManyRequestsException if every slot is taken
+     */
+    void acquireSlot();
+
+    /**
+     * Give back a slot taken with acquireSlot, once the export finished or will not run
+     */
+    void releaseSlot();
+
+    /**
+     * Write the orders placed within a date range as CSV
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @param out Stream to write to; flushed but not closed
+     * @return Number of rows written
+     */
+    long exportOrders(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException;
+
+    /**
+     * Write the ingredient transactions within a date range as CSV
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @param out Stream to write to; flushed but not closed
+     * @return Number of rows written
+     */
+    long exportTransactions(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException;
+}
@@ -0,0 +1,32 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Response Cache Service Interface
+ * Tags JSON GET responses with a strong ETag derived from the data version of their scope.
+ * A matching If-None-Match is answered with 304 before any data is read, and bodies already
+ * built for the current version are returned again without being rebuilt.
+ * Called from the handler method, after its @PreAuthorize check.
+ */
+public interface ResponseCacheService {
+
+    /**
+     * Check a GET request against the current version of a scope and tag the response with its ETag
+     * @param scope Scope whose version the response depends on
+     * @param request Current request; its path, query parameters and today's date form the cache key
+     * @return true if the client's copy is current and a 304 was set; the handler then returns null
+     */
+    boolean checkNotModified(Scope scope, ServletWebRequest request);
+
+    /**
+     * Get the body built for the version checked by checkNotModified, building it only on a miss
+     * @param request Current request, already checked with checkNotModified
+     * @param body Builds the response body
+     * @return Cached or newly built body; callers must not modify it
+     */
+    <T> T cachedBody(ServletWebRequest request, Supplier<T> body);
+}
@@ -0,0 +1,26 @@
+package fu.se.swd392csms.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Salary Cost Service Interface
+ * Provides the paid salary cost of a month spread over its days, computed once per month
+ * and kept until a salary of that month changes
+ */
+public interface SalaryCostService {
+
+    /**
+     * Get the paid salary of a month divided by the number of days in that month
+     * @param month Month
+     * @return Salary cost per day
+     */
+    BigDecimal getDailySalaryCost(YearMonth month);
+
+    /**
+     * Forget the salary cost of a month once the current transaction commits
+     * @param month Month (1-12)
+     * @param year Year
+     */
+    void salariesChanged(Integer month, Integer year);
+}
@@ -0,0 +1,56 @@
+package fu.se.swd392csms.service;
+
+import fu.se.swd392csms.dto.response.SalesHeatmapResponse;
+import fu.se.swd392csms.dto.response.TopProductsResponse;
+import fu.se.swd392csms.entity.Order;
+
+import java.time.LocalDate;
+
+/**
+ * Sales Cube Service Interface
+ * Answers hour-of-day and best-seller questions from an in-memory day × hour × product cube that is
+ * rebuilt from completed orders at startup and kept current as orders complete
+ */
+public interface SalesCubeService {
+
+    /**
+     * Add the items of an order that became COMPLETED once the current transaction commits
+     * @param order Completed order with its items
+     */
+    void orderCompleted(Order order);
+
+    /**
+     * Remove the items of a completed order that left COMPLETED or is being deleted,
+     * once the current transaction commits
+     * @param order Order with its items
+     */
+    void completionReverted(Order order);
+
+    /**
+     * Refresh the name and category a product is reported under
+     * @param productId Product ID
+     * @param name Product name
+     * @param category Product category
+     */
+    void productChanged(Long productId, String name, String category);
+
+    /**
+     * Get sales by hour of day for a date range
+     * @param startDate Start date, clamped to the days kept in memory
+     * @param endDate End date
+     * @param category Only products of this category (optional)
+     * @param productId Only this product (optional)
+     * @param groupBy Rows per date, per weekday, or none
+     * @return Hour-of-day heatmap
+     */
+    SalesHeatmapResponse getHeatmap(LocalDate startDate, LocalDate endDate, String category, Long productId,
+                                    String groupBy);
+
+    /**
+     * Get the best-selling products of a window
+     * @param window today, week (since Monday) or month (since the 1st)
+     * @param limit Number of products to return
+     * @return Products ranked by quantity sold, then revenue
+     */
+    TopProductsResponse getTopProducts(String window, int limit);
+}
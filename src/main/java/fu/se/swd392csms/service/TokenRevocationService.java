@@ -0,0 +1,31 @@
+package fu.se.swd392csms.service;
+
+import java.util.Date;
+
+/**
+ * Token Revocation Service Interface
+ * Deny-list of logged-out JWTs, persisted so it survives restarts and fronted by an in-memory
+ * Bloom filter so a token that was never revoked is accepted without any I/O
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revoke a token until it expires
+     * @param tokenId Token ID
+     * @param expiresAt Expiry of the token
+     */
+    void revoke(String tokenId, Date expiresAt);
+
+    /**
+     * Check whether a token is revoked
+     * @param tokenId Token ID
+     * @return true if the token was revoked and has not expired
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Delete entries of expired tokens and rebuild the Bloom filter from the rest
+     * @return Number of deleted entries
+     */
+    int purgeExpired();
+}
@@ -14,6 +14,9 @@ import fu.se.swd392csms.repository.RoleRepository;
 import fu.se.swd392csms.repository.UserRepository;
 import fu.se.swd392csms.security.JwtTokenProvider;
 import fu.se.swd392csms.service.AuthService;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -54,6 +57,12 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
         // Authenticate user
@@ -136,6 +145,7 @@ public class AuthServiceImpl implements AuthService {
                 .build();
         
         employeeRepository.save(employee);
+        dashboardStatsService.employeeChanged(null, employee.getStatus());
         
         return new MessageResponse("User registered successfully");
     }
@@ -161,4 +171,17 @@ public class AuthServiceImpl implements AuthService {
                 .roles(roles)
                 .build();
     }
+    
+    @Override
+    public MessageResponse logout(String token) {
+        Claims claims = token != null ? tokenProvider.parseAndValidate(token) : null;
+        if (claims == null) {
+            throw new BadRequestException("Invalid or expired token");
+        }
+        
+        // Kept on the deny-list until the token would have expired anyway
+        tokenRevocationService.revoke(tokenProvider.getTokenId(claims), claims.getExpiration());
+        
+        return new MessageResponse("Logged out successfully");
+    }
 }
@@ -0,0 +1,437 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.response.DailyReportResponse;
+import fu.se.swd392csms.dto.response.ProductCostResponse;
+import fu.se.swd392csms.entity.DailyProductSales;
+import fu.se.swd392csms.entity.DailyReport;
+import fu.se.swd392csms.repository.DailyProductSalesRepository;
+import fu.se.swd392csms.repository.DailyReportRepository;
+import fu.se.swd392csms.repository.OrderItemRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.ProductCostService;
+import fu.se.swd392csms.service.SalaryCostService;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Daily Report Service Implementation
+ * Changed days are collected in memory after their transaction commits and recomputed by
+ * DailyReportScheduler, so a busy day is recomputed at most once per refresh interval no matter
+ * how many of its orders change. History is backfilled a chunk of days per refresh. Today and
+ * yesterday are recomputed after every start in case changes were lost with the previous run.
+ * Ingredient cost is always at current prices: the rollup keeps the quantity sold of each product per
+ * day in daily_product_sales, and both the range and the single-day report cost those quantities with
+ * the cached unit costs of ProductCostService, so a price or recipe change applies to every day at once
+ * without recomputing the rollup, and both reports always agree.
+ */
+@Slf4j
+@Service
+public class DailyReportServiceImpl implements DailyReportService {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductCostService productCostService;
+    private final SalaryCostService salaryCostService;
+    private final DailyReportRepository dailyReportRepository;
+    private final DailyProductSalesRepository dailyProductSalesRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersionService dataVersionService;
+
+    private final Set<LocalDate> changedDays = ConcurrentHashMap.newKeySet();
+
+    // Next day to backfill; null until the first refresh finds the earliest order
+    private LocalDate backfillFrom;
+    private volatile boolean backfillDone;
+
+    // Day of the earliest order found by the backfill; days before it have no orders and are not computed on reads
+    private volatile LocalDate firstOrderDay;
+
+    @Value("${reports.rollup.backfill-chunk-days:31}")
+    private int backfillChunkDays;
+
+    public DailyReportServiceImpl(OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  ProductCostService productCostService,
+                                  SalaryCostService salaryCostService,
+                                  DailyReportRepository dailyReportRepository,
+                                  DailyProductSalesRepository dailyProductSalesRepository,
+                                  ProductRepository productRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  DataVersionService dataVersionService) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productCostService = productCostService;
+        this.salaryCostService = salaryCostService;
+        this.dailyReportRepository = dailyReportRepository;
+        this.dailyProductSalesRepository = dailyProductSalesRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dataVersionService = dataVersionService;
+        changedDays.add(LocalDate.now());
+        changedDays.add(LocalDate.now().minusDays(1));
+    }
+
+    @Override
+    public List<DailyReportResponse> getDailyReports(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, StoredDay> rollups = readRollups(startDate, endDate);
+
+        // Days the backfill has not reached yet are computed in memory, all in one pass
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (!rollups.containsKey(day) && mayHaveOrders(day)) {
+                missing.add(day);
+            }
+        }
+        if (!missing.isEmpty()) {
+            rollups.putAll(computeMissingDays(missing));
+        }
+
+        // Days without orders, and days still to come, are zero-filled
+        Map<Long, BigDecimal> unitCosts = unitCostsOf(rollups.values());
+        List<DailyReportResponse> reports = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            StoredDay rollup = rollups.getOrDefault(day, StoredDay.NONE);
+            BigDecimal ingredientCost = rollup.lines().stream()
+                    .map(line -> costOf(line, unitCosts))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal salaryCost = salaryCostService.getDailySalaryCost(YearMonth.from(day));
+            reports.add(toResponse(rollup.id(), day, rollup.summary(), ingredientCost, salaryCost));
+        }
+        return reports;
+    }
+
+    @Override
+    public DailyReportResponse getDailyReport(LocalDate date) {
+        // The same rollup and unit costs as the range report, so both show the same numbers for a day
+        StoredDay rollup = readRollups(date, date).get(date);
+        if (rollup == null && mayHaveOrders(date)) {
+            rollup = computeMissingDays(List.of(date)).get(date);
+        }
+        if (rollup == null) {
+            rollup = StoredDay.NONE;
+        }
+
+        Map<Long, BigDecimal> unitCosts = unitCostsOf(List.of(rollup));
+        List<ProductCostResponse> productCosts = new ArrayList<>();
+        for (ProductLine line : rollup.lines()) {
+            BigDecimal cost = costOf(line, unitCosts);
+            productCosts.add(ProductCostResponse.builder()
+                    .productId(line.productId())
+                    .productName(line.productName())
+                    .quantitySold(line.quantitySold())
+                    .revenue(line.revenue())
+                    .unitCost(unitCosts.get(line.productId()))
+                    .ingredientCost(cost)
+                    .margin(line.revenue().subtract(cost))
+                    .build());
+        }
+        productCosts.sort(Comparator.comparing(ProductCostResponse::getIngredientCost).reversed());
+        BigDecimal ingredientCost = productCosts.stream()
+                .map(ProductCostResponse::getIngredientCost)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        DailyReportResponse report = toResponse(rollup.id(), date, rollup.summary(), ingredientCost,
+                salaryCostService.getDailySalaryCost(YearMonth.from(date)));
+        report.setProductCosts(productCosts);
+        return report;
+    }
+
+    @Override
+    public void markOrderChanged(LocalDateTime orderDate) {
+        LocalDate day = orderDate.toLocalDate();
+        AfterCommit.run(() -> {
+            changedDays.add(day);
+            dataVersionService.dataChanged(Scope.REPORTS);
+        });
+    }
+
+    @Override
+    public void markOrdersChanged(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            orderRepository.findOrderDatesByIdIn(orderIds).forEach(date -> changedDays.add(date.toLocalDate()));
+            dataVersionService.dataChanged(Scope.REPORTS);
+        }
+    }
+
+    @Override
+    public int refreshRollups() {
+        int recomputed = backfillDone ? 0 : backfillNextChunk();
+
+        // A day marked again while it is recomputed stays marked for the next refresh
+        List<LocalDate> days = new ArrayList<>(changedDays);
+        changedDays.removeAll(days);
+        for (List<LocalDate> group : groupNearbyDays(days)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recomputeDays(group));
+                recomputed += group.size();
+            } catch (RuntimeException e) {
+                // e.g. another instance inserted one of the days first
+                changedDays.addAll(group);
+                log.warn("[DailyReport] Could not recompute {} to {}, retrying on the next refresh: {}",
+                        group.get(0), group.get(group.size() - 1), e.getMessage());
+            }
+        }
+        if (recomputed > 0) {
+            dataVersionService.dataChanged(Scope.REPORTS);
+        }
+        return recomputed;
+    }
+
+    /**
+     * Whether a day without a rollup may still have orders: it is not in the future
+     * and not before the earliest order the backfill found
+     */
+    private boolean mayHaveOrders(LocalDate day) {
+        LocalDate first = firstOrderDay;
+        return !day.isAfter(LocalDate.now()) && (first == null || !day.isBefore(first));
+    }
+
+    /**
+     * Summarize days the backfill has not reached yet without storing them;
+     * the backfill and the refresh stay the only writers of the rollup
+     */
+    private Map<LocalDate, StoredDay> computeMissingDays(List<LocalDate> days) {
+        Map<LocalDate, StoredDay> summaries = summarizeDays(days.get(0), days.get(days.size() - 1));
+        summaries.keySet().retainAll(new HashSet<>(days));
+        return summaries;
+    }
+
+    /**
+     * Compute the days of the next backfill chunk that have no rollup yet
+     */
+    private int backfillNextChunk() {
+        if (backfillFrom == null) {
+            LocalDateTime earliest = orderRepository.findEarliestOrderDate();
+            if (earliest == null) {
+                backfillDone = true;
+                return 0;
+            }
+            backfillFrom = earliest.toLocalDate();
+            firstOrderDay = backfillFrom;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate chunkEnd = backfillFrom.plusDays(backfillChunkDays - 1L);
+        if (chunkEnd.isAfter(today)) {
+            chunkEnd = today;
+        }
+
+        Set<LocalDate> existing = new HashSet<>(dailyReportRepository.findReportDatesBetween(backfillFrom, chunkEnd));
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = backfillFrom; !day.isAfter(chunkEnd); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                missing.add(day);
+            }
+        }
+        if (!missing.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> recomputeDays(missing));
+        }
+
+        backfillFrom = chunkEnd.plusDays(1);
+        if (backfillFrom.isAfter(today)) {
+            backfillDone = true;
+            log.info("[DailyReport] Backfill complete");
+        }
+        return missing.size();
+    }
+
+    /**
+     * Split changed days into groups spanning at most one backfill chunk, so a late edit
+     * far in the past does not make the recompute of today scan every day in between
+     */
+    private List<List<LocalDate>> groupNearbyDays(List<LocalDate> days) {
+        List<List<LocalDate>> groups = new ArrayList<>();
+        List<LocalDate> group = new ArrayList<>();
+        for (LocalDate day : days.stream().sorted().toList()) {
+            if (!group.isEmpty() && !day.isBefore(group.get(0).plusDays(backfillChunkDays))) {
+                groups.add(group);
+                group = new ArrayList<>();
+            }
+            group.add(day);
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    /**
+     * Recompute and store the rollups of the given days, with their product lines
+     * Summarizes the whole span of the days with one grouped query for the orders and one for the products
+     * @param days Report dates, sorted
+     * @return Stored rollups by report date
+     */
+    private Map<LocalDate, StoredDay> recomputeDays(List<LocalDate> days) {
+        LocalDate from = days.get(0);
+        LocalDate to = days.get(days.size() - 1);
+        Map<LocalDate, StoredDay> summaries = summarizeDays(from, to);
+        Map<LocalDate, DailyReport> existing = dailyReportRepository.findByReportDateBetween(from, to).stream()
+                .collect(Collectors.toMap(DailyReport::getReportDate, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DailyReport> reports = new ArrayList<>();
+        List<DailyProductSales> lines = new ArrayList<>();
+        for (LocalDate day : days) {
+            StoredDay computed = summaries.getOrDefault(day, StoredDay.NONE);
+            DaySummary summary = computed.summary();
+            DailyReport report = existing.getOrDefault(day, DailyReport.builder().reportDate(day).build());
+            report.setTotalOrders(summary.totalOrders());
+            report.setCompletedOrders(summary.completedOrders());
+            report.setCancelledOrders(summary.cancelledOrders());
+            report.setTotalRevenue(summary.revenue());
+            report.setCreatedAt(now);
+            reports.add(report);
+            for (ProductLine line : computed.lines()) {
+                lines.add(DailyProductSales.builder()
+                        .reportDate(day)
+                        .product(productRepository.getReferenceById(line.productId()))
+                        .quantitySold(line.quantitySold())
+                        .revenue(line.revenue())
+                        .build());
+            }
+        }
+
+        Map<LocalDate, StoredDay> stored = new HashMap<>();
+        for (DailyReport report : dailyReportRepository.saveAll(reports)) {
+            StoredDay computed = summaries.getOrDefault(report.getReportDate(), StoredDay.NONE);
+            stored.put(report.getReportDate(), new StoredDay(report.getId(), computed.summary(), computed.lines()));
+        }
+        dailyProductSalesRepository.deleteByReportDateIn(days);
+        dailyProductSalesRepository.saveAll(lines);
+        return stored;
+    }
+
+    /**
+     * Read the stored rollups of a date range, with their product lines, as plain values
+     */
+    private Map<LocalDate, StoredDay> readRollups(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, List<ProductLine>> lines = new HashMap<>();
+        for (Object[] row : dailyProductSalesRepository.findLinesBetween(startDate, endDate)) {
+            lines.computeIfAbsent((LocalDate) row[0], day -> new ArrayList<>()).add(toLine(row));
+        }
+        Map<LocalDate, StoredDay> rollups = new HashMap<>();
+        for (Object[] row : dailyReportRepository.findRollupsBetween(startDate, endDate)) {
+            LocalDate day = (LocalDate) row[1];
+            rollups.put(day, new StoredDay((Long) row[0],
+                    new DaySummary(toInt(row[2]), toInt(row[3]), toInt(row[4]), toBigDecimal(row[5])),
+                    lines.getOrDefault(day, List.of())));
+        }
+        return rollups;
+    }
+
+    /**
+     * Summarize the orders of every day in a range that has any
+     * Counts and revenue come from one grouped query and the products sold from another;
+     * days without orders are left out
+     */
+    private Map<LocalDate, StoredDay> summarizeDays(LocalDate from, LocalDate to) {
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.atTime(LocalTime.MAX);
+        Map<LocalDate, List<ProductLine>> lines = new HashMap<>();
+        for (Object[] row : orderItemRepository.summarizeCompletedByDayAndProduct(rangeStart, rangeEnd)) {
+            lines.computeIfAbsent((LocalDate) row[0], day -> new ArrayList<>()).add(toLine(row));
+        }
+
+        Map<LocalDate, StoredDay> summaries = new HashMap<>();
+        for (Object[] row : orderRepository.summarizeByDay(rangeStart, rangeEnd)) {
+            LocalDate day = (LocalDate) row[0];
+            summaries.put(day, new StoredDay(null,
+                    new DaySummary(toInt(row[1]), toInt(row[2]), toInt(row[3]), toBigDecimal(row[4])),
+                    lines.getOrDefault(day, List.of())));
+        }
+        return summaries;
+    }
+
+    /**
+     * Get the current unit cost of every product sold on some days, in one call
+     */
+    private Map<Long, BigDecimal> unitCostsOf(Collection<StoredDay> days) {
+        Set<Long> productIds = new HashSet<>();
+        days.forEach(day -> day.lines().forEach(line -> productIds.add(line.productId())));
+        return productIds.isEmpty() ? Map.of() : productCostService.getUnitCosts(productIds);
+    }
+
+    private static BigDecimal costOf(ProductLine line, Map<Long, BigDecimal> unitCosts) {
+        return unitCosts.getOrDefault(line.productId(), BigDecimal.ZERO).multiply(BigDecimal.valueOf(line.quantitySold()));
+    }
+
+    /**
+     * Read a [day, product ID, product name, quantity sold, revenue] row
+     */
+    private static ProductLine toLine(Object[] row) {
+        return new ProductLine((Long) row[1], (String) row[2], ((Number) row[3]).longValue(), toBigDecimal(row[4]));
+    }
+
+    private static DailyReportResponse toResponse(Long id, LocalDate date, DaySummary summary,
+                                                  BigDecimal ingredientCost, BigDecimal salaryCost) {
+        BigDecimal totalCost = ingredientCost.add(salaryCost);
+        return DailyReportResponse.builder()
+                .id(id)
+                .reportDate(date)
+                .totalOrders(summary.totalOrders())
+                .completedOrders(summary.completedOrders())
+                .cancelledOrders(summary.cancelledOrders())
+                .totalRevenue(summary.revenue())
+                .ingredientCost(ingredientCost)
+                .totalCost(totalCost)
+                .profit(summary.revenue().subtract(totalCost))
+                .build();
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    /**
+     * Order counts and revenue of one day
+     */
+    private record DaySummary(int totalOrders, int completedOrders, int cancelledOrders, BigDecimal revenue) {
+
+        static final DaySummary EMPTY = new DaySummary(0, 0, 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * Quantity sold and revenue of one product on one day
+     */
+    private record ProductLine(Long productId, String productName, long quantitySold, BigDecimal revenue) {
+    }
+
+    /**
+     * Rollup of one day with its product lines; the ID is null for days without a row
+     */
+    private record StoredDay(Long id, DaySummary summary, List<ProductLine> lines) {
+
+        static final StoredDay NONE = new StoredDay(null, DaySummary.EMPTY, List.of());
+    }
+}
@@ -0,0 +1,220 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.response.DashboardStatsResponse;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.LowStockService;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dashboard Stats Service Implementation
+ * Order, employee and product figures are atomic counters moved by hooks after commit; revenue is
+ * kept in hundredths for the current day and month and rolls over when the date changes.
+ * Low stock is read from the low-stock index.
+ * A periodic resync replaces all counters with fresh counts, unless a hook ran while it was reading.
+ */
+@Slf4j
+@Service
+public class DashboardStatsServiceImpl implements DashboardStatsService, SmartInitializingSingleton {
+
+    private static final String ACTIVE = "ACTIVE";
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final EmployeeRepository employeeRepository;
+    private final LowStockService lowStockService;
+    private final DataVersionService dataVersionService;
+
+    private final AtomicLong totalOrders = new AtomicLong();
+    private final AtomicLong pendingOrders = new AtomicLong();
+    private final AtomicLong completedOrders = new AtomicLong();
+    private final AtomicLong todayRevenueCents = new AtomicLong();
+    private final AtomicLong monthRevenueCents = new AtomicLong();
+    private final AtomicLong activeEmployees = new AtomicLong();
+    private final AtomicLong totalProducts = new AtomicLong();
+
+    // Day the revenue counters belong to
+    private volatile LocalDate revenueDay = LocalDate.now();
+
+    // Number of hooks applied so far, guarded by this; a resync that sees it move discards its counts
+    private long changes;
+
+    public DashboardStatsServiceImpl(OrderRepository orderRepository,
+                                     ProductRepository productRepository,
+                                     EmployeeRepository employeeRepository,
+                                     LowStockService lowStockService,
+                                     DataVersionService dataVersionService) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.employeeRepository = employeeRepository;
+        this.lowStockService = lowStockService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Load the counters at startup
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        resync();
+    }
+
+    @Override
+    public DashboardStatsResponse getStats() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(revenueDay)) {
+            rollOver(today);
+        }
+        return DashboardStatsResponse.builder()
+                .totalOrders((int) totalOrders.get())
+                .pendingOrders((int) pendingOrders.get())
+                .completedOrders((int) completedOrders.get())
+                .todayRevenue(BigDecimal.valueOf(todayRevenueCents.get(), 2))
+                .monthRevenue(BigDecimal.valueOf(monthRevenueCents.get(), 2))
+                .lowStockItems((int) lowStockService.countLowStock())
+                .activeEmployees((int) activeEmployees.get())
+                .totalProducts((int) totalProducts.get())
+                .build();
+    }
+
+    @Override
+    public void orderChanged(String oldStatus, String newStatus, LocalDateTime orderDate, BigDecimal totalAmount) {
+        long cents = totalAmount == null ? 0 : toCents(totalAmount);
+        AfterCommit.run(() -> applyOrderChange(oldStatus, newStatus, orderDate, cents));
+    }
+
+    @Override
+    public void ordersCancelled(int count) {
+        AfterCommit.run(() -> apply(() -> pendingOrders.addAndGet(-count)));
+    }
+
+    @Override
+    public void employeeChanged(String oldStatus, String newStatus) {
+        int delta = (ACTIVE.equalsIgnoreCase(newStatus) ? 1 : 0) - (ACTIVE.equalsIgnoreCase(oldStatus) ? 1 : 0);
+        if (delta != 0) {
+            AfterCommit.run(() -> apply(() -> activeEmployees.addAndGet(delta)));
+        }
+    }
+
+    @Override
+    public void productsChanged(int delta) {
+        AfterCommit.run(() -> apply(() -> totalProducts.addAndGet(delta)));
+    }
+
+    @Override
+    public boolean resync() {
+        long seen;
+        synchronized (this) {
+            seen = changes;
+        }
+        LocalDate today = LocalDate.now();
+        long employees = employeeRepository.countByStatusIgnoreCase(ACTIVE);
+        long products = productRepository.count();
+        Object[] orders = orderRepository.summarizeForDashboard(today.withDayOfMonth(1).atStartOfDay(),
+                today.atStartOfDay(), today.plusDays(1).atStartOfDay()).get(0);
+
+        synchronized (this) {
+            if (changes != seen) {
+                log.debug("[DashboardStats] Counters changed during resync, keeping them until the next one");
+                return false;
+            }
+            totalOrders.set(toLong(orders[0]));
+            pendingOrders.set(toLong(orders[1]));
+            completedOrders.set(toLong(orders[2]));
+            monthRevenueCents.set(toCents(orders[3]));
+            todayRevenueCents.set(toCents(orders[4]));
+            revenueDay = today;
+            activeEmployees.set(employees);
+            totalProducts.set(products);
+        }
+        dataVersionService.dataChanged(Scope.DASHBOARD);
+        return true;
+    }
+
+    /**
+     * Move the order counters for one order change
+     */
+    private void applyOrderChange(String oldStatus, String newStatus, LocalDateTime orderDate, long cents) {
+        apply(() -> {
+            if (oldStatus == null) {
+                totalOrders.incrementAndGet();
+            }
+            if (newStatus == null) {
+                totalOrders.decrementAndGet();
+            }
+            pendingOrders.addAndGet(is(newStatus, "PENDING") - is(oldStatus, "PENDING"));
+            int completed = is(newStatus, "COMPLETED") - is(oldStatus, "COMPLETED");
+            if (completed == 0) {
+                return;
+            }
+            completedOrders.addAndGet(completed);
+            LocalDate today = LocalDate.now();
+            if (!today.equals(revenueDay)) {
+                rollOver(today);
+            }
+            LocalDate orderDay = orderDate.toLocalDate();
+            if (orderDay.equals(today)) {
+                todayRevenueCents.addAndGet(completed * cents);
+            }
+            if (YearMonth.from(orderDay).equals(YearMonth.from(today)) && !orderDay.isAfter(today)) {
+                monthRevenueCents.addAndGet(completed * cents);
+            }
+        });
+    }
+
+    /**
+     * Apply a counter change and note it for a resync running at the same time
+     */
+    private synchronized void apply(Runnable change) {
+        change.run();
+        changes++;
+        dataVersionService.dataChanged(Scope.DASHBOARD);
+    }
+
+    /**
+     * Start a new day of revenue, and a new month when the month changed
+     */
+    private synchronized void rollOver(LocalDate today) {
+        if (today.equals(revenueDay)) {
+            return;
+        }
+        if (!YearMonth.from(today).equals(YearMonth.from(revenueDay))) {
+            monthRevenueCents.set(0);
+        }
+        todayRevenueCents.set(0);
+        revenueDay = today;
+    }
+
+    private static int is(String status, String expected) {
+        return expected.equalsIgnoreCase(status) ? 1 : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static long toCents(Object sum) {
+        if (sum == null) {
+            return 0;
+        }
+        return toCents(sum instanceof BigDecimal amount ? amount : new BigDecimal(sum.toString()));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,26 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.service.DataVersionService;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Data Version Service Implementation
+ * One atomic counter per scope
+ */
+@Service
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private final AtomicLongArray versions = new AtomicLongArray(Scope.values().length);
+
+    @Override
+    public long version(Scope scope) {
+        return versions.get(scope.ordinal());
+    }
+
+    @Override
+    public void dataChanged(Scope scope) {
+        versions.incrementAndGet(scope.ordinal());
+    }
+}
@@ -40,6 +40,8 @@ import fu.se.swd392csms.repository.EmployeeRepository;
 import fu.se.swd392csms.repository.RoleRepository;
 import fu.se.swd392csms.repository.SalaryRepository;
 import fu.se.swd392csms.repository.UserRepository;
+import fu.se.swd392csms.security.PrincipalCache;
+import fu.se.swd392csms.service.DashboardStatsService;
 import fu.se.swd392csms.service.EmployeeService;
 import lombok.RequiredArgsConstructor;
 
@@ -57,6 +59,8 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final AttendanceRepository attendanceRepository;
     private final SalaryRepository salaryRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DashboardStatsService dashboardStatsService;
+    private final PrincipalCache principalCache;
     
     /**
      * Create a new employee with user account
@@ -121,6 +125,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         employee.setStatus(request.getStatus());
         
         Employee savedEmployee = employeeRepository.save(employee);
+        dashboardStatsService.employeeChanged(null, savedEmployee.getStatus());
         
         return convertToEmployeeResponse(savedEmployee);
     }
@@ -211,9 +216,11 @@ public class EmployeeServiceImpl implements EmployeeService {
         employee.setEmail(request.getEmail());
         employee.setHireDate(request.getHireDate());
         employee.setSalary(request.getSalary());
+        String oldStatus = employee.getStatus();
         employee.setStatus(request.getStatus());
         
         Employee updatedEmployee = employeeRepository.save(employee);
+        dashboardStatsService.employeeChanged(oldStatus, updatedEmployee.getStatus());
         
         return convertToEmployeeResponse(updatedEmployee);
     }
@@ -232,10 +239,12 @@ public class EmployeeServiceImpl implements EmployeeService {
         // Delete associated user account
         if (employee.getUser() != null) {
             userRepository.delete(employee.getUser());
+            principalCache.invalidate(employee.getUser().getUsername());
         }
         
         // Delete employee
         employeeRepository.delete(employee);
+        dashboardStatsService.employeeChanged(employee.getStatus(), null);
         
         return new MessageResponse("Employee deleted successfully");
     }
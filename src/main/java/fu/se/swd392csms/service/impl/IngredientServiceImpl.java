@@ -2,7 +2,10 @@ package fu.se.swd392csms.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -25,6 +28,9 @@ import fu.se.swd392csms.repository.EmployeeRepository;
 import fu.se.swd392csms.repository.IngredientRepository;
 import fu.se.swd392csms.repository.IngredientTransactionRepository;
 import fu.se.swd392csms.service.IngredientService;
+import fu.se.swd392csms.service.IngredientStockService;
+import fu.se.swd392csms.service.LowStockService;
+import fu.se.swd392csms.service.ProductCostService;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -38,6 +44,9 @@ public class IngredientServiceImpl implements IngredientService {
     private final IngredientRepository ingredientRepository;
     private final IngredientTransactionRepository transactionRepository;
     private final EmployeeRepository employeeRepository;
+    private final IngredientStockService ingredientStockService;
+    private final ProductCostService productCostService;
+    private final LowStockService lowStockService;
     
     /**
      * Create a new ingredient
@@ -60,6 +69,8 @@ public class IngredientServiceImpl implements IngredientService {
         ingredient.setPricePerUnit(request.getPricePerUnit());
 
         Ingredient savedIngredient = ingredientRepository.save(ingredient);
+        ingredientStockService.registerIngredient(savedIngredient);
+        lowStockService.levelChanged(savedIngredient.getId(), savedIngredient.getQuantity(), savedIngredient.getMinimumStock());
         
         return convertToIngredientResponse(savedIngredient);
     }
@@ -119,11 +130,17 @@ public class IngredientServiceImpl implements IngredientService {
         
         ingredient.setName(request.getName());
         ingredient.setUnit(request.getUnit());
-        ingredient.setQuantity(request.getQuantity());
         ingredient.setMinimumStock(request.getMinimumStock());
+        boolean priceChanged = ingredient.getPricePerUnit() == null
+                || ingredient.getPricePerUnit().compareTo(request.getPricePerUnit()) != 0;
         ingredient.setPricePerUnit(request.getPricePerUnit());
 
         Ingredient updatedIngredient = ingredientRepository.save(ingredient);
+        ingredientStockService.setStock(updatedIngredient, request.getQuantity());
+        lowStockService.levelChanged(id, request.getQuantity(), request.getMinimumStock());
+        if (priceChanged) {
+            productCostService.priceChanged(id);
+        }
         
         return convertToIngredientResponse(updatedIngredient);
     }
@@ -140,6 +157,9 @@ public class IngredientServiceImpl implements IngredientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Ingredient", "id", id));
         
         ingredientRepository.delete(ingredient);
+        ingredientStockService.unregisterIngredient(id);
+        lowStockService.ingredientRemoved(id);
+        productCostService.priceChanged(id);
         
         return new MessageResponse("Ingredient deleted successfully");
     }
@@ -168,19 +188,13 @@ public class IngredientServiceImpl implements IngredientService {
         
         // Update ingredient quantity
         if (type.equals("IMPORT")) {
-            ingredient.setQuantity(ingredient.getQuantity().add(request.getQuantity()));
+            ingredientStockService.addStock(ingredient, request.getQuantity());
+            lowStockService.stockAdjusted(Map.of(ingredient.getId(), request.getQuantity()));
         } else { // EXPORT
-            if (ingredient.getQuantity().compareTo(request.getQuantity()) < 0) {
-                throw new BadRequestException(
-                        "Insufficient stock for ingredient '" + ingredient.getName() + 
-                        "'. Available: " + ingredient.getQuantity() + ", Requested: " + request.getQuantity()
-                );
-            }
-            ingredient.setQuantity(ingredient.getQuantity().subtract(request.getQuantity()));
+            ingredientStockService.removeStock(ingredient, request.getQuantity());
+            lowStockService.stockAdjusted(Map.of(ingredient.getId(), request.getQuantity().negate()));
         }
         
-        ingredientRepository.save(ingredient);
-        
         // Create transaction record
         IngredientTransaction transaction = new IngredientTransaction();
         transaction.setIngredient(ingredient);
@@ -232,13 +246,17 @@ public class IngredientServiceImpl implements IngredientService {
     
     /**
      * Get low stock ingredients
+     * Only the ingredients in the low-stock index are loaded
      * @return List of ingredients below minimum stock
      */
     @Override
     public List<IngredientResponse> getLowStockIngredients() {
-        List<Ingredient> lowStockIngredients = ingredientRepository.findAll().stream()
-                .filter(ingredient -> ingredient.getQuantity().compareTo(ingredient.getMinimumStock()) < 0)
-                .collect(Collectors.toList());
+        List<Long> lowStockIds = lowStockService.getLowStockIds();
+        if (lowStockIds.isEmpty()) {
+            return List.of();
+        }
+        List<Ingredient> lowStockIngredients = new ArrayList<>(ingredientRepository.findAllById(lowStockIds));
+        lowStockIngredients.sort(Comparator.comparing(Ingredient::getId));
         
         return lowStockIngredients.stream()
                 .map(this::convertToIngredientResponse)
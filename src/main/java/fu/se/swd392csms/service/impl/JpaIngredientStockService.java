@@ -0,0 +1,95 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.service.IngredientStockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPA Ingredient Stock Service
+ * Applies stock changes directly to the database with guarded UPDATE statements
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "jpa", matchIfMissing = true)
+public class JpaIngredientStockService implements IngredientStockService {
+
+    private final IngredientRepository ingredientRepository;
+
+    /**
+     * Deduct order demand with one guarded update per ingredient
+     */
+    @Override
+    public void deductForOrder(Order order, Map<Long, BigDecimal> demandByIngredient, Map<Long, Ingredient> ingredients) {
+        deduct(demandByIngredient, ingredients);
+    }
+
+    /**
+     * Deduct the demand of a batch with one guarded update per ingredient for all orders
+     */
+    @Override
+    public void deductForOrders(List<OrderDemand> orderDemands, Map<Long, Ingredient> ingredients) {
+        Map<Long, BigDecimal> totalDemand = new LinkedHashMap<>();
+        for (OrderDemand orderDemand : orderDemands) {
+            orderDemand.demandByIngredient().forEach((id, quantity) -> totalDemand.merge(id, quantity, BigDecimal::add));
+        }
+        deduct(totalDemand, ingredients);
+    }
+
+    @Override
+    public void addStock(Ingredient ingredient, BigDecimal quantity) {
+        ingredientRepository.incrementStock(ingredient.getId(), quantity);
+    }
+
+    @Override
+    public void removeStock(Ingredient ingredient, BigDecimal quantity) {
+        if (ingredientRepository.decrementStock(ingredient.getId(), quantity) == 0) {
+            throw new BadRequestException(
+                    "Insufficient stock for ingredient '" + ingredient.getName() +
+                    "'. Available: " + ingredient.getQuantity() + ", Requested: " + quantity
+            );
+        }
+    }
+
+    @Override
+    public void setStock(Ingredient ingredient, BigDecimal quantity) {
+        ingredientRepository.setStock(ingredient.getId(), quantity);
+        ingredient.setQuantity(quantity);
+    }
+
+    @Override
+    public void registerIngredient(Ingredient ingredient) {
+        // Nothing to track, stock lives in the database only
+    }
+
+    @Override
+    public void unregisterIngredient(Long ingredientId) {
+        // Nothing to track, stock lives in the database only
+    }
+
+    /**
+     * Apply one guarded decrement per ingredient; a failed guard throws and rolls back the earlier ones
+     */
+    private void deduct(Map<Long, BigDecimal> demandByIngredient, Map<Long, Ingredient> ingredients) {
+        for (Map.Entry<Long, BigDecimal> demand : demandByIngredient.entrySet()) {
+            BigDecimal requiredQuantity = demand.getValue();
+
+            if (ingredientRepository.decrementStock(demand.getKey(), requiredQuantity) == 0) {
+                Ingredient ingredient = ingredients.get(demand.getKey());
+                throw new BadRequestException(
+                        "Insufficient stock for ingredient '" + ingredient.getName() +
+                        "'. Required: " + requiredQuantity + ", Available: " + ingredient.getQuantity()
+                );
+            }
+        }
+    }
+}
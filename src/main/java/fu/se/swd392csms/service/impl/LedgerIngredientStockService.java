@@ -0,0 +1,307 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.IngredientTransaction;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.OrderItem;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.inventory.IngredientLedger;
+import fu.se.swd392csms.inventory.IngredientLedger.Reservation;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.IngredientTransactionRepository;
+import fu.se.swd392csms.repository.OrderItemRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.service.IngredientStockService;
+import fu.se.swd392csms.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ledger Ingredient Stock Service
+ * Reserves stock against the in-memory IngredientLedger and writes net changes
+ * to ingredients and ingredient_transactions in batches.
+ * Orders created in this mode carry stockPending = true until their stock is written,
+ * which lets startup reconciliation replay anything lost in a crash.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "ledger")
+public class LedgerIngredientStockService implements IngredientStockService, SmartInitializingSingleton {
+
+    private final IngredientLedger ledger = new IngredientLedger();
+
+    private final IngredientRepository ingredientRepository;
+    private final IngredientTransactionRepository transactionRepository;
+    private final EmployeeRepository employeeRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductIngredientRepository productIngredientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.ledger.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    public LedgerIngredientStockService(IngredientRepository ingredientRepository,
+                                        IngredientTransactionRepository transactionRepository,
+                                        EmployeeRepository employeeRepository,
+                                        OrderRepository orderRepository,
+                                        OrderItemRepository orderItemRepository,
+                                        ProductIngredientRepository productIngredientRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.ingredientRepository = ingredientRepository;
+        this.transactionRepository = transactionRepository;
+        this.employeeRepository = employeeRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productIngredientRepository = productIngredientRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconcile orders left unsettled by a crash, then load live stock into the ledger.
+     * Runs before the web server starts accepting orders.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> reconcilePendingOrders());
+        ingredientRepository.findAll().forEach(i -> ledger.load(i.getId(), i.getQuantity()));
+        log.info("[IngredientLedger] Loaded live stock for ingredients into memory");
+    }
+
+    @Override
+    public void deductForOrder(Order order, Map<Long, BigDecimal> demandByIngredient, Map<Long, Ingredient> ingredients) {
+        Map<Long, Long> units = new LinkedHashMap<>();
+        demandByIngredient.forEach((id, quantity) -> units.put(id, IngredientLedger.toUnits(quantity)));
+
+        Long failedId = ledger.tryReserve(units);
+        if (failedId != null) {
+            throw new BadRequestException(
+                    "Insufficient stock for ingredient '" + ingredients.get(failedId).getName() +
+                    "'. Required: " + demandByIngredient.get(failedId) +
+                    ", Available: " + IngredientLedger.toQuantity(ledger.available(failedId))
+            );
+        }
+
+        order.setStockPending(true);
+        AfterCommit.run(
+                () -> ledger.commit(new Reservation(order.getId(), order.getEmployee().getId(), units)),
+                () -> ledger.release(units));
+    }
+
+    /**
+     * Reserve the summed demand of a batch in one ledger operation,
+     * keeping one reservation per order for write-behind and crash reconciliation
+     */
+    @Override
+    public void deductForOrders(List<OrderDemand> orderDemands, Map<Long, Ingredient> ingredients) {
+        Map<Long, Long> totalUnits = new LinkedHashMap<>();
+        List<Map<Long, Long>> unitsPerOrder = new ArrayList<>();
+        for (OrderDemand orderDemand : orderDemands) {
+            Map<Long, Long> units = new LinkedHashMap<>();
+            orderDemand.demandByIngredient().forEach((id, quantity) -> units.put(id, IngredientLedger.toUnits(quantity)));
+            units.forEach((id, amount) -> totalUnits.merge(id, amount, Long::sum));
+            unitsPerOrder.add(units);
+        }
+
+        Long failedId = ledger.tryReserve(totalUnits);
+        if (failedId != null) {
+            throw new BadRequestException(
+                    "Insufficient stock for ingredient '" + ingredients.get(failedId).getName() +
+                    "'. Required: " + IngredientLedger.toQuantity(totalUnits.get(failedId)) +
+                    ", Available: " + IngredientLedger.toQuantity(ledger.available(failedId))
+            );
+        }
+
+        orderDemands.forEach(orderDemand -> orderDemand.order().setStockPending(true));
+        AfterCommit.run(
+                () -> {
+                    for (int i = 0; i < orderDemands.size(); i++) {
+                        Order order = orderDemands.get(i).order();
+                        ledger.commit(new Reservation(order.getId(), order.getEmployee().getId(), unitsPerOrder.get(i)));
+                    }
+                },
+                () -> ledger.release(totalUnits));
+    }
+
+    @Override
+    public void addStock(Ingredient ingredient, BigDecimal quantity) {
+        long units = IngredientLedger.toUnits(quantity);
+        ledger.add(ingredient.getId(), units);
+        ingredientRepository.adjustStock(ingredient.getId(), quantity);
+        AfterCommit.run(() -> { }, () -> ledger.add(ingredient.getId(), -units));
+    }
+
+    @Override
+    public void removeStock(Ingredient ingredient, BigDecimal quantity) {
+        long units = IngredientLedger.toUnits(quantity);
+        if (!ledger.tryTake(ingredient.getId(), units)) {
+            throw new BadRequestException(
+                    "Insufficient stock for ingredient '" + ingredient.getName() +
+                    "'. Available: " + IngredientLedger.toQuantity(ledger.available(ingredient.getId())) +
+                    ", Requested: " + quantity
+            );
+        }
+        ingredientRepository.adjustStock(ingredient.getId(), quantity.negate());
+        AfterCommit.run(() -> { }, () -> ledger.add(ingredient.getId(), units));
+    }
+
+    /**
+     * Overwrite stock as a relative change, so write-behind of older reservations
+     * still converges the database to the new quantity
+     */
+    @Override
+    public void setStock(Ingredient ingredient, BigDecimal quantity) {
+        long delta = IngredientLedger.toUnits(quantity) - ledger.set(ingredient.getId(), IngredientLedger.toUnits(quantity));
+        ingredientRepository.adjustStock(ingredient.getId(), IngredientLedger.toQuantity(delta));
+        ingredient.setQuantity(quantity);
+        AfterCommit.run(() -> { }, () -> ledger.add(ingredient.getId(), -delta));
+    }
+
+    @Override
+    public void registerIngredient(Ingredient ingredient) {
+        AfterCommit.run(() -> ledger.load(ingredient.getId(), ingredient.getQuantity()), () -> { });
+    }
+
+    @Override
+    public void unregisterIngredient(Long ingredientId) {
+        AfterCommit.run(() -> ledger.remove(ingredientId), () -> { });
+    }
+
+    /**
+     * Write committed reservations to the database in batches
+     * @return Number of orders written
+     */
+    public int flush() {
+        int written = 0;
+        List<Reservation> batch;
+        while (!(batch = ledger.drain(flushBatchSize)).isEmpty()) {
+            List<Reservation> current = batch;
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeBehind(current));
+                written += current.size();
+            } catch (RuntimeException e) {
+                ledger.requeue(current);
+                log.error("[IngredientLedger] Write-behind of {} order(s) failed, will retry: {}", current.size(), e.getMessage(), e);
+                break;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Get the number of committed orders waiting for write-behind
+     */
+    public int pendingCount() {
+        return ledger.pendingCount();
+    }
+
+    /**
+     * Write whatever is still queued before the application stops
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        log.info("[IngredientLedger] Flushed {} order(s) on shutdown, {} left", written, ledger.pendingCount());
+    }
+
+    /**
+     * Apply the net stock change of a batch of orders and mark them settled, in one transaction
+     */
+    private void writeBehind(List<Reservation> batch) {
+        Map<Long, Long> unitsByIngredient = new HashMap<>();
+        Map<StockMovement, Long> unitsByMovement = new LinkedHashMap<>();
+        for (Reservation reservation : batch) {
+            reservation.units().forEach((ingredientId, units) -> {
+                unitsByIngredient.merge(ingredientId, units, Long::sum);
+                unitsByMovement.merge(new StockMovement(ingredientId, reservation.employeeId()), units, Long::sum);
+            });
+        }
+
+        List<Long> missingIngredients = new ArrayList<>();
+        unitsByIngredient.forEach((ingredientId, units) -> {
+            if (ingredientRepository.adjustStock(ingredientId, IngredientLedger.toQuantity(-units)) == 0) {
+                missingIngredients.add(ingredientId);
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<IngredientTransaction> transactions = new ArrayList<>();
+        unitsByMovement.forEach((movement, units) -> {
+            if (missingIngredients.contains(movement.ingredientId())) {
+                return;
+            }
+            IngredientTransaction transaction = new IngredientTransaction();
+            transaction.setIngredient(ingredientRepository.getReferenceById(movement.ingredientId()));
+            transaction.setEmployee(employeeRepository.getReferenceById(movement.employeeId()));
+            transaction.setType("EXPORT");
+            transaction.setQuantity(IngredientLedger.toQuantity(units));
+            transaction.setTransactionDate(now);
+            transaction.setNotes("Order stock write-behind");
+            transactions.add(transaction);
+        });
+        transactionRepository.saveAll(transactions);
+
+        orderRepository.markStockSettled(batch.stream().map(Reservation::orderId).toList());
+    }
+
+    /**
+     * Replay stock for orders whose reservations never reached the database.
+     * Demand is recomputed from the current recipes of the ordered products.
+     */
+    private void reconcilePendingOrders() {
+        List<Long> orderIds = orderRepository.findStockPendingOrderIds();
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository.findByOrderIdInWithProduct(orderIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+        List<Long> productIds = itemsByOrder.values().stream()
+                .flatMap(List::stream)
+                .map(item -> item.getProduct().getId())
+                .distinct()
+                .toList();
+        Map<Long, List<ProductIngredient>> recipes = productIds.isEmpty() ? Map.of()
+                : productIngredientRepository.findByProductIdInWithIngredient(productIds).stream()
+                        .collect(Collectors.groupingBy(pi -> pi.getProduct().getId()));
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            Map<Long, Long> units = new HashMap<>();
+            for (OrderItem item : itemsByOrder.getOrDefault(order.getId(), List.of())) {
+                for (ProductIngredient pi : recipes.getOrDefault(item.getProduct().getId(), List.of())) {
+                    BigDecimal required = pi.getQuantityRequired().multiply(BigDecimal.valueOf(item.getQuantity()));
+                    units.merge(pi.getIngredient().getId(), IngredientLedger.toUnits(required), Long::sum);
+                }
+            }
+            reservations.add(new Reservation(order.getId(), order.getEmployee().getId(), units));
+        }
+
+        writeBehind(reservations);
+        log.warn("[IngredientLedger] Reconciled stock for {} order(s) left pending by a previous run", reservations.size());
+    }
+
+    /**
+     * Ingredient and employee a write-behind transaction row is recorded for
+     */
+    private record StockMovement(Long ingredientId, Long employeeId) {
+    }
+}
@@ -0,0 +1,200 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.inventory.IngredientLedger;
+import fu.se.swd392csms.inventory.LowStockEvent;
+import fu.se.swd392csms.inventory.LowStockIndex;
+import fu.se.swd392csms.inventory.LowStockIndex.Crossing;
+import fu.se.swd392csms.inventory.LowStockIndex.Level;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.LowStockService;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Low Stock Service Implementation
+ * Stock levels of every ingredient are loaded once at startup and then moved by the same deltas the
+ * stock services apply, after commit. In ledger mode this follows live stock ahead of the write-behind.
+ * Deltas that were lost or applied out of order (e.g. an order committing before a concurrent edit
+ * whose level is applied after it) are corrected by a periodic resync against the database; in ledger
+ * mode a resync may briefly show stock that is not yet written behind.
+ * Until the index is loaded, or if loading failed, answers come from the database.
+ */
+@Slf4j
+@Service
+public class LowStockServiceImpl implements LowStockService, SmartInitializingSingleton {
+
+    private final IngredientRepository ingredientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataVersionService dataVersionService;
+    private final LowStockIndex index = new LowStockIndex();
+
+    private volatile boolean loaded;
+
+    // Number of changes applied so far, guarded by this; a resync that overlaps one is dropped
+    private long changes;
+
+    public LowStockServiceImpl(IngredientRepository ingredientRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               DataVersionService dataVersionService) {
+        this.ingredientRepository = ingredientRepository;
+        this.eventPublisher = eventPublisher;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Load the index at startup
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        changes++;
+        loaded = false;
+        try {
+            index.clear();
+            for (Object[] row : ingredientRepository.findStockLevels()) {
+                index.set((Long) row[0], units(row[1]), units(row[2]));
+            }
+            loaded = true;
+            dataVersionService.dataChanged(Scope.DASHBOARD);
+            log.info("[LowStock] Indexed {} ingredient(s), {} below minimum stock", index.size(), index.lowStockCount());
+        } catch (RuntimeException e) {
+            log.error("[LowStock] Could not load stock levels, answering from the database: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean resync() {
+        if (!loaded) {
+            rebuild();
+            return loaded;
+        }
+        long seen;
+        synchronized (this) {
+            seen = changes;
+        }
+        List<Object[]> rows = ingredientRepository.findStockLevels();
+
+        synchronized (this) {
+            if (changes != seen) {
+                log.debug("[LowStock] Stock changed during resync, keeping the index until the next one");
+                return false;
+            }
+            Set<Long> present = new HashSet<>();
+            int corrected = 0;
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                long quantity = units(row[1]);
+                long minimumStock = units(row[2]);
+                present.add(id);
+                if (!new Level(quantity, minimumStock).equals(index.level(id))) {
+                    corrected++;
+                    publish(id, index.set(id, quantity, minimumStock));
+                }
+            }
+            for (Long id : List.copyOf(index.ids())) {
+                if (!present.contains(id)) {
+                    corrected++;
+                    index.remove(id);
+                }
+            }
+            if (corrected > 0) {
+                dataVersionService.dataChanged(Scope.DASHBOARD);
+                log.warn("[LowStock] Corrected {} stock level(s) that drifted from the database", corrected);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void stockAdjusted(Map<Long, BigDecimal> deltaByIngredient) {
+        Map<Long, Long> units = new LinkedHashMap<>();
+        deltaByIngredient.forEach((id, delta) -> units.merge(id, units(delta), Long::sum));
+        AfterCommit.run(() -> apply(() -> units.forEach((id, delta) -> publish(id, index.adjust(id, delta)))));
+    }
+
+    @Override
+    public void levelChanged(Long ingredientId, BigDecimal quantity, BigDecimal minimumStock) {
+        long quantityUnits = units(quantity);
+        long minimumUnits = units(minimumStock);
+        AfterCommit.run(() -> apply(() -> publish(ingredientId, index.set(ingredientId, quantityUnits, minimumUnits))));
+    }
+
+    @Override
+    public void ingredientRemoved(Long ingredientId) {
+        AfterCommit.run(() -> apply(() -> {
+            index.remove(ingredientId);
+            dataVersionService.dataChanged(Scope.DASHBOARD);
+        }));
+    }
+
+    @Override
+    public List<Long> getLowStockIds() {
+        if (!loaded) {
+            return ingredientRepository.findIdsBelowMinimumStock();
+        }
+        return index.lowStockIds().stream().sorted().toList();
+    }
+
+    @Override
+    public long countLowStock() {
+        if (!loaded) {
+            return ingredientRepository.countBelowMinimumStock();
+        }
+        return index.lowStockCount();
+    }
+
+    /**
+     * Apply one change to the index, counting it so an overlapping resync is dropped
+     */
+    private synchronized void apply(Runnable change) {
+        changes++;
+        change.run();
+    }
+
+    /**
+     * Log and publish a threshold crossing
+     */
+    private void publish(Long ingredientId, Crossing crossing) {
+        if (crossing == Crossing.NONE) {
+            return;
+        }
+        dataVersionService.dataChanged(Scope.DASHBOARD);
+        Level level = index.level(ingredientId);
+        if (level == null) {
+            return;
+        }
+        LowStockEvent event = new LowStockEvent(ingredientId, IngredientLedger.toQuantity(level.quantity()),
+                IngredientLedger.toQuantity(level.minimumStock()), crossing == Crossing.BELOW);
+        if (event.low()) {
+            log.warn("[LowStock] Ingredient {} fell below minimum stock: {} < {}",
+                    ingredientId, event.quantity(), event.minimumStock());
+        } else {
+            log.info("[LowStock] Ingredient {} is back at minimum stock: {} >= {}",
+                    ingredientId, event.quantity(), event.minimumStock());
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+    private static long units(Object quantity) {
+        if (quantity == null) {
+            return 0;
+        }
+        return IngredientLedger.toUnits(quantity instanceof BigDecimal value ? value : new BigDecimal(quantity.toString()));
+    }
+}
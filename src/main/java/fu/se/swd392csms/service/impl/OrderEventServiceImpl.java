@@ -0,0 +1,284 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.response.OrderEventResponse;
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.service.OrderEventService;
+import fu.se.swd392csms.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Order Event Service Implementation
+ * Every event gets a sequence number and is kept in a bounded replay buffer, so a display that
+ * reconnects with its Last-Event-ID receives exactly the events it missed. Each display has its
+ * own bounded queue drained by a small sender pool; a display that falls further behind than its
+ * queue allows is disconnected and resumes from the replay buffer when it reconnects.
+ */
+@Slf4j
+@Service
+public class OrderEventServiceImpl implements OrderEventService {
+
+    private static final String EVENT_NAME = "order";
+
+    // Event IDs are "<boot>-<sequence>", so an ID from before a restart is recognized as unknown
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Event> replay = new ArrayDeque<>(); // guarded by lock
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>(); // guarded by lock
+    private long sequence; // guarded by lock
+
+    private final ExecutorService sender = Executors.newFixedThreadPool(2,
+            Thread.ofPlatform().name("order-events-", 0).daemon().factory());
+
+    @Value("${orders.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${orders.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${orders.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+
+        synchronized (lock) {
+            // Queue missed events and register in one step, so nothing published in between is lost
+            List<Event> missed = missedEvents(lastEventId);
+            if (missed == null || missed.size() > bufferSize) {
+                subscriber.queue.offer(resetEvent());
+            } else {
+                subscriber.queue.addAll(missed);
+            }
+            subscribers.add(subscriber);
+        }
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void publishCreated(OrderResponse order) {
+        AfterCommit.run(() -> append(List.of(orderEvent("CREATED", order))));
+    }
+
+    @Override
+    public void publishStatusChanged(OrderResponse order) {
+        AfterCommit.run(() -> append(List.of(orderEvent("STATUS_CHANGED", order))));
+    }
+
+    @Override
+    public void publishCancelled(Collection<Long> orderIds) {
+        List<OrderEventResponse> events = orderIds.stream()
+                .map(id -> OrderEventResponse.builder()
+                        .type("STATUS_CHANGED")
+                        .orderId(id)
+                        .status("CANCELLED")
+                        .occurredAt(LocalDateTime.now())
+                        .build())
+                .toList();
+        AfterCommit.run(() -> append(events));
+    }
+
+    @Override
+    public void publishDeleted(Long orderId) {
+        OrderEventResponse event = OrderEventResponse.builder()
+                .type("DELETED")
+                .orderId(orderId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        AfterCommit.run(() -> append(List.of(event)));
+    }
+
+    @Override
+    public void heartbeat() {
+        List<Subscriber> targets;
+        synchronized (lock) {
+            targets = new ArrayList<>(subscribers);
+        }
+        for (Subscriber subscriber : targets) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    @Override
+    public int subscriberCount() {
+        synchronized (lock) {
+            return subscribers.size();
+        }
+    }
+
+    /**
+     * Close every stream on shutdown so displays reconnect to another instance
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> targets;
+        synchronized (lock) {
+            targets = new ArrayList<>(subscribers);
+            subscribers.clear();
+        }
+        targets.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    /**
+     * Number an event batch, keep it for replay and queue it for every display
+     */
+    private void append(List<OrderEventResponse> payloads) {
+        List<Subscriber> overflowed = new ArrayList<>();
+        List<Subscriber> targets;
+        synchronized (lock) {
+            for (OrderEventResponse payload : payloads) {
+                Event event = new Event(++sequence, payload);
+                replay.addLast(event);
+                if (replay.size() > replaySize) {
+                    replay.removeFirst();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.queue.offer(event)) {
+                        overflowed.add(subscriber);
+                    }
+                }
+                overflowed.forEach(subscribers::remove);
+            }
+            targets = new ArrayList<>(subscribers);
+        }
+        for (Subscriber subscriber : overflowed) {
+            log.warn("[OrderEvents] Display fell more than {} events behind, disconnecting it so it resumes", bufferSize);
+            disconnect(subscriber);
+        }
+        targets.forEach(this::scheduleDrain);
+    }
+
+    /**
+     * Find the events published after the given event ID
+     * @return Missed events, or null if the ID is unknown or its successors were already dropped
+     */
+    private List<Event> missedEvents(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(bootId + "-")) {
+            return null;
+        }
+        long lastSequence;
+        try {
+            lastSequence = Long.parseLong(lastEventId.substring(bootId.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (lastSequence > sequence || lastSequence < oldest - 1) {
+            return null;
+        }
+        return replay.stream().filter(event -> event.sequence() > lastSequence).toList();
+    }
+
+    /**
+     * Event telling a display to reload its orders; carries the current position so it can resume from there
+     */
+    private Event resetEvent() {
+        return new Event(sequence, OrderEventResponse.builder()
+                .type("RESET")
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Send the queued events of one display, in order
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(bootId + "-" + event.sequence())
+                        .name(EVENT_NAME)
+                        .data(event.payload(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The display went away
+            disconnect(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+            if (!subscriber.queue.isEmpty()) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        synchronized (lock) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private static OrderEventResponse orderEvent(String type, OrderResponse order) {
+        return OrderEventResponse.builder()
+                .type(type)
+                .orderId(order.getId())
+                .status(order.getStatus())
+                .order(order)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Numbered order event
+     */
+    private record Event(long sequence, OrderEventResponse payload) {
+    }
+
+    /**
+     * Connected display with its own bounded queue
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Event> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
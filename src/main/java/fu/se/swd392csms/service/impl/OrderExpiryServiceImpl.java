@@ -0,0 +1,113 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.service.OrderExpiryService;
+import fu.se.swd392csms.timer.HashedTimerWheel;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order Expiry Service Implementation
+ * Keeps one timer per pending order in a hashed timer wheel with one-second ticks.
+ * Timers are started when an order is created, stopped when it leaves PENDING, and rebuilt
+ * from a single indexed query at startup. Cancellation is a status-guarded bulk UPDATE,
+ * so a timer that fires for an order already handled elsewhere changes nothing.
+ */
+@Slf4j
+@Service
+public class OrderExpiryServiceImpl implements OrderExpiryService, SmartInitializingSingleton {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimerWheel<Long> wheel;
+
+    @Value("${orders.auto-cancel.threshold-minutes:60}")
+    private int autoCancelThresholdMinutes;
+
+    @Value("${orders.auto-cancel.chunk-size:500}")
+    private int autoCancelChunkSize;
+
+    public OrderExpiryServiceImpl(OrderRepository orderRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${orders.expiry.tick-ms:1000}") long tickMillis,
+                                  @Value("${orders.expiry.wheel-size:4096}") int wheelSize) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.wheel = new HashedTimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Start a timer for every order that is pending at startup
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Object[]> pending = orderRepository.findPendingIdsAndOrderDates();
+        for (Object[] row : pending) {
+            wheel.schedule((Long) row[0], deadline((LocalDateTime) row[1]));
+        }
+        log.info("[OrderExpiry] Started expiry timers for {} pending order(s)", pending.size());
+    }
+
+    @Override
+    public void scheduleExpiry(Long orderId, LocalDateTime orderDate) {
+        long deadline = deadline(orderDate);
+        AfterCommit.run(() -> wheel.schedule(orderId, deadline));
+    }
+
+    @Override
+    public void cancelExpiry(Long orderId) {
+        AfterCommit.run(() -> wheel.cancel(orderId));
+    }
+
+    @Override
+    public List<Long> expireDueOrders() {
+        return expireDueOrders(System.currentTimeMillis());
+    }
+
+    /**
+     * Cancel the pending orders whose timers are due at a given time
+     * @param nowMillis Time to advance the wheel to, in epoch milliseconds
+     * @return IDs of the orders cancelled by this call
+     */
+    List<Long> expireDueOrders(long nowMillis) {
+        List<Long> due = wheel.advance(nowMillis);
+        List<Long> cancelled = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += autoCancelChunkSize) {
+            List<Long> chunk = due.subList(from, Math.min(from + autoCancelChunkSize, due.size()));
+            cancelled.addAll(transactionTemplate.execute(status -> cancelChunk(chunk)));
+        }
+        return cancelled;
+    }
+
+    @Override
+    public int pendingTimers() {
+        return wheel.size();
+    }
+
+    /**
+     * Cancel the orders of a chunk that are still pending
+     * @param orderIds Orders whose timers fired
+     * @return IDs of the orders cancelled by this call
+     */
+    private List<Long> cancelChunk(List<Long> orderIds) {
+        // Orders completed, cancelled or deleted on another instance are skipped; the rest stay locked until the update
+        List<Long> pending = orderRepository.lockPendingIds(orderIds);
+        if (!pending.isEmpty()) {
+            orderRepository.cancelPendingByIds(pending);
+        }
+        return pending;
+    }
+
+    private long deadline(LocalDateTime orderDate) {
+        return orderDate.plusMinutes(autoCancelThresholdMinutes).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,229 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.entity.IdempotencyKey;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.repository.IdempotencyKeyRepository;
+import fu.se.swd392csms.service.OrderIdempotencyService;
+import fu.se.swd392csms.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Order Idempotency Service Implementation
+ * Recent keys live in a bounded in-memory LRU whose entries are futures, so a retry that arrives
+ * while the first attempt is still running waits for its result. Every key is also stored in
+ * idempotency_keys in the same transaction as its order, which covers evicted keys, restarts
+ * and retries that reach another instance. Remembered keys count as absent once they are older than
+ * the retention period, so they are looked up in idempotency_keys like on any other instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderIdempotencyServiceImpl implements OrderIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${orders.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Value("${orders.idempotency.retention-hours:24}")
+    private int retentionHours;
+
+    // Access-ordered, so the least recently used key is evicted first; guarded by its own monitor
+    private final Map<String, CompletableFuture<StoredKey>> recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<StoredKey>> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    @Override
+    public OrderResponse createOrder(String idempotencyKey, CreateOrderRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        // Claim the key, or find the attempt that already claimed it
+        CompletableFuture<StoredKey> attempt = new CompletableFuture<>();
+        CompletableFuture<StoredKey> earlier;
+        synchronized (recentKeys) {
+            earlier = recentKeys.putIfAbsent(idempotencyKey, attempt);
+            // Past the retention period a remembered key counts as absent here too, like its purged row
+            if (earlier != null && isExpired(earlier)) {
+                recentKeys.put(idempotencyKey, attempt);
+                earlier = null;
+            }
+        }
+        if (earlier != null) {
+            return replay(await(earlier), requestHash);
+        }
+
+        try {
+            // Created before the last restart, before eviction from memory, or by another instance
+            Optional<IdempotencyKey> stored = idempotencyKeyRepository.findById(idempotencyKey);
+            if (stored.isPresent()) {
+                StoredKey storedKey = toStoredKey(stored.get());
+                attempt.complete(storedKey);
+                return replay(storedKey, requestHash);
+            }
+
+            LocalDateTime createdAt = LocalDateTime.now();
+            OrderResponse response = transactionTemplate.execute(status -> {
+                OrderResponse created = orderService.createOrder(request);
+                idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                        .key(idempotencyKey)
+                        .orderId(created.getId())
+                        .requestHash(requestHash)
+                        .createdAt(createdAt)
+                        .build());
+                return created;
+            });
+            attempt.complete(new StoredKey(response.getId(), requestHash, createdAt));
+            return response;
+        } catch (RuntimeException e) {
+            // A key violation means another instance stored the same key first; its order won and ours was rolled back
+            StoredKey winner = e instanceof DataIntegrityViolationException ? findStoredKey(idempotencyKey) : null;
+            if (winner == null) {
+                // A failed attempt is not remembered: waiters get the same error, later retries run again
+                synchronized (recentKeys) {
+                    recentKeys.remove(idempotencyKey, attempt);
+                }
+                attempt.completeExceptionally(e);
+                throw e;
+            }
+            attempt.complete(winner);
+            return replay(winner, requestHash);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpiredKeys() {
+        return idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    /**
+     * Look up a key stored by the attempt that won a race
+     * @return The stored key, or null if there is none or it cannot be read
+     */
+    private StoredKey findStoredKey(String idempotencyKey) {
+        try {
+            return idempotencyKeyRepository.findById(idempotencyKey)
+                    .map(OrderIdempotencyServiceImpl::toStoredKey)
+                    .orElse(null);
+        } catch (RuntimeException lookupFailure) {
+            return null;
+        }
+    }
+
+    /**
+     * Check whether a finished attempt was stored longer ago than the retention period
+     */
+    private boolean isExpired(CompletableFuture<StoredKey> attempt) {
+        // Attempts still running or failed have no creation time yet
+        if (!attempt.isDone() || attempt.isCompletedExceptionally()) {
+            return false;
+        }
+        return attempt.join().createdAt().isBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    private static StoredKey toStoredKey(IdempotencyKey stored) {
+        return new StoredKey(stored.getOrderId(), stored.getRequestHash(), stored.getCreatedAt());
+    }
+
+    /**
+     * Return the order of an earlier attempt, provided it was made with the same request
+     */
+    private OrderResponse replay(StoredKey storedKey, String requestHash) {
+        if (!storedKey.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different order request");
+        }
+        return orderService.getOrderById(storedKey.orderId());
+    }
+
+    /**
+     * Wait for an attempt that is still in progress
+     */
+    private StoredKey await(CompletableFuture<StoredKey> attempt) {
+        try {
+            return attempt.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new BadRequestException("An order with this Idempotency-Key is still being processed, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BadRequestException("Interrupted while waiting for an order with this Idempotency-Key");
+        }
+    }
+
+    /**
+     * Fingerprint an order request from the fields that define the order:
+     * employee, items in request order, notes and client order ID
+     */
+    static String hash(CreateOrderRequest request) {
+        StringBuilder canonical = new StringBuilder();
+        canonical.append(request.getEmployeeId()).append('\n');
+        if (request.getItems() != null) {
+            for (OrderItemRequest item : request.getItems()) {
+                canonical.append(item.getProductId()).append('x').append(item.getQuantity()).append(';');
+            }
+        }
+        canonical.append('\n');
+        appendText(canonical, request.getNotes());
+        appendText(canonical, request.getClientOrderId());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Append free text with its length, so no text can pass for another field
+     */
+    private static void appendText(StringBuilder canonical, String text) {
+        if (text == null) {
+            canonical.append("-\n");
+        } else {
+            canonical.append(text.length()).append(':').append(text).append('\n');
+        }
+    }
+
+    /**
+     * Order created for a key, the fingerprint of the request that created it and when the key was stored
+     */
+    private record StoredKey(Long orderId, String requestHash, LocalDateTime createdAt) {
+    }
+}
@@ -1,27 +1,54 @@
 package fu.se.swd392csms.service.impl;
 
+import fu.se.swd392csms.dto.request.BatchCreateOrderRequest;
 import fu.se.swd392csms.dto.request.CreateOrderRequest;
 import fu.se.swd392csms.dto.request.OrderItemRequest;
 import fu.se.swd392csms.dto.request.UpdateOrderStatusRequest;
 import fu.se.swd392csms.dto.response.MessageResponse;
+import fu.se.swd392csms.dto.response.OrderBatchResponse;
+import fu.se.swd392csms.dto.response.OrderBatchResultResponse;
+import fu.se.swd392csms.dto.response.OrderCursorResponse;
 import fu.se.swd392csms.dto.response.OrderItemResponse;
 import fu.se.swd392csms.dto.response.OrderResponse;
 import fu.se.swd392csms.entity.*;
 import fu.se.swd392csms.exception.BadRequestException;
 import fu.se.swd392csms.exception.ResourceNotFoundException;
 import fu.se.swd392csms.repository.*;
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.IngredientStockService;
+import fu.se.swd392csms.service.IngredientStockService.OrderDemand;
+import fu.se.swd392csms.service.LowStockService;
+import fu.se.swd392csms.service.OrderEventService;
+import fu.se.swd392csms.service.OrderExpiryService;
 import fu.se.swd392csms.service.OrderService;
+import fu.se.swd392csms.service.SalesCubeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,93 +59,187 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
     
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final EmployeeRepository employeeRepository;
     private final ProductRepository productRepository;
-    private final IngredientRepository ingredientRepository;
     private final ProductIngredientRepository productIngredientRepository;
+    private final IngredientStockService ingredientStockService;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderExpiryService orderExpiryService;
+    private final OrderEventService orderEventService;
+    private final DailyReportService dailyReportService;
+    private final SalesCubeService salesCubeService;
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockService lowStockService;
+    
+    @Value("${orders.batch.max-size:1000}")
+    private int batchMaxSize;
+    
+    @Value("${orders.batch.chunk-size:50}")
+    private int batchChunkSize;
     
     /**
      * Create a new order
+     * An order whose clientOrderId was already synced is returned as it was created, like a batch duplicate.
      * @param request Order creation request
      * @return Created order response
      */
     @Override
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
+        // A resent order is not created twice
+        if (request.getClientOrderId() != null) {
+            Optional<Order> existing = orderRepository.findDetailedByClientOrderId(request.getClientOrderId());
+            if (existing.isPresent()) {
+                return convertToOrderResponse(existing.get(), existing.get().getOrderItems());
+            }
+        }
+        
         // Validate employee exists
         Employee employee = employeeRepository.findById(request.getEmployeeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", request.getEmployeeId()));
         
-        // Create order entity
-        Order order = new Order();
-        order.setEmployee(employee);
-        order.setOrderDate(LocalDateTime.now());
-        order.setStatus("PENDING");
+        // Merge line items per product so repeated products are looked up and deducted once
+        Map<Long, Integer> quantityByProduct = mergeQuantities(request.getItems());
         
-        // Calculate total amount and process order items
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
+        // Load every product of the order in one query and validate availability
+        Map<Long, Product> products = loadAvailableProducts(quantityByProduct.keySet());
         
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // Validate product exists
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId()));
-            
-            // Check if product is available
-            if (!"Available".equalsIgnoreCase(product.getStatus())) {
-                throw new BadRequestException("Product '" + product.getName() + "' is not available");
+        // Load every recipe row of the order in one query and sum the ingredient demand
+        Map<Long, BigDecimal> demandByIngredient = new LinkedHashMap<>();
+        Map<Long, Ingredient> ingredients = new HashMap<>();
+        aggregateIngredientDemand(quantityByProduct, loadRecipes(quantityByProduct.keySet()), demandByIngredient, ingredients);
+        
+        // Create order entity with its items and total amount
+        Order order = buildOrder(employee, request, products);
+        
+        // Reduce ingredient stock; a failure rolls back the whole order
+        ingredientStockService.deductForOrder(order, demandByIngredient, ingredients);
+        
+        // Save order; items are persisted through the cascade
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.saveAndFlush(order);
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the same client order ID concurrently
+            throw new BadRequestException("Order with this client order ID already exists");
+        }
+        orderExpiryService.scheduleExpiry(savedOrder.getId(), savedOrder.getOrderDate());
+        dailyReportService.markOrderChanged(savedOrder.getOrderDate());
+        dashboardStatsService.orderChanged(null, savedOrder.getStatus(), savedOrder.getOrderDate(), savedOrder.getTotalAmount());
+        lowStockService.stockAdjusted(stockTaken(List.of(demandByIngredient)));
+        
+        // Convert to response and push it to order boards
+        OrderResponse response = convertToOrderResponse(savedOrder, savedOrder.getOrderItems());
+        orderEventService.publishCreated(response);
+        return response;
+    }
+    
+    /**
+     * Create many orders at once, e.g. orders queued offline by a POS client.
+     * Employees, products and recipes of the whole batch are loaded once. Valid orders are
+     * saved in chunks, one transaction per chunk with one summed stock deduction; if a chunk
+     * fails, its orders are retried one by one so each gets its own outcome.
+     * Orders whose clientOrderId was already synced are reported as duplicates and not created again.
+     * @param request Batch of order creation requests
+     * @return Outcome of every order, in request order
+     */
+    @Override
+    public OrderBatchResponse createOrders(BatchCreateOrderRequest request) {
+        List<CreateOrderRequest> requests = request.getOrders();
+        if (requests.size() > batchMaxSize) {
+            throw new BadRequestException("A batch can contain at most " + batchMaxSize + " orders");
+        }
+        
+        OrderBatchResultResponse[] results = new OrderBatchResultResponse[requests.size()];
+        
+        // Every order needs a client ID that is unique within the batch
+        Map<String, Integer> indexByClientId = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String clientOrderId = requests.get(i).getClientOrderId();
+            if (clientOrderId == null || clientOrderId.isBlank()) {
+                results[i] = failedResult(clientOrderId, "Client order ID is required");
+            } else if (indexByClientId.putIfAbsent(clientOrderId, i) != null) {
+                results[i] = failedResult(clientOrderId, "Duplicate client order ID in batch");
             }
-            
-            // Get product ingredients
-            List<ProductIngredient> productIngredients = productIngredientRepository
-                    .findByProductId(itemRequest.getProductId());
-            
-            // Check and reduce ingredient stock
-            for (ProductIngredient pi : productIngredients) {
-                Ingredient ingredient = pi.getIngredient();
-                BigDecimal requiredQuantity = pi.getQuantityRequired()
-                        .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-                
-                if (ingredient.getQuantity().compareTo(requiredQuantity) < 0) {
-                    throw new BadRequestException(
-                            "Insufficient stock for ingredient '" + ingredient.getName() + 
-                            "'. Required: " + requiredQuantity + ", Available: " + ingredient.getQuantity()
-                    );
+        }
+        
+        // Orders synced by an earlier attempt are returned as they were created
+        if (!indexByClientId.isEmpty()) {
+            List<Order> existingOrders = orderRepository.findByClientOrderIdIn(indexByClientId.keySet());
+            Map<Long, List<OrderItem>> existingItems = loadItemsByOrder(existingOrders);
+            for (Order existing : existingOrders) {
+                results[indexByClientId.get(existing.getClientOrderId())] = OrderBatchResultResponse.builder()
+                        .clientOrderId(existing.getClientOrderId())
+                        .status("DUPLICATE")
+                        .order(convertToOrderResponse(existing, existingItems.getOrDefault(existing.getId(), List.of())))
+                        .build();
+            }
+        }
+        
+        // Load employees, products and recipes referenced by the whole batch, one query each
+        List<Integer> pending = new ArrayList<>();
+        Set<Long> employeeIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] == null) {
+                pending.add(i);
+                employeeIds.add(requests.get(i).getEmployeeId());
+                requests.get(i).getItems().forEach(item -> productIds.add(item.getProductId()));
+            }
+        }
+        Map<Long, Employee> employees = employeeRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, List<ProductIngredient>> recipes = productIds.isEmpty() ? Map.of() : loadRecipes(productIds);
+        
+        // Validate and price every order against the shared lookups
+        Map<Long, Ingredient> ingredients = new HashMap<>();
+        List<PreparedOrder> prepared = new ArrayList<>();
+        for (int i : pending) {
+            CreateOrderRequest orderRequest = requests.get(i);
+            try {
+                Employee employee = employees.get(orderRequest.getEmployeeId());
+                if (employee == null) {
+                    throw new ResourceNotFoundException("Employee", "id", orderRequest.getEmployeeId());
                 }
+                Map<Long, Integer> quantityByProduct = mergeQuantities(orderRequest.getItems());
+                requireAvailableProducts(quantityByProduct.keySet(), products);
                 
-                // Reduce ingredient stock
-                ingredient.setQuantity(ingredient.getQuantity().subtract(requiredQuantity));
-                ingredientRepository.save(ingredient);
+                Map<Long, BigDecimal> demandByIngredient = new LinkedHashMap<>();
+                aggregateIngredientDemand(quantityByProduct, recipes, demandByIngredient, ingredients);
+                prepared.add(new PreparedOrder(i, orderRequest, employee, demandByIngredient));
+            } catch (ResourceNotFoundException | BadRequestException e) {
+                results[i] = failedResult(orderRequest.getClientOrderId(), e.getMessage());
             }
-            
-            // Create order item
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProduct(product);
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setPrice(product.getPrice());
-            
-            // Calculate subtotal
-            BigDecimal subtotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            totalAmount = totalAmount.add(subtotal);
-            
-            orderItems.add(orderItem);
         }
         
-        // Set total amount and save order
-        order.setTotalAmount(totalAmount);
-        Order savedOrder = orderRepository.save(order);
-        
-        // Save order items
-        for (OrderItem item : orderItems) {
-            item.setOrder(savedOrder);
-            orderItemRepository.save(item);
+        // Save in chunks; a failed chunk falls back to one transaction per order
+        for (int from = 0; from < prepared.size(); from += batchChunkSize) {
+            List<PreparedOrder> chunk = prepared.subList(from, Math.min(from + batchChunkSize, prepared.size()));
+            try {
+                List<OrderResponse> created = transactionTemplate.execute(status -> saveChunk(chunk, products, ingredients));
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[chunk.get(k).index()] = createdResult(created.get(k));
+                }
+            } catch (RuntimeException chunkFailure) {
+                for (PreparedOrder order : chunk) {
+                    results[order.index()] = saveAlone(order, products, ingredients);
+                }
+            }
         }
         
-        // Convert to response
-        return convertToOrderResponse(savedOrder, orderItems);
+        List<OrderBatchResultResponse> resultList = List.of(results);
+        return OrderBatchResponse.builder()
+                .created(countResults(resultList, "CREATED"))
+                .duplicates(countResults(resultList, "DUPLICATE"))
+                .failed(countResults(resultList, "FAILED"))
+                .results(resultList)
+                .build();
     }
     
     /**
@@ -127,13 +248,12 @@ public class OrderServiceImpl implements OrderService {
      * @return Order response
      */
     @Override
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findDetailedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
         
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(id);
-        
-        return convertToOrderResponse(order, orderItems);
+        return convertToOrderResponse(order, order.getOrderItems());
     }
     
     /**
@@ -143,25 +263,83 @@ public class OrderServiceImpl implements OrderService {
      * @return Page of orders
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderResponse> getAllOrders(String status, Pageable pageable) {
         Page<Order> orderPage;
         
         if (status != null && !status.isEmpty()) {
-            orderPage = orderRepository.findByStatus(status, pageable);
+            orderPage = orderRepository.findPageWithEmployeeByStatus(status, pageable);
         } else {
-            orderPage = orderRepository.findAll(pageable);
+            orderPage = orderRepository.findPageWithEmployee(pageable);
         }
         
+        // Load the items of the whole page in one query instead of one query per order
+        Map<Long, List<OrderItem>> itemsByOrder = loadItemsByOrder(orderPage.getContent());
+        
         List<OrderResponse> orderResponses = orderPage.getContent().stream()
-                .map(order -> {
-                    List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-                    return convertToOrderResponse(order, items);
-                })
+                .map(order -> convertToOrderResponse(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
                 .collect(Collectors.toList());
         
         return new PageImpl<>(orderResponses, pageable, orderPage.getTotalElements());
     }
     
+    /**
+     * Get orders newest first with keyset (cursor) pagination.
+     * Each slice seeks past the (orderDate, id) of the previous one, so deep slices cost
+     * the same as the first and no COUNT runs unless a total is requested.
+     * @param status Optional status filter
+     * @param cursor Token returned with the previous slice, or null for the first slice
+     * @param size Maximum number of orders to return
+     * @param includeTotal Whether to count all matching orders as well
+     * @return Slice of orders with the token for the next slice
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorResponse getOrdersByCursor(String status, String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        
+        boolean filtered = status != null && !status.isEmpty();
+        // Fetch one extra row to know whether another slice follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Order> orders;
+        
+        if (cursor == null || cursor.isEmpty()) {
+            orders = filtered
+                    ? orderRepository.findFirstSliceByStatus(status, limit)
+                    : orderRepository.findFirstSlice(limit);
+        } else {
+            OrderCursor position = decodeCursor(cursor);
+            orders = filtered
+                    ? orderRepository.findSliceByStatusAfter(status, position.orderDate(), position.id(), limit)
+                    : orderRepository.findSliceAfter(position.orderDate(), position.id(), limit);
+        }
+        
+        boolean hasMore = orders.size() > size;
+        if (hasMore) {
+            orders = orders.subList(0, size);
+        }
+        
+        Map<Long, List<OrderItem>> itemsByOrder = loadItemsByOrder(orders);
+        List<OrderResponse> orderResponses = orders.stream()
+                .map(order -> convertToOrderResponse(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
+                .collect(Collectors.toList());
+        
+        Long totalElements = null;
+        if (includeTotal) {
+            totalElements = filtered ? orderRepository.countByStatus(status) : orderRepository.count();
+        }
+        
+        Order last = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+        return OrderCursorResponse.builder()
+                .orders(orderResponses)
+                .nextCursor(hasMore ? encodeCursor(last) : null)
+                .hasMore(hasMore)
+                .totalElements(totalElements)
+                .build();
+    }
+    
     /**
      * Update order status
      * @param id Order ID
@@ -171,7 +349,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderResponse updateOrderStatus(Long id, UpdateOrderStatusRequest request) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findDetailedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
         
         // Validate status
@@ -180,12 +358,30 @@ public class OrderServiceImpl implements OrderService {
             throw new BadRequestException("Invalid status. Must be one of: PENDING, PROCESSING, COMPLETED, CANCELLED");
         }
         
+        String oldStatus = order.getStatus();
+        boolean wasCompleted = "COMPLETED".equalsIgnoreCase(oldStatus);
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
         
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(id);
+        // Keep the sales cube to completed orders only
+        if (!wasCompleted && "COMPLETED".equals(newStatus)) {
+            salesCubeService.orderCompleted(updatedOrder);
+        } else if (wasCompleted && !"COMPLETED".equals(newStatus)) {
+            salesCubeService.completionReverted(updatedOrder);
+        }
+        
+        // Only pending orders expire
+        if ("PENDING".equals(newStatus)) {
+            orderExpiryService.scheduleExpiry(updatedOrder.getId(), updatedOrder.getOrderDate());
+        } else {
+            orderExpiryService.cancelExpiry(updatedOrder.getId());
+        }
+        dailyReportService.markOrderChanged(updatedOrder.getOrderDate());
+        dashboardStatsService.orderChanged(oldStatus, newStatus, updatedOrder.getOrderDate(), updatedOrder.getTotalAmount());
         
-        return convertToOrderResponse(updatedOrder, orderItems);
+        OrderResponse response = convertToOrderResponse(updatedOrder, updatedOrder.getOrderItems());
+        orderEventService.publishStatusChanged(response);
+        return response;
     }
     
     /**
@@ -199,15 +395,257 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
         
+        if ("COMPLETED".equalsIgnoreCase(order.getStatus())) {
+            salesCubeService.completionReverted(order);
+        }
+        
         // Delete order items first
         orderItemRepository.deleteByOrderId(id);
         
         // Delete order
         orderRepository.delete(order);
+        orderExpiryService.cancelExpiry(id);
+        orderEventService.publishDeleted(id);
+        dailyReportService.markOrderChanged(order.getOrderDate());
+        dashboardStatsService.orderChanged(order.getStatus(), null, order.getOrderDate(), order.getTotalAmount());
         
         return new MessageResponse("Order deleted successfully");
     }
     
+    /**
+     * Sum the quantities of line items per product, keeping the order of first appearance
+     * @param items Order line items
+     * @return Ordered quantity keyed by product ID
+     */
+    private Map<Long, Integer> mergeQuantities(List<OrderItemRequest> items) {
+        Map<Long, Integer> quantityByProduct = new LinkedHashMap<>();
+        for (OrderItemRequest itemRequest : items) {
+            quantityByProduct.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        return quantityByProduct;
+    }
+    
+    /**
+     * Sum ingredient demands into the stock change they cause
+     * @param demands Ingredient demand of each order, keyed by ingredient ID
+     * @return Negative stock change keyed by ingredient ID
+     */
+    private static Map<Long, BigDecimal> stockTaken(List<Map<Long, BigDecimal>> demands) {
+        Map<Long, BigDecimal> taken = new HashMap<>();
+        demands.forEach(demand -> demand.forEach((id, quantity) -> taken.merge(id, quantity.negate(), BigDecimal::add)));
+        return taken;
+    }
+    
+    /**
+     * Load the given products in a single query and check that each one is available
+     * @param productIds Product IDs referenced by the order
+     * @return Products keyed by ID
+     */
+    private Map<Long, Product> loadAvailableProducts(Collection<Long> productIds) {
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        requireAvailableProducts(productIds, products);
+        return products;
+    }
+    
+    /**
+     * Check that each product exists and is available
+     * @param productIds Product IDs referenced by the order
+     * @param products Loaded products keyed by ID
+     */
+    private void requireAvailableProducts(Collection<Long> productIds, Map<Long, Product> products) {
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            
+            // Check if product is available
+            if (!"Available".equalsIgnoreCase(product.getStatus())) {
+                throw new BadRequestException("Product '" + product.getName() + "' is not available");
+            }
+        }
+    }
+    
+    /**
+     * Load the recipe rows, with their ingredients, of several products in a single query
+     * @param productIds Product IDs
+     * @return Recipe rows keyed by product ID
+     */
+    private Map<Long, List<ProductIngredient>> loadRecipes(Collection<Long> productIds) {
+        return productIngredientRepository.findByProductIdInWithIngredient(productIds).stream()
+                .collect(Collectors.groupingBy(pi -> pi.getProduct().getId()));
+    }
+    
+    /**
+     * Sum the ingredient quantities required by a set of product quantities
+     * @param quantityByProduct Ordered quantity keyed by product ID
+     * @param recipes Recipe rows keyed by product ID
+     * @param demandByIngredient Output: required quantity keyed by ingredient ID
+     * @param ingredients Output: ingredient entities keyed by ID
+     */
+    private void aggregateIngredientDemand(Map<Long, Integer> quantityByProduct,
+                                           Map<Long, List<ProductIngredient>> recipes,
+                                           Map<Long, BigDecimal> demandByIngredient,
+                                           Map<Long, Ingredient> ingredients) {
+        quantityByProduct.forEach((productId, quantity) -> {
+            for (ProductIngredient pi : recipes.getOrDefault(productId, List.of())) {
+                Ingredient ingredient = pi.getIngredient();
+                BigDecimal requiredQuantity = pi.getQuantityRequired().multiply(BigDecimal.valueOf(quantity));
+                
+                demandByIngredient.merge(ingredient.getId(), requiredQuantity, BigDecimal::add);
+                ingredients.putIfAbsent(ingredient.getId(), ingredient);
+            }
+        });
+    }
+    
+    /**
+     * Build a new pending order with one item per request line and its total amount
+     * @param employee Employee creating the order
+     * @param request Order creation request
+     * @param products Products referenced by the request, keyed by ID
+     * @return Unsaved order
+     */
+    private Order buildOrder(Employee employee, CreateOrderRequest request, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setEmployee(employee);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus("PENDING");
+        order.setClientOrderId(request.getClientOrderId());
+        
+        // Calculate total amount and build order items
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            Product product = products.get(itemRequest.getProductId());
+            
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(product);
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setPrice(product.getPrice());
+            
+            // Calculate subtotal
+            BigDecimal subtotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            totalAmount = totalAmount.add(subtotal);
+            
+            order.getOrderItems().add(orderItem);
+        }
+        
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+    
+    /**
+     * Load the items, with their products, of several orders in a single query
+     * @param orders Orders to load items for
+     * @return Order items keyed by order ID
+     */
+    private Map<Long, List<OrderItem>> loadItemsByOrder(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+        
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        return orderItemRepository.findByOrderIdInWithProduct(orderIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+    }
+    
+    /**
+     * Save a chunk of validated orders with one summed stock deduction
+     * @param chunk Validated orders
+     * @param products Products of the batch keyed by ID
+     * @param ingredients Ingredients of the batch keyed by ID
+     * @return Created orders, in chunk order
+     */
+    private List<OrderResponse> saveChunk(List<PreparedOrder> chunk, Map<Long, Product> products,
+                                          Map<Long, Ingredient> ingredients) {
+        List<OrderDemand> orderDemands = chunk.stream()
+                .map(p -> new OrderDemand(buildOrder(p.employee(), p.request(), products), p.demandByIngredient()))
+                .toList();
+        ingredientStockService.deductForOrders(orderDemands, ingredients);
+        
+        List<Order> savedOrders = orderRepository.saveAll(orderDemands.stream().map(OrderDemand::order).toList());
+        savedOrders.forEach(order -> {
+            orderExpiryService.scheduleExpiry(order.getId(), order.getOrderDate());
+            dailyReportService.markOrderChanged(order.getOrderDate());
+            dashboardStatsService.orderChanged(null, order.getStatus(), order.getOrderDate(), order.getTotalAmount());
+        });
+        lowStockService.stockAdjusted(stockTaken(orderDemands.stream().map(OrderDemand::demandByIngredient).toList()));
+        List<OrderResponse> responses = savedOrders.stream()
+                .map(order -> convertToOrderResponse(order, order.getOrderItems()))
+                .collect(Collectors.toList());
+        responses.forEach(orderEventService::publishCreated);
+        return responses;
+    }
+    
+    /**
+     * Save one validated order in its own transaction
+     * @param order Validated order
+     * @param products Products of the batch keyed by ID
+     * @param ingredients Ingredients of the batch keyed by ID
+     * @return Outcome of the order
+     */
+    private OrderBatchResultResponse saveAlone(PreparedOrder order, Map<Long, Product> products,
+                                               Map<Long, Ingredient> ingredients) {
+        try {
+            List<OrderResponse> created = transactionTemplate.execute(status -> saveChunk(List.of(order), products, ingredients));
+            return createdResult(created.get(0));
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the same client order ID concurrently
+            return failedResult(order.request().getClientOrderId(), "Order with this client order ID already exists");
+        } catch (RuntimeException e) {
+            return failedResult(order.request().getClientOrderId(), e.getMessage());
+        }
+    }
+    
+    private OrderBatchResultResponse createdResult(OrderResponse order) {
+        return OrderBatchResultResponse.builder()
+                .clientOrderId(order.getClientOrderId())
+                .status("CREATED")
+                .order(order)
+                .build();
+    }
+    
+    private OrderBatchResultResponse failedResult(String clientOrderId, String error) {
+        return OrderBatchResultResponse.builder()
+                .clientOrderId(clientOrderId)
+                .status("FAILED")
+                .error(error)
+                .build();
+    }
+    
+    private int countResults(List<OrderBatchResultResponse> results, String status) {
+        return (int) results.stream().filter(result -> status.equals(result.getStatus())).count();
+    }
+    
+    /**
+     * Encode the position of an order as an opaque, URL-safe cursor token
+     * @param order Last order of a slice
+     * @return Cursor token
+     */
+    private String encodeCursor(Order order) {
+        String position = order.getOrderDate() + "|" + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a cursor token produced by encodeCursor
+     * @param cursor Cursor token
+     * @return Order position the token points at
+     */
+    private OrderCursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new OrderCursor(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+    
     /**
      * Convert Order entity to OrderResponse DTO
      * @param order Order entity
@@ -233,7 +671,21 @@ public class OrderServiceImpl implements OrderService {
                 .orderDate(order.getOrderDate())
                 .totalAmount(order.getTotalAmount())
                 .status(order.getStatus())
+                .clientOrderId(order.getClientOrderId())
                 .items(itemResponses)
                 .build();
     }
+    
+    /**
+     * Validated order of a batch, waiting to be saved
+     */
+    private record PreparedOrder(int index, CreateOrderRequest request, Employee employee,
+                                 Map<Long, BigDecimal> demandByIngredient) {
+    }
+    
+    /**
+     * Keyset position of an order: the sort key of order listings
+     */
+    private record OrderCursor(LocalDateTime orderDate, Long id) {
+    }
 }
@@ -0,0 +1,153 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.ProductCostService;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product Cost Service Implementation
+ * Unit costs are kept as longs in ten-thousandths: quantities and prices both have two decimals,
+ * so every cost is exact at four. A reverse index from ingredient to the products whose recipes
+ * use it limits a price change to the products it affects. Reads are a single map lookup;
+ * a load that overlaps an invalidation is discarded, so a stale cost is never cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductCostServiceImpl implements ProductCostService {
+
+    private static final int COST_SCALE = 4;
+
+    private final ProductIngredientRepository productIngredientRepository;
+    private final DataVersionService dataVersionService;
+
+    private final Map<Long, Long> unitCosts = new ConcurrentHashMap<>();
+
+    // Recipe links of the cached products, both guarded by this service's monitor
+    private final Map<Long, Set<Long>> productsByIngredient = new HashMap<>();
+    private final Map<Long, Set<Long>> ingredientsByProduct = new HashMap<>();
+    private long invalidations;
+
+    @Override
+    public BigDecimal getUnitCost(Long productId) {
+        return getUnitCosts(List.of(productId)).get(productId);
+    }
+
+    @Override
+    public Map<Long, BigDecimal> getUnitCosts(Collection<Long> productIds) {
+        Map<Long, BigDecimal> costs = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long productId : productIds) {
+            Long cost = unitCosts.get(productId);
+            if (cost != null) {
+                costs.put(productId, BigDecimal.valueOf(cost, COST_SCALE));
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(missing).forEach((productId, cost) -> costs.put(productId, BigDecimal.valueOf(cost, COST_SCALE)));
+        }
+        return costs;
+    }
+
+    @Override
+    public void recipeChanged(Long productId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                invalidations++;
+                forget(productId);
+            }
+            dataVersionService.dataChanged(Scope.REPORTS);
+        });
+    }
+
+    @Override
+    public void priceChanged(Long ingredientId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                invalidations++;
+                Set<Long> affected = productsByIngredient.remove(ingredientId);
+                if (affected != null) {
+                    List.copyOf(affected).forEach(this::forget);
+                }
+            }
+            dataVersionService.dataChanged(Scope.REPORTS);
+        });
+    }
+
+    /**
+     * Compute the unit cost of products from their recipes and cache it
+     * @return Unit cost in ten-thousandths by product ID
+     */
+    private Map<Long, Long> load(Set<Long> productIds) {
+        long loadedAt;
+        synchronized (this) {
+            loadedAt = invalidations;
+        }
+
+        Map<Long, BigDecimal> costs = new HashMap<>();
+        Map<Long, Set<Long>> recipes = new HashMap<>();
+        for (Long productId : productIds) {
+            costs.put(productId, BigDecimal.ZERO);
+            recipes.put(productId, new HashSet<>());
+        }
+        for (Object[] row : productIngredientRepository.findCostLinesByProductIdIn(productIds)) {
+            Long productId = (Long) row[0];
+            BigDecimal lineCost = ((BigDecimal) row[2]).multiply((BigDecimal) row[3]);
+            costs.merge(productId, lineCost, BigDecimal::add);
+            recipes.get(productId).add((Long) row[1]);
+        }
+
+        Map<Long, Long> loaded = new HashMap<>();
+        costs.forEach((productId, cost) ->
+                loaded.put(productId, cost.setScale(COST_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact()));
+
+        synchronized (this) {
+            // A recipe or price changed while the recipes were read; serve the result but do not keep it
+            if (invalidations == loadedAt) {
+                loaded.forEach((productId, cost) -> {
+                    forget(productId);
+                    unitCosts.put(productId, cost);
+                    ingredientsByProduct.put(productId, recipes.get(productId));
+                    recipes.get(productId).forEach(ingredientId ->
+                            productsByIngredient.computeIfAbsent(ingredientId, id -> new HashSet<>()).add(productId));
+                });
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop a product's cost and its recipe links; caller holds the monitor
+     */
+    private void forget(Long productId) {
+        unitCosts.remove(productId);
+        Set<Long> ingredientIds = ingredientsByProduct.remove(productId);
+        if (ingredientIds == null) {
+            return;
+        }
+        for (Long ingredientId : ingredientIds) {
+            Set<Long> products = productsByIngredient.get(ingredientId);
+            if (products != null) {
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    productsByIngredient.remove(ingredientId);
+                }
+            }
+        }
+    }
+}
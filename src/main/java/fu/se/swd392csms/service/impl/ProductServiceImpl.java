@@ -11,7 +11,10 @@ import fu.se.swd392csms.exception.ResourceNotFoundException;
 import fu.se.swd392csms.repository.IngredientRepository;
 import fu.se.swd392csms.repository.ProductIngredientRepository;
 import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.ProductCostService;
 import fu.se.swd392csms.service.ProductService;
+import fu.se.swd392csms.service.SalesCubeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,6 +44,15 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private IngredientRepository ingredientRepository;
     
+    @Autowired
+    private ProductCostService productCostService;
+    
+    @Autowired
+    private SalesCubeService salesCubeService;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
     @Override
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable)
@@ -92,6 +104,7 @@ public class ProductServiceImpl implements ProductService {
                 .build();
         
         Product savedProduct = productRepository.save(product);
+        dashboardStatsService.productsChanged(1);
         
         // Save product ingredients if provided
         if (request.getProductIngredients() != null && !request.getProductIngredients().isEmpty()) {
@@ -132,6 +145,7 @@ public class ProductServiceImpl implements ProductService {
         product.setDescription(request.getDescription());
         
         Product updatedProduct = productRepository.save(product);
+        salesCubeService.productChanged(id, updatedProduct.getName(), updatedProduct.getCategory());
         
         // Update product ingredients
         if (request.getProductIngredients() != null) {
@@ -151,6 +165,7 @@ public class ProductServiceImpl implements ProductService {
                 
                 productIngredientRepository.save(productIngredient);
             }
+            productCostService.recipeChanged(id);
         }
         
         return convertToResponse(updatedProduct);
@@ -163,6 +178,8 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         
         productRepository.delete(product);
+        dashboardStatsService.productsChanged(-1);
+        productCostService.recipeChanged(id);
         return new MessageResponse("Product deleted successfully");
     }
     
@@ -0,0 +1,131 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.exception.TooManyRequestsException;
+import fu.se.swd392csms.repository.IngredientTransactionRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.service.ReportExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Report Export Service Implementation
+ * Rows are read through a forward-only cursor as plain values, so nothing is kept in the
+ * persistence context, and written to the response as they arrive.
+ * Each running export keeps a connection, so at most reports.export.max-concurrent run at once and
+ * the rest of the pool stays free for orders.
+ */
+@Service
+public class ReportExportServiceImpl implements ReportExportService {
+
+    private static final String ORDER_HEADER = "id,order_date,status,total_amount,employee,client_order_id";
+    private static final String TRANSACTION_HEADER =
+            "id,transaction_date,ingredient,unit,type,quantity,price_per_unit,supplier,employee,note";
+
+    private final OrderRepository orderRepository;
+    private final IngredientTransactionRepository transactionRepository;
+    private final Semaphore slots;
+
+    public ReportExportServiceImpl(OrderRepository orderRepository,
+                                   IngredientTransactionRepository transactionRepository,
+                                   @Value("${reports.export.max-concurrent:2}") int maxConcurrent) {
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public void acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports are running, please try again later");
+        }
+    }
+
+    @Override
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = orderRepository.streamForExport(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+            return write(ORDER_HEADER, rows, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransactions(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = transactionRepository.streamForExport(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+            return write(TRANSACTION_HEADER, rows, out);
+        }
+    }
+
+    /**
+     * Write a header line and one line per row
+     */
+    private static long write(String header, Stream<Object[]> rows, OutputStream out) throws IOException {
+        // Not closed, so the caller can still finish a compressed stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(header);
+        writer.write("\r\n");
+        long count = 0;
+        for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); count++) {
+            Object[] row = it.next();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(writer, row[i]);
+            }
+            writer.write("\r\n");
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Write one field, quoting it when it contains a separator, quote or line break (RFC 4180).
+     * Text starting with =, +, -, @, a tab or a carriage return is prefixed with an apostrophe, so a spreadsheet
+     * does not run it as a formula; numbers are written as they are.
+     */
+    private static void writeField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (value instanceof String && isFormula(text)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean isFormula(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
@@ -0,0 +1,106 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.ResponseCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Response Cache Service Implementation
+ * The ETag is built from the scope version, an ID of this run and a hash of the request, so checking
+ * it costs one counter read. The version is read before the body is built, which makes a cached body
+ * at least as new as its version. Bodies of older versions are dropped once the cache is full.
+ */
+@Service
+public class ResponseCacheServiceImpl implements ResponseCacheService {
+
+    // Clients must revalidate every time, and shared caches must not store the responses
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private static final String CACHE_KEY_ATTRIBUTE = ResponseCacheServiceImpl.class.getName() + ".KEY";
+
+    private final DataVersionService dataVersionService;
+    private final int maxEntries;
+
+    // Versions restart at zero, so tags of an earlier run must never match
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, CachedBody> bodies = new ConcurrentHashMap<>();
+
+    public ResponseCacheServiceImpl(DataVersionService dataVersionService,
+                                    @Value("${http.response-cache.max-entries:256}") int maxEntries) {
+        this.dataVersionService = dataVersionService;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public boolean checkNotModified(Scope scope, ServletWebRequest request) {
+        long version = dataVersionService.version(scope);
+        HttpServletRequest servletRequest = request.getRequest();
+        String query = servletRequest.getQueryString();
+        // Today's date is part of the key because default date ranges and today's figures move with it
+        String key = scope + ":" + version + ":" + LocalDate.now() + ":" + servletRequest.getRequestURI()
+                + (query == null ? "" : "?" + query);
+        String etag = "\"" + scope.name().toLowerCase(Locale.ROOT) + "-" + runId + "-" + version + "-"
+                + Integer.toHexString(key.hashCode()) + "\"";
+
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        request.setAttribute(CACHE_KEY_ATTRIBUTE, new CacheKey(scope, version, key), RequestAttributes.SCOPE_REQUEST);
+        return request.checkNotModified(etag);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T cachedBody(ServletWebRequest request, Supplier<T> body) {
+        CacheKey cacheKey = (CacheKey) request.getAttribute(CACHE_KEY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cacheKey == null) {
+            throw new IllegalStateException("checkNotModified must be called before cachedBody");
+        }
+        CachedBody cached = bodies.get(cacheKey.key());
+        if (cached == null) {
+            cached = new CachedBody(cacheKey.scope(), cacheKey.version(), body.get());
+            if (bodies.size() >= maxEntries) {
+                evict();
+            }
+            bodies.put(cacheKey.key(), cached);
+        }
+        return (T) cached.body();
+    }
+
+    /**
+     * Drop bodies of superseded versions, or everything if all are current
+     */
+    private void evict() {
+        bodies.values().removeIf(cached -> cached.version() != dataVersionService.version(cached.scope()));
+        if (bodies.size() >= maxEntries) {
+            bodies.clear();
+        }
+    }
+
+    /**
+     * Cache key of a request and the version it was checked against
+     */
+    private record CacheKey(Scope scope, long version, String key) {
+    }
+
+    /**
+     * Response body and the version it was built for
+     */
+    private record CachedBody(Scope scope, long version, Object body) {
+    }
+}
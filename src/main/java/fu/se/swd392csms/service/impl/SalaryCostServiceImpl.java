@@ -0,0 +1,68 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.repository.SalaryRepository;
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.SalaryCostService;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Salary Cost Service Implementation
+ * Caches the daily salary cost per month. SalaryChangeListener reports every salary written through
+ * JPA, and a total read while that month was changing is not cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalaryCostServiceImpl implements SalaryCostService {
+
+    private final SalaryRepository salaryRepository;
+    private final DataVersionService dataVersionService;
+
+    private final Map<YearMonth, BigDecimal> dailyCosts = new ConcurrentHashMap<>();
+    private long invalidations;
+
+    @Override
+    public BigDecimal getDailySalaryCost(YearMonth month) {
+        BigDecimal cached = dailyCosts.get(month);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAt;
+        synchronized (this) {
+            loadedAt = invalidations;
+        }
+        Double totalMonthSalary = salaryRepository.getTotalSalaryPaid(month.getMonthValue(), month.getYear());
+        BigDecimal dailyCost = totalMonthSalary == null || totalMonthSalary == 0
+                ? BigDecimal.ZERO
+                : BigDecimal.valueOf(totalMonthSalary)
+                        .divide(BigDecimal.valueOf(month.lengthOfMonth()), 2, RoundingMode.HALF_UP);
+
+        synchronized (this) {
+            if (invalidations == loadedAt) {
+                dailyCosts.put(month, dailyCost);
+            }
+        }
+        return dailyCost;
+    }
+
+    @Override
+    public void salariesChanged(Integer month, Integer year) {
+        YearMonth changed = YearMonth.of(year, month);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                invalidations++;
+                dailyCosts.remove(changed);
+            }
+            dataVersionService.dataChanged(Scope.REPORTS);
+        });
+    }
+}
@@ -23,6 +23,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -55,21 +57,29 @@ public class SalaryServiceImpl implements SalaryService {
                 })
                 .collect(Collectors.toList());
         
-        List<SalaryResponse> createdSalaries = new ArrayList<>();
+        List<Salary> newSalaries = new ArrayList<>();
+        
+        // Employees whose salary for the month already exists, loaded once instead of one lookup per employee
+        Set<Long> alreadyCalculated = salaryRepository.findByMonthAndYear(month, year).stream()
+                .map(s -> s.getEmployee().getId())
+                .collect(Collectors.toSet());
         
         // Calculate date range for the month
         LocalDate startDate = LocalDate.of(year, month, 1);
         LocalDate endDate = startDate.plusMonths(1).minusDays(1);
         
+        // Attendance of the whole month in one query, grouped per employee
+        Map<Long, List<Attendance>> attendanceByEmployee = attendanceRepository.findByDateBetween(startDate, endDate).stream()
+                .collect(Collectors.groupingBy(a -> a.getEmployee().getId()));
+        
         for (Employee employee : activeEmployees) {
             // Check if salary already exists for this employee, month, and year
-            if (salaryRepository.findByEmployeeIdAndMonthAndYear(employee.getId(), month, year).isPresent()) {
+            if (alreadyCalculated.contains(employee.getId())) {
                 continue; // Skip if already calculated
             }
             
             // Get attendance records for the month
-            List<Attendance> attendances = attendanceRepository.findByEmployeeIdAndDateBetween(
-                    employee.getId(), startDate, endDate);
+            List<Attendance> attendances = attendanceByEmployee.getOrDefault(employee.getId(), List.of());
             
             // Calculate total working hours, overtime, and count absent days
             BigDecimal totalWorkingHours = BigDecimal.ZERO;
@@ -130,11 +140,13 @@ public class SalaryServiceImpl implements SalaryService {
                     .notes("Auto-calculated based on attendance")
                     .build();
             
-            Salary saved = salaryRepository.save(salary);
-            createdSalaries.add(convertToResponse(saved));
+            newSalaries.add(salary);
         }
         
-        return createdSalaries;
+        // Inserted together so Hibernate sends them as JDBC batches
+        return salaryRepository.saveAll(newSalaries).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
     }
     
     @Override
@@ -275,10 +287,9 @@ public class SalaryServiceImpl implements SalaryService {
     @Override
     @Transactional
     public void deleteSalary(Long id) {
-        if (!salaryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Salary", "id", id);
-        }
-        salaryRepository.deleteById(id);
+        Salary salary = salaryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Salary", "id", id));
+        salaryRepository.delete(salary);
     }
     
     @Override
@@ -0,0 +1,336 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.analytics.SalesCube;
+import fu.se.swd392csms.dto.response.SalesHeatmapResponse;
+import fu.se.swd392csms.dto.response.TopProductsResponse;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.OrderItem;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.repository.OrderItemRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.DataVersionService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.SalesCubeService;
+import fu.se.swd392csms.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Sales Cube Service Implementation
+ * Holds the last reports.heatmap.days days of completed sales in a SalesCube. The cube is filled
+ * from one grouped query at startup and then only changed after commits that complete an order
+ * or take a completed order back, so heatmap requests never reach the database.
+ */
+@Slf4j
+@Service
+public class SalesCubeServiceImpl implements SalesCubeService, SmartInitializingSingleton {
+
+    private static final String GROUP_BY_DATE = "date";
+    private static final String GROUP_BY_WEEKDAY = "weekday";
+    private static final String GROUP_BY_NONE = "none";
+    private static final int MAX_TOP_PRODUCTS = 50;
+
+    // Best seller first: more sold, then more revenue, then the lower product ID
+    private static final Comparator<long[]> RANKING = Comparator.<long[]>comparingLong(totals -> -totals[1])
+            .thenComparingLong(totals -> -totals[2])
+            .thenComparingLong(totals -> totals[0]);
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final DataVersionService dataVersionService;
+    private final SalesCube cube;
+    private final Map<Long, ProductInfo> products = new ConcurrentHashMap<>();
+
+    public SalesCubeServiceImpl(OrderItemRepository orderItemRepository,
+                                ProductRepository productRepository,
+                                DataVersionService dataVersionService,
+                                @Value("${reports.heatmap.days:120}") int days,
+                                @Value("${reports.heatmap.initial-products:64}") int initialProducts) {
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+        this.dataVersionService = dataVersionService;
+        this.cube = new SalesCube(days, initialProducts);
+    }
+
+    /**
+     * Fill the cube from the completed orders of the retention window
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replace the cube contents with the completed orders of the retention window
+     */
+    public void rebuild() {
+        for (Object[] row : productRepository.findNamesAndCategories()) {
+            products.put((Long) row[0], new ProductInfo((String) row[1], (String) row[2]));
+        }
+        LocalDate firstDay = LocalDate.now().minusDays(cube.days() - 1);
+        List<Object[]> cells = orderItemRepository.summarizeCompletedByDayHourProduct(firstDay.atStartOfDay());
+        cube.clear();
+        for (Object[] row : cells) {
+            cube.add(((LocalDate) row[0]).toEpochDay(), ((Number) row[1]).intValue(), (Long) row[2],
+                    ((Number) row[3]).longValue(), toCents((BigDecimal) row[4]));
+        }
+        dataVersionService.dataChanged(Scope.REPORTS);
+        log.info("[SalesCube] Loaded {} cell(s) of sales since {}", cells.size(), firstDay);
+    }
+
+    @Override
+    public void orderCompleted(Order order) {
+        record(order, 1);
+    }
+
+    @Override
+    public void completionReverted(Order order) {
+        record(order, -1);
+    }
+
+    @Override
+    public void productChanged(Long productId, String name, String category) {
+        ProductInfo info = new ProductInfo(name, category);
+        AfterCommit.run(() -> {
+            products.put(productId, info);
+            dataVersionService.dataChanged(Scope.REPORTS);
+        });
+    }
+
+    @Override
+    public SalesHeatmapResponse getHeatmap(LocalDate startDate, LocalDate endDate, String category, Long productId,
+                                           String groupBy) {
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        String grouping = groupBy == null ? GROUP_BY_DATE : groupBy.toLowerCase();
+        if (!grouping.matches(GROUP_BY_DATE + "|" + GROUP_BY_WEEKDAY + "|" + GROUP_BY_NONE)) {
+            throw new BadRequestException("Invalid groupBy. Must be one of: date, weekday, none");
+        }
+        // Days before the window are not loaded at startup, so they are never reported
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusDays(cube.days() - 1);
+        LocalDate from = startDate.isBefore(windowStart) ? windowStart : startDate;
+
+        long[] hourQuantities = new long[SalesCube.HOURS];
+        long[] hourCents = new long[SalesCube.HOURS];
+        Map<Long, Totals> rowTotals = new HashMap<>();
+        Map<Long, Totals> productTotals = new HashMap<>();
+        cube.forEach(from.toEpochDay(), endDate.toEpochDay(), productFilter(category, productId),
+                (day, hour, product, quantity, cents) -> {
+                    hourQuantities[hour] += quantity;
+                    hourCents[hour] += cents;
+                    productTotals.computeIfAbsent(product, id -> new Totals()).add(hour, quantity, cents);
+                    if (!GROUP_BY_NONE.equals(grouping)) {
+                        long key = GROUP_BY_DATE.equals(grouping) ? day : LocalDate.ofEpochDay(day).getDayOfWeek().getValue();
+                        rowTotals.computeIfAbsent(key, k -> new Totals()).add(hour, quantity, cents);
+                    }
+                });
+
+        return SalesHeatmapResponse.builder()
+                .startDate(from)
+                .endDate(endDate)
+                .category(category)
+                .productId(productId)
+                .groupBy(grouping)
+                .totalQuantity(Arrays.stream(hourQuantities).sum())
+                .totalRevenue(toAmount(Arrays.stream(hourCents).sum()))
+                .peakHour(peakHour(hourQuantities))
+                .hourQuantities(Arrays.stream(hourQuantities).boxed().toList())
+                .hourRevenue(Arrays.stream(hourCents).mapToObj(SalesCubeServiceImpl::toAmount).toList())
+                .rows(rows(grouping, from, endDate.isAfter(today) ? today : endDate, rowTotals))
+                .products(productSales(productTotals))
+                .build();
+    }
+
+    @Override
+    public TopProductsResponse getTopProducts(String window, int limit) {
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TOP_PRODUCTS);
+        }
+        LocalDate today = LocalDate.now();
+        String name = window == null ? "today" : window.toLowerCase();
+        LocalDate from = switch (name) {
+            case "today" -> today;
+            case "week" -> today.with(DayOfWeek.MONDAY);
+            case "month" -> today.withDayOfMonth(1);
+            default -> throw new BadRequestException("Invalid window. Must be one of: today, week, month");
+        };
+
+        // Keep only the current top `limit` in a min-heap whose head is the weakest of them
+        PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        cube.forEachProduct(from.toEpochDay(), today.toEpochDay(), (productId, quantity, cents) -> {
+            if (quantity <= 0) {
+                return;
+            }
+            top.add(new long[]{productId, quantity, cents});
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<long[]> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+
+        List<TopProductsResponse.TopProduct> products = new ArrayList<>(ranked.size());
+        for (long[] totals : ranked) {
+            ProductInfo info = productInfo(totals[0]);
+            products.add(TopProductsResponse.TopProduct.builder()
+                    .rank(products.size() + 1)
+                    .productId(totals[0])
+                    .productName(info.name())
+                    .category(info.category())
+                    .quantity(totals[1])
+                    .revenue(toAmount(totals[2]))
+                    .build());
+        }
+        return TopProductsResponse.builder()
+                .window(name)
+                .startDate(from)
+                .endDate(today)
+                .products(products)
+                .build();
+    }
+
+    /**
+     * Capture the items of an order now and apply them to the cube after commit
+     * @param order Order with its items
+     * @param sign 1 to add, -1 to remove
+     */
+    private void record(Order order, int sign) {
+        LocalDateTime orderDate = order.getOrderDate();
+        List<long[]> lines = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            BigDecimal amount = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            lines.add(new long[]{item.getProduct().getId(), (long) sign * item.getQuantity(), sign * toCents(amount)});
+            products.putIfAbsent(item.getProduct().getId(),
+                    new ProductInfo(item.getProduct().getName(), item.getProduct().getCategory()));
+        }
+        long day = orderDate.toLocalDate().toEpochDay();
+        int hour = orderDate.getHour();
+        AfterCommit.run(() -> {
+            for (long[] line : lines) {
+                cube.add(day, hour, line[0], line[1], line[2]);
+            }
+            dataVersionService.dataChanged(Scope.REPORTS);
+        });
+    }
+
+    private LongPredicate productFilter(String category, Long productId) {
+        return id -> {
+            if (productId != null && id != productId) {
+                return false;
+            }
+            if (category == null) {
+                return true;
+            }
+            ProductInfo info = products.get(id);
+            return info != null && category.equalsIgnoreCase(info.category());
+        };
+    }
+
+    /**
+     * Build the grid rows: one per date of the range, or one per day of the week
+     */
+    private List<SalesHeatmapResponse.HeatmapRow> rows(String grouping, LocalDate from, LocalDate to,
+                                                       Map<Long, Totals> totals) {
+        List<SalesHeatmapResponse.HeatmapRow> rows = new ArrayList<>();
+        if (GROUP_BY_WEEKDAY.equals(grouping)) {
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                rows.add(totals.getOrDefault((long) dayOfWeek.getValue(), new Totals()).toRow(dayOfWeek.name()));
+            }
+        } else if (GROUP_BY_DATE.equals(grouping)) {
+            for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+                rows.add(totals.getOrDefault(day, new Totals()).toRow(LocalDate.ofEpochDay(day).toString()));
+            }
+        }
+        return rows;
+    }
+
+    private List<SalesHeatmapResponse.ProductSales> productSales(Map<Long, Totals> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> {
+                    ProductInfo info = productInfo(entry.getKey());
+                    Totals product = entry.getValue();
+                    return SalesHeatmapResponse.ProductSales.builder()
+                            .productId(entry.getKey())
+                            .productName(info.name())
+                            .category(info.category())
+                            .quantity(product.quantity)
+                            .revenue(toAmount(product.cents))
+                            .peakHour(peakHour(product.hourQuantities))
+                            .build();
+                })
+                .sorted(Comparator.comparing(SalesHeatmapResponse.ProductSales::getQuantity).reversed())
+                .toList();
+    }
+
+    private ProductInfo productInfo(long productId) {
+        return products.getOrDefault(productId, ProductInfo.UNKNOWN);
+    }
+
+    /**
+     * Get the hour with the highest quantity, or null if nothing was sold
+     */
+    private static Integer peakHour(long[] hourQuantities) {
+        Integer peak = null;
+        for (int hour = 0; hour < hourQuantities.length; hour++) {
+            if (hourQuantities[hour] > 0 && (peak == null || hourQuantities[hour] > hourQuantities[peak])) {
+                peak = hour;
+            }
+        }
+        return peak;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record ProductInfo(String name, String category) {
+        static final ProductInfo UNKNOWN = new ProductInfo(null, null);
+    }
+
+    /**
+     * Running totals of one row or product
+     */
+    private static final class Totals {
+        private final long[] hourQuantities = new long[SalesCube.HOURS];
+        private long quantity;
+        private long cents;
+
+        void add(int hour, long quantity, long cents) {
+            hourQuantities[hour] += quantity;
+            this.quantity += quantity;
+            this.cents += cents;
+        }
+
+        SalesHeatmapResponse.HeatmapRow toRow(String label) {
+            return SalesHeatmapResponse.HeatmapRow.builder()
+                    .label(label)
+                    .quantities(Arrays.stream(hourQuantities).boxed().toList())
+                    .totalQuantity(quantity)
+                    .revenue(toAmount(cents))
+                    .build();
+        }
+    }
+}
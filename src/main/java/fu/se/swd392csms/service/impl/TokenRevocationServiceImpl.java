@@ -0,0 +1,129 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.entity.RevokedToken;
+import fu.se.swd392csms.repository.RevokedTokenRepository;
+import fu.se.swd392csms.security.BloomFilter;
+import fu.se.swd392csms.service.TokenRevocationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Token Revocation Service Implementation
+ * Every revoked ID is put in the Bloom filter before it is stored, so the filter never misses a
+ * stored entry. A lookup that the filter rules out costs a few hash probes; only a possible hit
+ * (a revoked token or a false positive) is confirmed against the revoked_tokens table.
+ * Bloom filters cannot forget, so expired entries leave the filter when it is rebuilt after a purge.
+ * An ID revoked while the filter is being rebuilt goes into both the old and the new filter.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService, SmartInitializingSingleton {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    // Guarded by this; next is only set while a rebuild is loading
+    private volatile BloomFilter filter;
+    private BloomFilter next;
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${security.token-revocation.expected-tokens:100000}") long expectedTokens,
+                                      @Value("${security.token-revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        this.revokedHits = Counter.builder("security.token_revocation.lookups")
+                .description("Bloom filter hits confirmed against the deny-list")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("security.token_revocation.lookups")
+                .description("Bloom filter hits confirmed against the deny-list")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the deny-list at startup
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public void revoke(String tokenId, Date expiresAt) {
+        synchronized (this) {
+            filter.put(tokenId);
+            if (next != null) {
+                next.put(tokenId);
+            }
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        boolean revoked = revokedTokenRepository.existsByTokenIdAndExpiresAtAfter(tokenId, LocalDateTime.now());
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    @Override
+    public int purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        rebuild();
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Replace the filter with one holding the entries that have not expired, sized for at least twice their number
+     */
+    private void rebuild() {
+        List<String> tokenIds;
+        BloomFilter rebuilt;
+        synchronized (this) {
+            if (next != null) {
+                return;
+            }
+            rebuilt = new BloomFilter(Math.max(expectedTokens, 2 * filter.insertions()), falsePositiveRate);
+            next = rebuilt;
+        }
+        try {
+            tokenIds = revokedTokenRepository.findTokenIdsExpiringAfter(LocalDateTime.now());
+            tokenIds.forEach(rebuilt::put);
+            synchronized (this) {
+                filter = rebuilt;
+            }
+            log.info("[TokenRevocation] Loaded {} revoked token(s), {} probes per lookup", tokenIds.size(), rebuilt.hashCount());
+        } finally {
+            synchronized (this) {
+                next = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package fu.se.swd392csms.timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed Timer Wheel
+ * Keeps one deadline per key in a ring of buckets, one bucket per tick. Scheduling and cancelling
+ * are O(1); advancing only looks at the buckets of the ticks that passed. Deadlines further away
+ * than one turn of the wheel share a bucket with nearer ones and are skipped until they are due.
+ * Time is passed in by the caller as epoch milliseconds, so the wheel never reads the clock itself.
+ * @param <K> Key type, e.g. an order ID
+ */
+public class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<Set<K>> buckets;
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+
+    // Next tick whose bucket has not been processed yet
+    private long currentTick;
+
+    /**
+     * @param tickMillis Resolution of the wheel; deadlines fire at most one tick late
+     * @param wheelSize Number of buckets
+     * @param startMillis Time of tick 0
+     */
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Schedule (or reschedule) the deadline of a key
+     * @param key Key
+     * @param deadlineMillis Deadline; a deadline already passed fires on the next advance
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        // Round up so a key never fires before its deadline
+        long tick = Math.max(Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis), currentTick);
+        Long previous = deadlineTicks.put(key, tick);
+        if (previous != null) {
+            bucket(previous).remove(key);
+        }
+        bucket(tick).add(key);
+    }
+
+    /**
+     * Cancel the deadline of a key
+     * @param key Key
+     * @return true if the key had a deadline
+     */
+    public synchronized boolean cancel(K key) {
+        Long tick = deadlineTicks.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        bucket(tick).remove(key);
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given time and remove every key whose deadline has passed
+     * @param nowMillis Current time
+     * @return Expired keys
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+        if (targetTick < currentTick) {
+            return expired;
+        }
+        // After a long pause every bucket is visited once rather than once per missed tick
+        long steps = Math.min(targetTick - currentTick + 1, buckets.size());
+        for (long i = 0; i < steps; i++) {
+            Iterator<K> keys = bucket(currentTick + i).iterator();
+            while (keys.hasNext()) {
+                K key = keys.next();
+                if (deadlineTicks.get(key) <= targetTick) {
+                    keys.remove();
+                    deadlineTicks.remove(key);
+                    expired.add(key);
+                }
+            }
+        }
+        currentTick = targetTick + 1;
+        return expired;
+    }
+
+    /**
+     * Get the number of keys with a deadline
+     */
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    /**
+     * Check whether a key has a deadline
+     */
+    public synchronized boolean contains(K key) {
+        return deadlineTicks.containsKey(key);
+    }
+
+    private Set<K> bucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+}
@@ -0,0 +1,55 @@
+package fu.se.swd392csms.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * After Commit
+ * Defers in-memory changes (caches, counters, timers, events) until the surrounding transaction
+ * commits, so readers never see the effect of a write that is rolled back.
+ * Without an active transaction the change runs immediately.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Run a change once the surrounding transaction commits, or immediately without one
+     * @param onCommit Change to run after commit
+     */
+    public static void run(Runnable onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onCommit.run();
+            }
+        });
+    }
+
+    /**
+     * Run one of two callbacks once the surrounding transaction completes, or the first immediately without one
+     * @param onCommit Runs if the transaction commits
+     * @param onRollback Runs if the transaction rolls back or its outcome is unknown
+     */
+    public static void run(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,135 @@
+-- Move write-heavy tables from IDENTITY columns to pooled sequences
+-- Orders, order items, ingredient transactions, attendance and salaries now take their IDs
+-- from sequences with an increment of 50 (matching allocationSize in the entities),
+-- which lets Hibernate batch their inserts (hibernate.jdbc.batch_size).
+--
+-- Run once, with the application stopped, BEFORE starting the version that uses sequences.
+-- SQL Server cannot drop the IDENTITY property of a column, so each table is switched
+-- (metadata only, no data copy) into an identical table without IDENTITY and renamed back.
+-- Needs SQL Server 2017 or later (STRING_AGG).
+-- Foreign keys on the switched tables are re-created at the end; their other indexes and unique
+-- keys (e.g. the order date indexes and client_order_id on orders) are re-created by Hibernate
+-- (ddl-auto=update) on the next start.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+-- 1. Drop foreign keys that reference the tables being switched
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql = @sql + N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(parent_object_id)) +
+              N' DROP CONSTRAINT ' + QUOTENAME(name) + N';'
+FROM sys.foreign_keys
+WHERE referenced_object_id IN (OBJECT_ID('orders'), OBJECT_ID('salaries'))
+   OR parent_object_id IN (OBJECT_ID('orders'), OBJECT_ID('order_items'), OBJECT_ID('ingredient_transactions'),
+                           OBJECT_ID('attendance'), OBJECT_ID('salaries'));
+EXEC sp_executesql @sql;
+
+-- SWITCH needs the same indexes on both tables, so every index but the primary key is dropped
+SET @sql = N'';
+SELECT @sql = @sql + IIF(i.is_unique_constraint = 1,
+              N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(i.object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(i.name) + N';',
+              N'DROP INDEX ' + QUOTENAME(i.name) + N' ON ' + QUOTENAME(OBJECT_NAME(i.object_id)) + N';')
+FROM sys.indexes i
+WHERE i.object_id IN (OBJECT_ID('orders'), OBJECT_ID('order_items'), OBJECT_ID('ingredient_transactions'),
+                      OBJECT_ID('attendance'), OBJECT_ID('salaries'))
+  AND i.type > 0 AND i.is_primary_key = 0;
+EXEC sp_executesql @sql;
+
+-- 2. Switch every table into a copy without IDENTITY
+-- The copy is generated from the table's own columns and primary key in sys.columns, so it matches
+-- whatever schema ddl-auto=update left behind. Anything the copy would not reproduce stops the migration.
+DECLARE @table SYSNAME, @columns NVARCHAR(MAX), @primaryKey NVARCHAR(MAX);
+DECLARE switched_tables CURSOR LOCAL FAST_FORWARD FOR
+    SELECT name FROM (VALUES ('orders'), ('order_items'), ('ingredient_transactions'),
+                             ('attendance'), ('salaries')) AS t(name);
+OPEN switched_tables;
+FETCH NEXT FROM switched_tables INTO @table;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    IF OBJECT_ID(@table) IS NULL
+        THROW 50000, 'A table to migrate does not exist; start the previous version once so ddl-auto creates it', 1;
+    IF EXISTS (SELECT 1 FROM sys.columns
+               WHERE object_id = OBJECT_ID(@table) AND (is_computed = 1 OR default_object_id <> 0))
+       OR EXISTS (SELECT 1 FROM sys.check_constraints WHERE parent_object_id = OBJECT_ID(@table))
+        THROW 50001, 'A table to migrate has computed columns, defaults or check constraints, which this script does not copy', 1;
+
+    SELECT @columns = STRING_AGG(CAST(QUOTENAME(c.name) + N' ' + ty.name +
+               CASE
+                   WHEN ty.name IN ('varchar', 'char', 'varbinary', 'binary')
+                       THEN N'(' + IIF(c.max_length = -1, N'max', CAST(c.max_length AS NVARCHAR(10))) + N')'
+                   WHEN ty.name IN ('nvarchar', 'nchar')
+                       THEN N'(' + IIF(c.max_length = -1, N'max', CAST(c.max_length / 2 AS NVARCHAR(10))) + N')'
+                   WHEN ty.name IN ('decimal', 'numeric')
+                       THEN N'(' + CAST(c.precision AS NVARCHAR(10)) + N',' + CAST(c.scale AS NVARCHAR(10)) + N')'
+                   WHEN ty.name IN ('datetime2', 'time', 'datetimeoffset')
+                       THEN N'(' + CAST(c.scale AS NVARCHAR(10)) + N')'
+                   ELSE N''
+               END +
+               ISNULL(N' COLLATE ' + c.collation_name, N'') +
+               IIF(c.is_nullable = 1, N' null', N' not null') AS NVARCHAR(MAX)), N', ')
+               WITHIN GROUP (ORDER BY c.column_id)
+    FROM sys.columns c
+    JOIN sys.types ty ON ty.user_type_id = c.user_type_id
+    WHERE c.object_id = OBJECT_ID(@table);
+
+    SELECT @primaryKey = N'primary key ' + MAX(i.type_desc) + N' (' +
+               STRING_AGG(CAST(QUOTENAME(c.name) AS NVARCHAR(MAX)), N', ') WITHIN GROUP (ORDER BY ic.key_ordinal) + N')'
+    FROM sys.indexes i
+    JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id
+    JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+    WHERE i.object_id = OBJECT_ID(@table) AND i.is_primary_key = 1;
+
+    SET @sql = N'CREATE TABLE ' + QUOTENAME(@table + N'_migrating') + N' (' + @columns + N', ' + @primaryKey + N');' +
+               N'ALTER TABLE ' + QUOTENAME(@table) + N' SWITCH TO ' + QUOTENAME(@table + N'_migrating') + N';' +
+               N'DROP TABLE ' + QUOTENAME(@table) + N';';
+    EXEC sp_executesql @sql;
+    SET @sql = @table + N'_migrating';
+    EXEC sp_rename @sql, @table;
+
+    FETCH NEXT FROM switched_tables INTO @table;
+END
+CLOSE switched_tables;
+DEALLOCATE switched_tables;
+
+-- 3. Re-create foreign keys
+ALTER TABLE orders ADD CONSTRAINT FK_orders_employee FOREIGN KEY (employee_id) REFERENCES employees;
+ALTER TABLE order_items ADD CONSTRAINT FK_order_items_order FOREIGN KEY (order_id) REFERENCES orders;
+ALTER TABLE order_items ADD CONSTRAINT FK_order_items_product FOREIGN KEY (product_id) REFERENCES products;
+ALTER TABLE ingredient_transactions ADD CONSTRAINT FK_ingredient_transactions_employee FOREIGN KEY (employee_id) REFERENCES employees;
+ALTER TABLE ingredient_transactions ADD CONSTRAINT FK_ingredient_transactions_ingredient FOREIGN KEY (ingredient_id) REFERENCES ingredients;
+ALTER TABLE attendance ADD CONSTRAINT FK_attendance_employee FOREIGN KEY (employee_id) REFERENCES employees;
+ALTER TABLE salaries ADD CONSTRAINT FK_salaries_employee FOREIGN KEY (employee_id) REFERENCES employees;
+ALTER TABLE salary_updated_history ADD CONSTRAINT FK_salary_updated_history_salary FOREIGN KEY (salary_id) REFERENCES salaries;
+
+-- 4. Create the sequences past the highest existing ID.
+-- The pooled optimizer hands out the 50 values below each sequence value, so start 50 above MAX(id).
+DECLARE @start BIGINT;
+
+SELECT @start = ISNULL(MAX(id), 0) + 51 FROM orders;
+DROP SEQUENCE IF EXISTS orders_seq;
+SET @sql = N'CREATE SEQUENCE orders_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+SELECT @start = ISNULL(MAX(id), 0) + 51 FROM order_items;
+DROP SEQUENCE IF EXISTS order_items_seq;
+SET @sql = N'CREATE SEQUENCE order_items_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+SELECT @start = ISNULL(MAX(id), 0) + 51 FROM ingredient_transactions;
+DROP SEQUENCE IF EXISTS ingredient_transactions_seq;
+SET @sql = N'CREATE SEQUENCE ingredient_transactions_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+SELECT @start = ISNULL(MAX(id), 0) + 51 FROM attendance;
+DROP SEQUENCE IF EXISTS attendance_seq;
+SET @sql = N'CREATE SEQUENCE attendance_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+SELECT @start = ISNULL(MAX(id), 0) + 51 FROM salaries;
+DROP SEQUENCE IF EXISTS salaries_seq;
+SET @sql = N'CREATE SEQUENCE salaries_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+COMMIT TRANSACTION;
+PRINT 'Pooled sequence IDs enabled for orders, order_items, ingredient_transactions, attendance and salaries';
+GO
@@ -0,0 +1,87 @@
+package fu.se.swd392csms.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for SalesCube
+ */
+class SalesCubeTest {
+
+    @Test
+    void cellsAreSummedAndSlicedByDayAndProduct() {
+        SalesCube cube = new SalesCube(7, 2);
+        cube.add(100, 8, 1L, 2, 6000);
+        cube.add(100, 8, 1L, 1, 3000);
+        cube.add(100, 15, 2L, 4, 10000);
+        cube.add(101, 8, 2L, 1, 2500);
+
+        assertEquals(List.of("100/8/1=3:9000", "100/15/2=4:10000", "101/8/2=1:2500"), cells(cube, 0, 200, id -> true));
+        assertEquals(List.of("100/15/2=4:10000", "101/8/2=1:2500"), cells(cube, 0, 200, id -> id == 2L));
+        assertEquals(List.of("101/8/2=1:2500"), cells(cube, 101, 101, id -> true));
+    }
+
+    @Test
+    void newerDaysRecycleTheOldestSlotAndOlderDaysAreDropped() {
+        SalesCube cube = new SalesCube(3, 4);
+        cube.add(10, 9, 1L, 5, 500);
+        cube.add(12, 9, 1L, 1, 100);
+        // Day 13 takes the slot of day 10
+        cube.add(13, 9, 1L, 2, 200);
+
+        assertEquals(11L, cube.firstDay());
+        assertEquals(List.of("12/9/1=1:100", "13/9/1=2:200"), cells(cube, 0, 100, id -> true));
+        assertFalse(cube.add(10, 9, 1L, 5, 500));
+        assertTrue(cube.add(11, 9, 1L, 1, 100));
+    }
+
+    @Test
+    void growingTheProductDimensionKeepsEveryCell() {
+        SalesCube cube = new SalesCube(2, 1);
+        for (long product = 1; product <= 5; product++) {
+            cube.add(1, (int) product, product, product, product * 100);
+            cube.add(2, 23, product, 1, 100);
+        }
+
+        List<String> cells = cells(cube, 1, 2, id -> true);
+        assertEquals(10, cells.size());
+        assertEquals("1/5/5=5:500", cells.get(4));
+        assertEquals("2/23/5=1:100", cells.get(9));
+    }
+
+    @Test
+    void cellsThatCancelOutAreSkipped() {
+        SalesCube cube = new SalesCube(2, 2);
+        cube.add(1, 12, 1L, 3, 9000);
+        cube.add(1, 12, 1L, -3, -9000);
+
+        assertEquals(List.of(), cells(cube, 1, 1, id -> true));
+    }
+
+    @Test
+    void productTotalsSumEveryHourOfTheRange() {
+        SalesCube cube = new SalesCube(7, 2);
+        cube.add(5, 7, 1L, 2, 200);
+        cube.add(6, 18, 1L, 3, 300);
+        cube.add(6, 9, 2L, 1, 150);
+        cube.add(7, 9, 2L, 4, 600);
+
+        List<String> totals = new ArrayList<>();
+        cube.forEachProduct(5, 6, (product, quantity, cents) -> totals.add(product + "=" + quantity + ":" + cents));
+        assertEquals(List.of("1=5:500", "2=1:150"), totals);
+    }
+
+    private static List<String> cells(SalesCube cube, long from, long to, LongPredicate filter) {
+        List<String> cells = new ArrayList<>();
+        cube.forEach(from, to, filter, (day, hour, product, quantity, cents) ->
+                cells.add(day + "/" + hour + "/" + product + "=" + quantity + ":" + cents));
+        return cells;
+    }
+}
@@ -0,0 +1,87 @@
+package fu.se.swd392csms.controller;
+
+import fu.se.swd392csms.dto.response.DashboardStatsResponse;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.DataVersionService.Scope;
+import fu.se.swd392csms.service.impl.DataVersionServiceImpl;
+import fu.se.swd392csms.service.impl.ResponseCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for conditional GETs of the dashboard stats through ResponseCacheServiceImpl
+ */
+class DashboardControllerCacheTest {
+
+    private DashboardStatsService dashboardStatsService;
+    private DataVersionServiceImpl dataVersionService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        dashboardStatsService = Mockito.mock(DashboardStatsService.class);
+        Mockito.when(dashboardStatsService.getStats()).thenAnswer(invocation -> DashboardStatsResponse.builder()
+                .totalOrders(3)
+                .todayRevenue(new BigDecimal("105000.00"))
+                .build());
+        dataVersionService = new DataVersionServiceImpl();
+        ResponseCacheServiceImpl responseCacheService =
+                new ResponseCacheServiceImpl(dataVersionService, 16);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DashboardController(dashboardStatsService, responseCacheService))
+                .build();
+    }
+
+    @Test
+    void unchangedStatsAreRevalidatedWithoutBeingRebuilt() throws Exception {
+        String etag = mockMvc.perform(get("/api/dashboard/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalOrders").value(3))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/dashboard/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().bytes(new byte[0]));
+
+        // Another tab without the tag gets the cached body
+        mockMvc.perform(get("/api/dashboard/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        Mockito.verify(dashboardStatsService, Mockito.times(1)).getStats();
+    }
+
+    @Test
+    void aDataChangeMovesTheTag() throws Exception {
+        String etag = mockMvc.perform(get("/api/dashboard/stats"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        dataVersionService.dataChanged(Scope.REPORTS);
+        mockMvc.perform(get("/api/dashboard/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        dataVersionService.dataChanged(Scope.DASHBOARD);
+        String changed = mockMvc.perform(get("/api/dashboard/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.todayRevenue").value(105000.00))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, changed);
+        Mockito.verify(dashboardStatsService, Mockito.times(2)).getStats();
+    }
+}
@@ -0,0 +1,125 @@
+package fu.se.swd392csms.controller;
+
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.service.OrderIdempotencyService;
+import fu.se.swd392csms.service.OrderService;
+import fu.se.swd392csms.service.impl.OrderEventServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests for the order board stream of OrderController
+ */
+class OrderControllerStreamTest {
+
+    private static final Pattern EVENT = Pattern.compile("id:(\\S+)\\nevent:order\\ndata:(.*)\\n");
+
+    private OrderEventServiceImpl orderEventService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        orderEventService = new OrderEventServiceImpl();
+        ReflectionTestUtils.setField(orderEventService, "bufferSize", 16);
+        ReflectionTestUtils.setField(orderEventService, "replaySize", 3);
+        ReflectionTestUtils.setField(orderEventService, "timeoutMs", 60_000L);
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(Mockito.mock(OrderService.class),
+                Mockito.mock(OrderIdempotencyService.class), orderEventService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventService.shutdown();
+    }
+
+    @Test
+    void newDisplayGetsResetThenLiveEvents() throws Exception {
+        MvcResult stream = open(null);
+
+        orderEventService.publishCreated(order(1L, "PENDING"));
+        orderEventService.publishStatusChanged(order(1L, "COMPLETED"));
+        orderEventService.publishDeleted(1L);
+
+        List<String[]> events = awaitEvents(stream.getResponse(), 4);
+        assertTrue(events.get(0)[1].contains("\"type\":\"RESET\""));
+        assertTrue(events.get(1)[1].contains("\"type\":\"CREATED\""));
+        assertTrue(events.get(2)[1].contains("\"status\":\"COMPLETED\""));
+        assertTrue(events.get(3)[1].contains("\"type\":\"DELETED\""));
+    }
+
+    @Test
+    void reconnectingDisplayReceivesOnlyMissedEvents() throws Exception {
+        MvcResult first = open(null);
+        orderEventService.publishCreated(order(1L, "PENDING"));
+        String lastSeen = awaitEvents(first.getResponse(), 2).get(1)[0];
+
+        // Published while the display was disconnected
+        orderEventService.publishCreated(order(2L, "PENDING"));
+        orderEventService.publishStatusChanged(order(1L, "CANCELLED"));
+
+        List<String[]> events = awaitEvents(open(lastSeen).getResponse(), 2);
+        assertTrue(events.get(0)[1].contains("\"orderId\":2"));
+        assertTrue(events.get(1)[1].contains("\"status\":\"CANCELLED\""));
+    }
+
+    @Test
+    void displayTooFarBehindOrFromAnotherRunIsReset() throws Exception {
+        MvcResult first = open(null);
+        orderEventService.publishCreated(order(1L, "PENDING"));
+        String lastSeen = awaitEvents(first.getResponse(), 2).get(1)[0];
+        for (long id = 2; id <= 5; id++) {
+            orderEventService.publishCreated(order(id, "PENDING"));
+        }
+
+        // Only the last three events are kept for replay
+        assertTrue(awaitEvents(open(lastSeen).getResponse(), 1).get(0)[1].contains("\"type\":\"RESET\""));
+        assertTrue(awaitEvents(open("0-1").getResponse(), 1).get(0)[1].contains("\"type\":\"RESET\""));
+    }
+
+    private MvcResult open(String lastEventId) throws Exception {
+        var stream = get("/api/orders/stream");
+        if (lastEventId != null) {
+            stream.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(stream).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static OrderResponse order(Long id, String status) {
+        return OrderResponse.builder().id(id).status(status).build();
+    }
+
+    /**
+     * Wait for events written by the sender threads
+     * @return Pairs of [id, data]
+     */
+    private static List<String[]> awaitEvents(MockHttpServletResponse response, int count) throws Exception {
+        List<String[]> events = new ArrayList<>();
+        for (int attempt = 0; attempt < 100 && events.size() < count; attempt++) {
+            Thread.sleep(20);
+            events.clear();
+            Matcher matcher = EVENT.matcher(response.getContentAsString());
+            while (matcher.find()) {
+                events.add(new String[]{matcher.group(1), matcher.group(2)});
+            }
+        }
+        assertEquals(count, events.size());
+        return events;
+    }
+}
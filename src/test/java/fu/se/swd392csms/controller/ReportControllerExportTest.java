@@ -0,0 +1,128 @@
+package fu.se.swd392csms.controller;
+
+import fu.se.swd392csms.exception.GlobalExceptionHandler;
+import fu.se.swd392csms.exception.TooManyRequestsException;
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.IngredientService;
+import fu.se.swd392csms.service.ReportExportService;
+import fu.se.swd392csms.service.ResponseCacheService;
+import fu.se.swd392csms.service.SalesCubeService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the CSV export endpoints of ReportController
+ */
+class ReportControllerExportTest {
+
+    private static final String CSV = "id,order_date\r\n1,2025-06-01T08:00\r\n";
+
+    private MockMvc mockMvc;
+    private ReportExportService reportExportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportExportService = Mockito.mock(ReportExportService.class);
+        Mockito.when(reportExportService.exportOrders(eq(LocalDate.of(2025, 6, 1)), eq(LocalDate.of(2025, 6, 30)), any()))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(2);
+                    out.write(CSV.getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReportController(Mockito.mock(DailyReportService.class),
+                Mockito.mock(IngredientService.class), reportExportService, Mockito.mock(SalesCubeService.class),
+                Mockito.mock(ResponseCacheService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void ordersAreDownloadedAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/export/orders")
+                        .param("startDate", "2025-06-01")
+                        .param("endDate", "2025-06-30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"orders_2025-06-01_2025-06-30.csv\""));
+        assertEquals(CSV, result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        Mockito.verify(reportExportService).acquireSlot();
+        Mockito.verify(reportExportService).releaseSlot();
+    }
+
+    @Test
+    void slotIsReleasedWhenTheExportTimesOut() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/export/orders")
+                        .param("startDate", "2025-06-01")
+                        .param("endDate", "2025-06-30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Mockito.verify(reportExportService, Mockito.never()).releaseSlot();
+
+        // The container times the request out and completes it, whether or not the body ran
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        Mockito.verify(reportExportService).releaseSlot();
+    }
+
+    @Test
+    void exportsBeyondTheLimitAreRefused() throws Exception {
+        Mockito.doThrow(new TooManyRequestsException("busy")).when(reportExportService).acquireSlot();
+
+        mockMvc.perform(get("/api/reports/export/orders")
+                        .param("startDate", "2025-06-01")
+                        .param("endDate", "2025-06-30"))
+                .andExpect(status().isTooManyRequests());
+        Mockito.verify(reportExportService, Mockito.never()).exportOrders(any(), any(), any());
+        Mockito.verify(reportExportService, Mockito.never()).releaseSlot();
+    }
+
+    @Test
+    void gzipDownloadDecompressesToTheSameCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/export/orders")
+                        .param("startDate", "2025-06-01")
+                        .param("endDate", "2025-06-30")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"orders_2025-06-01_2025-06-30.csv.gz\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals(CSV, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
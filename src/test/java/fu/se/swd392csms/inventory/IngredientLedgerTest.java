@@ -0,0 +1,105 @@
+package fu.se.swd392csms.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for IngredientLedger
+ */
+class IngredientLedgerTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 10_000;
+
+    @Test
+    void tryReserveIsAllOrNothing() {
+        IngredientLedger ledger = new IngredientLedger();
+        ledger.load(1L, new BigDecimal("5.00"));
+        ledger.load(2L, new BigDecimal("0.10"));
+
+        Map<Long, Long> units = new LinkedHashMap<>();
+        units.put(1L, IngredientLedger.toUnits(new BigDecimal("1.00")));
+        units.put(2L, IngredientLedger.toUnits(new BigDecimal("0.20")));
+
+        assertEquals(2L, ledger.tryReserve(units));
+        assertEquals(500L, ledger.available(1L));
+        assertEquals(10L, ledger.available(2L));
+    }
+
+    @Test
+    void setReturnsPreviousStockForRelativeWrites() {
+        IngredientLedger ledger = new IngredientLedger();
+        ledger.load(1L, new BigDecimal("5.00"));
+        ledger.tryTake(1L, 120L);
+
+        long previous = ledger.set(1L, IngredientLedger.toUnits(new BigDecimal("10")));
+
+        assertEquals(380L, previous);
+        assertEquals(1000L, ledger.available(1L));
+    }
+
+    @Test
+    void drainAndRequeueKeepCommitOrder() {
+        IngredientLedger ledger = new IngredientLedger();
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            ledger.commit(new IngredientLedger.Reservation(orderId, 1L, Map.of(1L, 1L)));
+        }
+
+        List<IngredientLedger.Reservation> batch = ledger.drain(3);
+        ledger.requeue(batch);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                ledger.drain(10).stream().map(IngredientLedger.Reservation::orderId).toList());
+    }
+
+    @Test
+    void tryReserveLosesNoUpdatesUnderContention() throws Exception {
+        IngredientLedger ledger = new IngredientLedger();
+        // Half of the attempted orders can be served; milk is shared by every order
+        int stock = THREADS * ORDERS_PER_THREAD / 2;
+        ledger.load(1L, BigDecimal.valueOf(stock));
+        ledger.load(2L, BigDecimal.valueOf(stock * 2L));
+        Map<Long, Long> order = Map.of(1L, 100L, 2L, 100L);
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    if (ledger.tryReserve(order) == null) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(stock, accepted.get());
+        assertEquals(0L, ledger.available(1L));
+        assertEquals(IngredientLedger.toUnits(BigDecimal.valueOf(stock)), ledger.available(2L));
+        assertNull(ledger.tryReserve(Map.of(2L, 1L)));
+    }
+}
@@ -0,0 +1,55 @@
+package fu.se.swd392csms.inventory;
+
+import fu.se.swd392csms.inventory.LowStockIndex.Crossing;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for LowStockIndex
+ */
+class LowStockIndexTest {
+
+    @Test
+    void crossingsAreReportedOncePerDirection() {
+        LowStockIndex index = new LowStockIndex();
+        assertEquals(Crossing.NONE, index.set(1L, 600, 500));
+
+        assertEquals(Crossing.NONE, index.adjust(1L, -100));
+        assertEquals(Crossing.BELOW, index.adjust(1L, -1));
+        assertEquals(Crossing.NONE, index.adjust(1L, -200));
+        assertEquals(Set.of(1L), index.lowStockIds());
+
+        assertEquals(Crossing.RECOVERED, index.adjust(1L, 201));
+        assertEquals(Crossing.NONE, index.adjust(1L, 50));
+        assertEquals(0, index.lowStockCount());
+    }
+
+    @Test
+    void minimumStockChangesCanCrossTheThreshold() {
+        LowStockIndex index = new LowStockIndex();
+        assertEquals(Crossing.BELOW, index.set(1L, 100, 200));
+        assertEquals(Crossing.NONE, index.set(2L, 100, 0));
+
+        assertEquals(Crossing.RECOVERED, index.set(1L, 100, 100));
+        assertEquals(Crossing.BELOW, index.set(2L, 100, 101));
+        assertEquals(Set.of(2L), index.lowStockIds());
+    }
+
+    @Test
+    void unknownAndRemovedIngredientsAreIgnored() {
+        LowStockIndex index = new LowStockIndex();
+        index.set(1L, 0, 100);
+
+        assertEquals(Crossing.NONE, index.adjust(2L, -100));
+        assertNull(index.level(2L));
+
+        index.remove(1L);
+        assertEquals(Crossing.NONE, index.adjust(1L, 500));
+        assertEquals(0, index.lowStockCount());
+        assertEquals(0, index.size());
+    }
+}
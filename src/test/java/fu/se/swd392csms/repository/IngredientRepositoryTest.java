@@ -0,0 +1,110 @@
+package fu.se.swd392csms.repository;
+
+import fu.se.swd392csms.entity.Ingredient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the guarded stock updates in IngredientRepository
+ * Runs against an embedded database with real concurrent transactions
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IngredientRepositoryTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 250;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        ingredientRepository.deleteAll();
+    }
+
+    @Test
+    void decrementStockLosesNoUpdatesUnderContention() throws Exception {
+        // Half of the attempted orders can be served from stock
+        int stock = THREADS * ORDERS_PER_THREAD / 2;
+        Long milkId = ingredientRepository.save(ingredient("Milk", stock)).getId();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    Integer rows = tx.execute(status -> ingredientRepository.decrementStock(milkId, BigDecimal.ONE));
+                    (rows != null && rows == 1 ? accepted : rejected).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Every decrement either took one unit or was refused, and none took the stock below zero
+        Ingredient milk = ingredientRepository.findById(milkId).orElseThrow();
+        assertEquals(stock, accepted.get());
+        assertEquals(THREADS * ORDERS_PER_THREAD - stock, rejected.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(milk.getQuantity()));
+    }
+
+    @Test
+    void decrementStockReportsNoRowsWhenStockIsInsufficient() {
+        Long beansId = ingredientRepository.save(ingredient("Beans", 2)).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        assertEquals(Integer.valueOf(0), tx.execute(status -> ingredientRepository.decrementStock(beansId, new BigDecimal("2.50"))));
+        assertEquals(Integer.valueOf(1), tx.execute(status -> ingredientRepository.incrementStock(beansId, BigDecimal.ONE)));
+        assertEquals(Integer.valueOf(1), tx.execute(status -> ingredientRepository.decrementStock(beansId, new BigDecimal("2.50"))));
+
+        Ingredient beans = ingredientRepository.findById(beansId).orElseThrow();
+        assertEquals(0, new BigDecimal("0.50").compareTo(beans.getQuantity()));
+    }
+
+    private static Ingredient ingredient(String name, int quantity) {
+        return Ingredient.builder()
+                .name(name)
+                .unit("unit")
+                .quantity(BigDecimal.valueOf(quantity))
+                .pricePerUnit(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package fu.se.swd392csms.repository;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test configuration for JPA slice tests
+ * Supplies the beans the application's startup data initializer needs outside the security config
+ */
+@TestConfiguration
+public class JpaTestConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
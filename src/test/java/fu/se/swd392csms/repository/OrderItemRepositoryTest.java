@@ -0,0 +1,209 @@
+package fu.se.swd392csms.repository;
+
+import fu.se.swd392csms.dto.response.DailyReportResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.OrderItem;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.service.impl.DailyReportServiceImpl;
+import fu.se.swd392csms.service.impl.DataVersionServiceImpl;
+import fu.se.swd392csms.service.impl.ProductCostServiceImpl;
+import fu.se.swd392csms.service.impl.SalaryCostServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the sales aggregates in OrderItemRepository
+ * Compares the daily reports built on them with the per-order, per-item loop the reports used to run
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // salaries has month and year columns, which are keywords in H2
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({JpaTestConfig.class, DataVersionServiceImpl.class, DailyReportServiceImpl.class, ProductCostServiceImpl.class, SalaryCostServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderItemRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private DailyReportServiceImpl dailyReportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    private Employee employee;
+    private Product latte;
+    private Product mocha;
+    private Product water;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(DAY)
+                .status("Active")
+                .build());
+        Ingredient milk = ingredientRepository.save(ingredient("Milk", "21500.50"));
+        Ingredient beans = ingredientRepository.save(ingredient("Beans", "350000"));
+        Ingredient cocoa = ingredientRepository.save(ingredient("Cocoa", "180000.25"));
+
+        latte = productRepository.save(product("Latte", "45000"));
+        mocha = productRepository.save(product("Mocha", "52000"));
+        // No recipe, so it costs nothing
+        water = productRepository.save(product("Water", "10000"));
+        recipe(latte, milk, "0.20");
+        recipe(latte, beans, "0.02");
+        recipe(mocha, milk, "0.15");
+        recipe(mocha, beans, "0.02");
+        recipe(mocha, cocoa, "0.03");
+
+        order(DAY.atTime(8, 0), "COMPLETED", Map.of(latte, 2, mocha, 1));
+        order(DAY.atTime(12, 30), "Completed", Map.of(mocha, 3, water, 2));
+        order(DAY.atTime(23, 59, 59), "COMPLETED", Map.of(latte, 1));
+        order(DAY.atTime(15, 0), "PENDING", Map.of(latte, 5));
+        order(DAY.atTime(16, 0), "CANCELLED", Map.of(mocha, 4));
+        order(DAY.plusDays(1).atTime(9, 0), "COMPLETED", Map.of(latte, 7, mocha, 2));
+        order(DAY.plusDays(3).atTime(9, 0), "COMPLETED", Map.of(water, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productIngredientRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void dailyReportsCostTheSameAsPerItemLoop() {
+        List<DailyReportResponse> reports = dailyReportService.getDailyReports(DAY, DAY.plusDays(3));
+
+        assertEquals(4, reports.size());
+        for (DailyReportResponse report : reports) {
+            BigDecimal expected = loopCost(report.getReportDate());
+            assertEquals(0, expected.compareTo(report.getIngredientCost()), "range cost of " + report.getReportDate());
+            assertEquals(0, expected.compareTo(dailyReportService.getDailyReport(report.getReportDate()).getIngredientCost()),
+                    "single-day cost of " + report.getReportDate());
+        }
+        // Water has no recipe, and nothing was sold on the third day
+        assertEquals(0, BigDecimal.ZERO.compareTo(reports.get(3).getIngredientCost()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(reports.get(2).getIngredientCost()));
+        assertTrue(loopCost(DAY).signum() > 0);
+    }
+
+    @Test
+    void salesPerDayAndProductCoverCompletedOrdersOnly() {
+        Map<Long, Object[]> byProduct = new HashMap<>();
+        for (Object[] row : orderItemRepository.summarizeCompletedByDayAndProduct(DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX))) {
+            assertEquals(DAY, row[0]);
+            byProduct.put((Long) row[1], row);
+        }
+
+        assertEquals(3, byProduct.size());
+        assertEquals("Mocha", byProduct.get(mocha.getId())[2]);
+        assertEquals(3L, ((Number) byProduct.get(latte.getId())[3]).longValue());
+        assertEquals(4L, ((Number) byProduct.get(mocha.getId())[3]).longValue());
+        assertEquals(2L, ((Number) byProduct.get(water.getId())[3]).longValue());
+        assertEquals(0, new BigDecimal("208000").compareTo((BigDecimal) byProduct.get(mocha.getId())[4]));
+    }
+
+    /**
+     * Ingredient cost of a day computed the way ReportController used to: one query per order and per item
+     */
+    private BigDecimal loopCost(LocalDate day) {
+        BigDecimal totalCost = BigDecimal.ZERO;
+        for (Order order : orderRepository.findByOrderDateBetween(day.atStartOfDay(), day.atTime(LocalTime.MAX))) {
+            if (!"COMPLETED".equalsIgnoreCase(order.getStatus())) {
+                continue;
+            }
+            for (OrderItem item : orderItemRepository.findByOrderIdWithProduct(order.getId())) {
+                for (ProductIngredient pi : productIngredientRepository.findByProductIdWithIngredient(item.getProduct().getId())) {
+                    BigDecimal quantityNeeded = pi.getQuantityRequired().multiply(new BigDecimal(item.getQuantity()));
+                    totalCost = totalCost.add(pi.getIngredient().getPricePerUnit().multiply(quantityNeeded));
+                }
+            }
+        }
+        return totalCost;
+    }
+
+    private void order(LocalDateTime orderDate, String status, Map<Product, Integer> quantities) {
+        Order order = Order.builder()
+                .employee(employee)
+                .orderDate(orderDate)
+                .totalAmount(BigDecimal.ZERO)
+                .status(status)
+                .build();
+        quantities.forEach((product, quantity) -> order.getOrderItems().add(OrderItem.builder()
+                .order(order)
+                .product(product)
+                .quantity(quantity)
+                .price(product.getPrice())
+                .build()));
+        orderRepository.save(order);
+    }
+
+    private void recipe(Product product, Ingredient ingredient, String quantityRequired) {
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(product)
+                .ingredient(ingredient)
+                .quantityRequired(new BigDecimal(quantityRequired))
+                .build());
+    }
+
+    private static Ingredient ingredient(String name, String pricePerUnit) {
+        return Ingredient.builder()
+                .name(name)
+                .unit("kg")
+                .quantity(new BigDecimal("100"))
+                .pricePerUnit(new BigDecimal(pricePerUnit))
+                .build();
+    }
+
+    private static Product product(String name, String price) {
+        return Product.builder()
+                .name(name)
+                .category("Coffee")
+                .price(new BigDecimal(price))
+                .status("Available")
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package fu.se.swd392csms.repository;
+
+import fu.se.swd392csms.entity.Attendance;
+import fu.se.swd392csms.entity.DailyReport;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.scheduler.AttendanceScheduler;
+import fu.se.swd392csms.service.impl.DataVersionServiceImpl;
+import fu.se.swd392csms.service.impl.SalaryCostServiceImpl;
+import fu.se.swd392csms.service.impl.SalaryServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk inserts of entities with pooled sequence IDs
+ * Counts prepared JDBC statements to show inserts are sent in batches of hibernate.jdbc.batch_size
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // salaries has month and year columns, which are keywords in H2
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({JpaTestConfig.class, DataVersionServiceImpl.class, AttendanceScheduler.class, SalaryServiceImpl.class, SalaryCostServiceImpl.class})
+class PooledIdBatchingTest {
+
+    private static final int EMPLOYEES = 400;
+
+    @Autowired
+    private AttendanceScheduler attendanceScheduler;
+
+    @Autowired
+    private SalaryServiceImpl salaryService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DailyReportRepository dailyReportRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (int e = 0; e < EMPLOYEES; e++) {
+            entityManager.persist(Employee.builder()
+                    .fullName("Employee " + e)
+                    .position("Barista")
+                    .hireDate(LocalDate.now())
+                    .salary(new BigDecimal("8000000"))
+                    .status("Active")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void nightlyAbsentMarkingIsBatched() {
+        Result result = measure(attendanceScheduler::markAbsentEmployees);
+
+        assertEquals(EMPLOYEES, result.inserts());
+        assertEquals(EMPLOYEES, attendanceRepository.findByDate(LocalDate.now()).size());
+        // Employee and attendance lookups, sequence calls, the batched inserts and the cleanup
+        // of concurrent check-ins, instead of one statement per row
+        assertEquals(13, result.statements());
+    }
+
+    @Test
+    void payrollGenerationIsBatched() {
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        Result result = measure(() -> salaryService.calculateMonthlySalaries(lastMonth.getMonthValue(), lastMonth.getYear()));
+
+        assertEquals(EMPLOYEES, result.inserts());
+        // Employee, salary and attendance lookups, sequence calls and the batched inserts
+        assertEquals(13, result.statements());
+    }
+
+    @Test
+    void absentMarksOfEmployeesWhoCheckedInAreRemoved() {
+        LocalDate today = LocalDate.now();
+        Employee employee = entityManager.getEntityManager()
+                .createQuery("SELECT e FROM Employee e", Employee.class).setMaxResults(1).getSingleResult();
+        // A check-in that committed after absent marking read today's attendance
+        attendanceRepository.save(Attendance.builder()
+                .employee(employee).date(today).checkInTime(LocalTime.of(16, 59)).status("Late").build());
+        attendanceRepository.save(Attendance.builder()
+                .employee(employee).date(today).status("Absent").build());
+
+        assertEquals(1, attendanceRepository.deleteAbsentOfCheckedIn(today));
+        assertEquals(List.of("Late"), attendanceRepository.findByDate(today).stream().map(Attendance::getStatus).toList());
+    }
+
+    @Test
+    void identityInsertsAreNotBatched() {
+        List<DailyReport> reports = new ArrayList<>();
+        for (int d = 0; d < EMPLOYEES; d++) {
+            reports.add(DailyReport.builder()
+                    .reportDate(LocalDate.of(2020, 1, 1).plusDays(d))
+                    .totalOrders(0)
+                    .build());
+        }
+
+        Result result = measure(() -> dailyReportRepository.saveAll(reports));
+
+        // Baseline: IDENTITY needs the generated key of every row, one statement each
+        assertEquals(EMPLOYEES, result.statements());
+    }
+
+    private Result measure(Runnable bulkInsert) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        bulkInsert.run();
+        entityManager.flush();
+        return new Result(statistics.getPrepareStatementCount(), statistics.getEntityInsertCount());
+    }
+
+    private record Result(long statements, long inserts) {
+    }
+}
@@ -0,0 +1,118 @@
+package fu.se.swd392csms.scheduler;
+
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.service.impl.JpaIngredientStockService;
+import fu.se.swd392csms.service.impl.OrderServiceTestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for OrderScheduler auto-cancel
+ * Chunks commit in their own transactions, so the test itself runs without one
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "orders.auto-cancel.threshold-minutes=60",
+        "orders.auto-cancel.chunk-size=3"
+})
+@Import({OrderServiceTestConfig.class, JpaIngredientStockService.class, OrderScheduler.class, OrderSchedulerTest.MetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderSchedulerTest {
+
+    @Autowired
+    private OrderScheduler orderScheduler;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void expiredPendingOrdersAreCancelledInChunks() {
+        Employee employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(LocalDate.now())
+                .status("Active")
+                .build());
+        LocalDateTime expired = LocalDateTime.now().minusHours(2);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            orders.add(order(employee, "PENDING", expired.minusMinutes(i)));
+        }
+        orders.add(order(employee, "PENDING", LocalDateTime.now()));
+        orders.add(order(employee, "COMPLETED", expired));
+        List<Long> expiredIds = orderRepository.saveAll(orders).subList(0, 7).stream().map(Order::getId).toList();
+
+        // The scheduled run may already have happened at startup, so compare against the metrics before this run
+        long runsBefore = meterRegistry.get("orders.auto_cancel.duration").timer().count();
+        double rowsBefore = meterRegistry.get("orders.auto_cancel.rows").summary().totalAmount();
+        orderScheduler.autoCancelExpiredOrders();
+
+        Map<Long, String> statuses = orderRepository.findAll().stream()
+                .collect(Collectors.toMap(Order::getId, Order::getStatus));
+        assertEquals(7, statuses.values().stream().filter("CANCELLED"::equals).count());
+        expiredIds.forEach(id -> assertEquals("CANCELLED", statuses.get(id)));
+        assertEquals(1, statuses.values().stream().filter("PENDING"::equals).count());
+        assertEquals(1, statuses.values().stream().filter("COMPLETED"::equals).count());
+
+        assertEquals(runsBefore + 1, meterRegistry.get("orders.auto_cancel.duration").timer().count());
+        assertEquals(rowsBefore + 7, meterRegistry.get("orders.auto_cancel.rows").summary().totalAmount());
+
+        // Nothing left to cancel on the next run
+        orderScheduler.autoCancelExpiredOrders();
+        assertEquals(runsBefore + 2, meterRegistry.get("orders.auto_cancel.duration").timer().count());
+        assertEquals(rowsBefore + 7, meterRegistry.get("orders.auto_cancel.rows").summary().totalAmount());
+    }
+
+    private static Order order(Employee employee, String status, LocalDateTime orderDate) {
+        return Order.builder()
+                .employee(employee)
+                .orderDate(orderDate)
+                .totalAmount(new BigDecimal("45000"))
+                .status(status)
+                .build();
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
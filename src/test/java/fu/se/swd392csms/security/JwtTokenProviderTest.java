@@ -0,0 +1,188 @@
+package fu.se.swd392csms.security;
+
+import fu.se.swd392csms.security.JwtTokenProvider.Rejection;
+import fu.se.swd392csms.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for JwtTokenProvider and the per-request cost of JwtAuthenticationFilter
+ */
+@Slf4j
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "csms-secret-key-must-be-at-least-256-bits-long-for-hs256-algorithm-security";
+    private static final int WARMUP = 5_000;
+    private static final int REQUESTS = 20_000;
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 60_000, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenIsReadInOnePass() {
+        Claims claims = tokenProvider.parseAndValidate(tokenProvider.generateTokenFromUsername("barista"));
+
+        assertNotNull(claims);
+        assertEquals("barista", claims.getSubject());
+        for (Rejection rejection : Rejection.values()) {
+            assertEquals(0, tokenProvider.getRejectedCount(rejection));
+        }
+    }
+
+    @Test
+    void rejectedTokensAreCountedByReason() {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        String expired = Jwts.builder()
+                .setSubject("barista")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        String foreign = new JwtTokenProvider(SECRET.replace('c', 'k'), 60_000, new SimpleMeterRegistry())
+                .generateTokenFromUsername("barista");
+        String unsigned = Jwts.builder().setSubject("barista").compact();
+
+        assertNull(tokenProvider.parseAndValidate(expired));
+        assertNull(tokenProvider.parseAndValidate(foreign));
+        assertNull(tokenProvider.parseAndValidate(unsigned));
+        assertNull(tokenProvider.parseAndValidate("not-a-token"));
+        assertNull(tokenProvider.parseAndValidate(""));
+
+        assertEquals(1, tokenProvider.getRejectedCount(Rejection.EXPIRED));
+        assertEquals(1, tokenProvider.getRejectedCount(Rejection.SIGNATURE));
+        assertEquals(1, tokenProvider.getRejectedCount(Rejection.UNSUPPORTED));
+        assertEquals(1, tokenProvider.getRejectedCount(Rejection.MALFORMED));
+        assertEquals(1, tokenProvider.getRejectedCount(Rejection.EMPTY));
+    }
+
+    @Test
+    void filterAuthenticatesWithOneParsePerRequest() throws Exception {
+        JwtTokenProvider spy = Mockito.spy(tokenProvider);
+        JwtAuthenticationFilter filter = filter(spy);
+        String token = tokenProvider.generateTokenFromUsername("barista");
+
+        for (int i = 0; i < 3; i++) {
+            authenticate(filter, token);
+            assertEquals("barista", SecurityContextHolder.getContext().getAuthentication().getName());
+        }
+
+        Mockito.verify(spy, Mockito.times(3)).parseAndValidate(token);
+    }
+
+    /**
+     * Per-request cost of the filter against the token work it used to do; run with -Dgroups=benchmark -DexcludedGroups=
+     */
+    @Test
+    @Tag("benchmark")
+    void filterCostPerRequest() throws Exception {
+        JwtAuthenticationFilter filter = filter(tokenProvider);
+        String token = tokenProvider.generateTokenFromUsername("barista");
+
+        // Token work of the filter before: a key and a parser built for validateToken, then again for getUsernameFromToken
+        for (int i = 0; i < WARMUP; i++) {
+            legacyUsername(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            legacyUsername(token);
+        }
+        double before = (System.nanoTime() - start) / 1_000.0 / REQUESTS;
+
+        // Whole filter now, user lookup stubbed
+        for (int i = 0; i < WARMUP; i++) {
+            authenticate(filter, token);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            authenticate(filter, token);
+        }
+        double after = (System.nanoTime() - start) / 1_000.0 / REQUESTS;
+
+        log.info("JWT auth per request: before={} us (token only) after={} us (whole filter)",
+                String.format("%.1f", before), String.format("%.1f", after));
+        assertTrue(after < before, "the filter should cost less than the token work it replaced");
+    }
+
+    @Test
+    void revokedTokenIsNotAuthenticated() throws Exception {
+        TokenRevocationService tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(60_000, 100));
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+        String revoked = tokenProvider.generateTokenFromUsername("barista");
+        String other = tokenProvider.generateTokenFromUsername("barista");
+        String revokedId = tokenProvider.getTokenId(tokenProvider.parseAndValidate(revoked));
+        Mockito.when(tokenRevocationService.isRevoked(revokedId)).thenReturn(true);
+
+        // Tokens of the same user issued in the same second still have their own IDs
+        assertNotEquals(revokedId, tokenProvider.getTokenId(tokenProvider.parseAndValidate(other)));
+        authenticate(filter, revoked);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static JwtAuthenticationFilter filter(JwtTokenProvider tokenProvider) {
+        UserDetails user = User.withUsername("barista")
+                .password("x")
+                .authorities(List.of(new SimpleGrantedAuthority("STAFF")))
+                .build();
+        UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
+        Mockito.when(userDetailsService.loadUserByUsername("barista")).thenReturn(user);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(60_000, 100));
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", Mockito.mock(TokenRevocationService.class));
+        return filter;
+    }
+
+    private void authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stats");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private static String legacyUsername(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Key again = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder().setSigningKey(again).build().parseClaimsJws(token).getBody().getSubject();
+    }
+}
@@ -0,0 +1,153 @@
+package fu.se.swd392csms.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for PrincipalCache: which requests may skip the user lookup, and which must not
+ */
+class PrincipalCacheTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Function<String, UserDetails> database = username -> {
+        lookups.incrementAndGet();
+        return User.withUsername(username).password("hash").authorities("MANAGER").build();
+    };
+
+    // Test clock; tokens are issued relative to it and tests move it forward instead of sleeping
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(60_000, 100, now::get);
+    }
+
+    @Test
+    void loginTokensAreAuthorizedFromTheirRoles() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(
+                "csms-secret-key-must-be-at-least-256-bits-long-for-hs256-algorithm-security", 60_000,
+                new SimpleMeterRegistry());
+        UserDetails login = User.withUsername("barista").password("hash").authorities("STAFF", "CASHIER").build();
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(login, null, login.getAuthorities()));
+        Claims claims = tokenProvider.parseAndValidate(token);
+        // Issued this second, so within the ttl
+        claims.setIssuedAt(new Date(now.get() + 1_000));
+
+        UserDetails first = cache.resolve(claims, database);
+        UserDetails second = cache.resolve(claims, database);
+
+        assertEquals(Set.of("STAFF", "CASHIER"), authorities(first));
+        assertSame(first, second);
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void tokensWithoutTrustedRolesAreLoadedOnce() {
+        Claims olderThanTtl = claims("barista", -120_000, List.of("STAFF"));
+        Claims withoutRoles = claims("cashier", 1_000, null);
+
+        assertEquals(Set.of("MANAGER"), authorities(cache.resolve(olderThanTtl, database)));
+        cache.resolve(olderThanTtl, database);
+        cache.resolve(withoutRoles, database);
+        cache.resolve(withoutRoles, database);
+
+        assertEquals(2, lookups.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void aRoleChangeSendsOlderTokensBackToTheDatabase() {
+        Claims old = claims("barista", 1_000, List.of("STAFF"));
+        assertEquals(Set.of("STAFF"), authorities(cache.resolve(old, database)));
+
+        now.addAndGet(1_100);
+        cache.invalidate("barista");
+
+        assertEquals(Set.of("MANAGER"), authorities(cache.resolve(old, database)));
+        assertEquals(1, lookups.get());
+
+        // A token issued after the change is trusted again once the cached entry expires
+        PrincipalCache expiring = new PrincipalCache(0, 100, now::get);
+        Claims renewed = claims("barista", 2_000, List.of("MANAGER", "STAFF"));
+        assertEquals(Set.of("MANAGER", "STAFF"), authorities(expiring.resolve(renewed, database)));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void claimsAreTrustedForOneTtlOnly() {
+        // A change made on another instance is not seen here, so claims are trusted no longer than a cached user
+        PrincipalCache shortLived = new PrincipalCache(1_000, 100, now::get);
+        Claims token = claims("barista", 0, List.of("STAFF"));
+        assertEquals(Set.of("STAFF"), authorities(shortLived.resolve(token, database)));
+        assertEquals(0, lookups.get());
+
+        now.addAndGet(1_100);
+
+        assertEquals(Set.of("MANAGER"), authorities(shortLived.resolve(token, database)));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void deletedUsersAreNotServedFromTheCache() {
+        Claims token = claims("barista", 1_000, List.of("STAFF"));
+        cache.resolve(token, database);
+
+        cache.invalidate("barista");
+
+        Claims older = claims("barista", -1_000, List.of("STAFF"));
+        assertThrows(UsernameNotFoundException.class, () -> cache.resolve(older, username -> {
+            throw new UsernameNotFoundException(username);
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void aChangeDuringTheLookupIsNotOverwritten() {
+        Claims token = claims("barista", -5_000, null);
+
+        cache.resolve(token, username -> {
+            UserDetails stale = database.apply(username);
+            cache.invalidate(username);
+            return stale;
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    private Claims claims(String username, long issuedOffsetMs, List<String> roles) {
+        Claims claims = Jwts.claims()
+                .setSubject(username)
+                .setIssuedAt(new Date(now.get() + issuedOffsetMs));
+        if (roles != null) {
+            claims.put(JwtTokenProvider.ROLES_CLAIM, roles);
+        }
+        return claims;
+    }
+
+    private static Set<String> authorities(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
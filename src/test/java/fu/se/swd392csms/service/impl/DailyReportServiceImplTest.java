@@ -0,0 +1,273 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.response.DailyReportResponse;
+import fu.se.swd392csms.entity.DailyReport;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.OrderItem;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.repository.DailyProductSalesRepository;
+import fu.se.swd392csms.repository.DailyReportRepository;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.JpaTestConfig;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the daily_reports rollup in DailyReportServiceImpl
+ * Each test gets a fresh service, since changed days and backfill progress live in memory
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // salaries has month and year columns, which are keywords in H2
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "reports.rollup.backfill-chunk-days=2"
+})
+@Import({JpaTestConfig.class, DataVersionServiceImpl.class, DailyReportServiceImpl.class, ProductCostServiceImpl.class, SalaryCostServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DailyReportServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private DailyReportServiceImpl dailyReportService;
+
+    @Autowired
+    private ProductCostServiceImpl productCostService;
+
+    @Autowired
+    private DailyReportRepository dailyReportRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Employee employee;
+    private Product latte;
+    private Order lateEdited;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(TODAY)
+                .status("Active")
+                .build());
+        Ingredient milk = ingredientRepository.save(Ingredient.builder()
+                .name("Milk")
+                .unit("l")
+                .quantity(new BigDecimal("100"))
+                .pricePerUnit(new BigDecimal("20000"))
+                .build());
+        latte = productRepository.save(Product.builder()
+                .name("Latte")
+                .category("Coffee")
+                .price(new BigDecimal("45000"))
+                .status("Available")
+                .build());
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(latte).ingredient(milk).quantityRequired(new BigDecimal("0.20")).build());
+
+        // Statuses written by the API are upper case, older rows are capitalized
+        lateEdited = order(TODAY.minusDays(5), "COMPLETED", 2);
+        order(TODAY.minusDays(5), "Completed", 1);
+        order(TODAY.minusDays(5), "CANCELLED", 1);
+        order(TODAY.minusDays(2), "PENDING", 1);
+        order(TODAY, "COMPLETED", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailyProductSalesRepository.deleteAll();
+        dailyReportRepository.deleteAll();
+        orderRepository.deleteAll();
+        productIngredientRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void backfillFillsHistoryInChunksWithTheSameNumbersAsLiveReports() {
+        // Six days from the first order, two per refresh; today and yesterday are recomputed on the first one
+        dailyReportService.refreshRollups();
+        assertEquals(4, dailyReportRepository.count());
+        dailyReportService.refreshRollups();
+        dailyReportService.refreshRollups();
+        assertEquals(6, dailyReportRepository.count());
+
+        DailyReport busyDay = dailyReportRepository.findByReportDate(TODAY.minusDays(5)).orElseThrow();
+        assertEquals(3, busyDay.getTotalOrders());
+        assertEquals(2, busyDay.getCompletedOrders());
+        assertEquals(1, busyDay.getCancelledOrders());
+        assertEquals(0, new BigDecimal("135000").compareTo(busyDay.getTotalRevenue()));
+        DailyReportResponse busyDayLive = dailyReportService.getDailyReport(TODAY.minusDays(5));
+        assertEquals(1, busyDayLive.getProductCosts().size());
+        // 3 lattes with 0.20 l milk at 20000 per l
+        assertEquals(0, new BigDecimal("12000").compareTo(busyDayLive.getIngredientCost()));
+        assertEquals(0, new BigDecimal("12000").compareTo(busyDayLive.getProductCosts().get(0).getIngredientCost()));
+        assertEquals(0, new BigDecimal("123000").compareTo(busyDayLive.getProductCosts().get(0).getMargin()));
+
+        List<DailyReportResponse> reports = dailyReportService.getDailyReports(TODAY.minusDays(5), TODAY);
+        for (DailyReportResponse report : reports) {
+            DailyReportResponse live = dailyReportService.getDailyReport(report.getReportDate());
+            assertEquals(live.getTotalOrders(), report.getTotalOrders());
+            assertEquals(live.getCompletedOrders(), report.getCompletedOrders());
+            assertEquals(0, live.getTotalRevenue().compareTo(report.getTotalRevenue()));
+            assertEquals(0, live.getTotalCost().compareTo(report.getTotalCost()));
+        }
+    }
+
+    @Test
+    void lateEditRecomputesOnlyItsDay() {
+        while (dailyReportRepository.count() < 6) {
+            dailyReportService.refreshRollups();
+        }
+        dailyReportService.refreshRollups();
+        LocalDateTime otherDayComputedAt = dailyReportRepository.findByReportDate(TODAY).orElseThrow().getCreatedAt();
+
+        lateEdited.setStatus("CANCELLED");
+        orderRepository.save(lateEdited);
+        dailyReportService.markOrderChanged(lateEdited.getOrderDate());
+
+        assertEquals(1, dailyReportService.refreshRollups());
+        DailyReport edited = dailyReportRepository.findByReportDate(TODAY.minusDays(5)).orElseThrow();
+        assertEquals(1, edited.getCompletedOrders());
+        assertEquals(2, edited.getCancelledOrders());
+        assertEquals(0, new BigDecimal("45000").compareTo(edited.getTotalRevenue()));
+        assertEquals(otherDayComputedAt, dailyReportRepository.findByReportDate(TODAY).orElseThrow().getCreatedAt());
+    }
+
+    @Test
+    void rangeReadComputesDaysNotBackfilledYetAndZeroFillsTheFuture() {
+        List<DailyReportResponse> reports = dailyReportService.getDailyReports(TODAY.minusDays(5), TODAY.plusDays(1));
+
+        assertEquals(7, reports.size());
+        assertEquals(3, reports.get(0).getTotalOrders());
+        assertEquals(1, reports.get(3).getTotalOrders());
+        assertEquals(0, reports.get(6).getTotalOrders());
+        // Computed for the response only; the backfill stays the only writer
+        assertEquals(0, dailyReportRepository.count());
+        assertEquals(0, dailyProductSalesRepository.count());
+    }
+
+    @Test
+    void longRangeIsReadWithAFixedNumberOfQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDate from = TODAY.minusDays(89);
+
+        // Cold: all 90 missing days are summarized in memory by one grouped query for the orders
+        // and one for the products sold, without storing anything
+        statistics.clear();
+        List<DailyReportResponse> cold = dailyReportService.getDailyReports(from, TODAY);
+        assertEquals(90, cold.size());
+        assertEquals(0, statistics.getEntityInsertCount());
+        List<Long> groupedExecutions = Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains("GROUP BY"))
+                .map(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .toList();
+        assertEquals(List.of(1L, 1L), groupedExecutions);
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // Warm: once backfilled, the rollups and their product lines are read without loading entities;
+        // days before the earliest order are not computed, unit costs and monthly salary costs are cached
+        while (dailyReportRepository.count() < 6) {
+            dailyReportService.refreshRollups();
+        }
+        statistics.clear();
+        List<DailyReportResponse> warm = dailyReportService.getDailyReports(from, TODAY);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(3, warm.get(84).getTotalOrders());
+        assertEquals(0, warm.get(0).getTotalOrders());
+        assertEquals(cold.stream().map(DailyReportResponse::getTotalOrders).toList(),
+                warm.stream().map(DailyReportResponse::getTotalOrders).toList());
+        for (int d = 0; d < cold.size(); d++) {
+            assertEquals(0, cold.get(d).getProfit().compareTo(warm.get(d).getProfit()));
+        }
+    }
+
+    @Test
+    void priceChangeRecostsEveryDayTheSameInBothReports() {
+        while (dailyReportRepository.count() < 6) {
+            dailyReportService.refreshRollups();
+        }
+        LocalDate busyDay = TODAY.minusDays(5);
+        assertEquals(0, new BigDecimal("12000").compareTo(dailyReportService.getDailyReports(busyDay, busyDay).get(0).getIngredientCost()));
+
+        Ingredient milk = ingredientRepository.findAll().get(0);
+        milk.setPricePerUnit(new BigDecimal("25000"));
+        ingredientRepository.save(milk);
+        productCostService.priceChanged(milk.getId());
+
+        // 3 lattes with 0.20 l milk at the new 25000 per l, without recomputing the rollup
+        for (DailyReportResponse report : dailyReportService.getDailyReports(busyDay, TODAY)) {
+            DailyReportResponse single = dailyReportService.getDailyReport(report.getReportDate());
+            assertEquals(0, single.getIngredientCost().compareTo(report.getIngredientCost()));
+            assertEquals(0, single.getProfit().compareTo(report.getProfit()));
+        }
+        assertEquals(0, new BigDecimal("15000").compareTo(dailyReportService.getDailyReport(busyDay).getIngredientCost()));
+    }
+
+    private Order order(LocalDate day, String status, int lattes) {
+        Order order = Order.builder()
+                .employee(employee)
+                .orderDate(day.atTime(10, 0))
+                .totalAmount(latte.getPrice().multiply(BigDecimal.valueOf(lattes)))
+                .status(status)
+                .build();
+        order.getOrderItems().add(OrderItem.builder()
+                .order(order)
+                .product(latte)
+                .quantity(lattes)
+                .price(latte.getPrice())
+                .build());
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,191 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.request.UpdateOrderStatusRequest;
+import fu.se.swd392csms.dto.response.DashboardStatsResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the dashboard counters in DashboardStatsServiceImpl
+ * Orders go through OrderServiceImpl, whose hooks move the counters; a resync then shows whether they drifted
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({OrderServiceTestConfig.class, JpaIngredientStockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardStatsServiceImplTest {
+
+    @Autowired
+    private DashboardStatsServiceImpl dashboardStatsService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private LowStockServiceImpl lowStockService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Employee employee;
+    private Product latte;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(LocalDate.now())
+                .status("Active")
+                .build());
+        latte = productRepository.save(Product.builder()
+                .name("Latte")
+                .category("Coffee")
+                .price(new BigDecimal("35000.50"))
+                .status("Available")
+                .build());
+        // Placed last month and still pending
+        orderRepository.save(Order.builder()
+                .employee(employee)
+                .orderDate(LocalDate.now().withDayOfMonth(1).minusDays(3).atTime(9, 0))
+                .totalAmount(new BigDecimal("70001.00"))
+                .status("PENDING")
+                .build());
+        dashboardStatsService.resync();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+        lowStockService.rebuild();
+    }
+
+    @Test
+    void statsAreServedWithoutQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 100; i++) {
+            dashboardStatsService.getStats();
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void hooksKeepTheCountersEqualToAFreshCount() {
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            orderIds.add(orderService.createOrder(CreateOrderRequest.builder()
+                    .employeeId(employee.getId())
+                    .items(List.of(new OrderItemRequest(latte.getId(), i)))
+                    .build()).getId());
+        }
+        Long lastMonth = orderRepository.findAll().stream()
+                .filter(order -> order.getOrderDate().toLocalDate().isBefore(LocalDate.now().withDayOfMonth(1)))
+                .findFirst().orElseThrow().getId();
+
+        orderService.updateOrderStatus(orderIds.get(0), new UpdateOrderStatusRequest("COMPLETED"));
+        orderService.updateOrderStatus(orderIds.get(1), new UpdateOrderStatusRequest("COMPLETED"));
+        orderService.updateOrderStatus(orderIds.get(2), new UpdateOrderStatusRequest("COMPLETED"));
+        orderService.updateOrderStatus(orderIds.get(2), new UpdateOrderStatusRequest("CANCELLED"));
+        orderService.updateOrderStatus(lastMonth, new UpdateOrderStatusRequest("COMPLETED"));
+        orderService.deleteOrder(orderIds.get(1));
+        orderService.deleteOrder(orderIds.get(3));
+
+        DashboardStatsResponse counted = dashboardStatsService.getStats();
+        assertEquals(4, counted.getTotalOrders());
+        assertEquals(1, counted.getPendingOrders());
+        assertEquals(2, counted.getCompletedOrders());
+        assertEquals(new BigDecimal("35000.50"), counted.getTodayRevenue());
+        assertEquals(1, counted.getActiveEmployees());
+        assertEquals(1, counted.getTotalProducts());
+
+        assertTrue(dashboardStatsService.resync());
+        assertEquals(counted, dashboardStatsService.getStats());
+    }
+
+    @Test
+    void bulkCancellationsMovePendingOrders() {
+        orderService.createOrder(CreateOrderRequest.builder()
+                .employeeId(employee.getId())
+                .items(List.of(new OrderItemRequest(latte.getId(), 1)))
+                .build());
+        assertEquals(2, dashboardStatsService.getStats().getPendingOrders());
+
+        List<Long> orderIds = orderRepository.findAll().stream().map(Order::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            dashboardStatsService.ordersCancelled(orderRepository.cancelPendingByIds(orderIds));
+            // Applied only once the cancellation commits
+            assertEquals(2, dashboardStatsService.getStats().getPendingOrders());
+        });
+
+        assertEquals(0, dashboardStatsService.getStats().getPendingOrders());
+        assertEquals(2, dashboardStatsService.getStats().getTotalOrders());
+    }
+
+    @Test
+    void lowStockIsReadFromTheIndex() {
+        ingredientRepository.save(Ingredient.builder()
+                .name("Milk")
+                .unit("l")
+                .quantity(new BigDecimal("4.00"))
+                .minimumStock(new BigDecimal("5.00"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .build());
+        assertEquals(0, dashboardStatsService.getStats().getLowStockItems());
+
+        lowStockService.rebuild();
+
+        assertEquals(1, dashboardStatsService.getStats().getLowStockItems());
+    }
+}
@@ -0,0 +1,250 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.IngredientRequest;
+import fu.se.swd392csms.dto.request.IngredientTransactionRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.response.IngredientResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.inventory.LowStockEvent;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.IngredientTransactionRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the low-stock index in LowStockServiceImpl
+ * Stock is moved through the real order and ingredient services; after each step the index must
+ * agree with a fresh query and every threshold crossing must have published exactly one event
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({OrderServiceTestConfig.class, IngredientServiceImpl.class, JpaIngredientStockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class LowStockServiceImplTest {
+
+    @Autowired
+    private LowStockServiceImpl lowStockService;
+
+    @Autowired
+    private IngredientServiceImpl ingredientService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private DashboardStatsServiceImpl dashboardStatsService;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private IngredientTransactionRepository transactionRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Employee employee;
+    private Long milkId;
+    private Long latteId;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(LocalDate.now())
+                .status("Active")
+                .build());
+        // Already low before the index is built
+        ingredientRepository.save(Ingredient.builder()
+                .name("Sugar")
+                .unit("kg")
+                .quantity(new BigDecimal("1.00"))
+                .minimumStock(new BigDecimal("2.00"))
+                .pricePerUnit(BigDecimal.ONE)
+                .build());
+        lowStockService.rebuild();
+
+        milkId = ingredientService.createIngredient(IngredientRequest.builder()
+                .name("Milk")
+                .unit("l")
+                .quantity(new BigDecimal("6.00"))
+                .minimumStock(new BigDecimal("5.00"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .build()).getId();
+        Product latte = productRepository.save(Product.builder()
+                .name("Latte")
+                .category("Coffee")
+                .price(new BigDecimal("45000"))
+                .status("Available")
+                .build());
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(latte)
+                .ingredient(ingredientRepository.findById(milkId).orElseThrow())
+                .quantityRequired(new BigDecimal("0.50"))
+                .build());
+        latteId = latte.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        orderRepository.deleteAll();
+        productIngredientRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+        lowStockService.rebuild();
+    }
+
+    @Test
+    void ordersTransactionsAndEditsMoveIngredientsAcrossTheThreshold() {
+        order(2);
+        assertMatchesDatabase(1);
+        assertTrue(milkEvents().isEmpty());
+
+        // 5.00 left is still at the minimum; one more latte takes it below
+        order(1);
+        assertMatchesDatabase(2);
+        assertEquals(List.of(new LowStockEvent(milkId, new BigDecimal("4.50"), new BigDecimal("5.00"), true)),
+                milkEvents());
+
+        order(1);
+        transaction("EXPORT", "0.50");
+        assertEquals(1, milkEvents().size());
+
+        transaction("IMPORT", "2.00");
+        assertMatchesDatabase(1);
+        assertEquals(new LowStockEvent(milkId, new BigDecimal("5.50"), new BigDecimal("5.00"), false),
+                milkEvents().get(1));
+
+        ingredientService.updateIngredient(milkId, IngredientRequest.builder()
+                .name("Milk")
+                .unit("l")
+                .quantity(new BigDecimal("5.50"))
+                .minimumStock(new BigDecimal("8.00"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .build());
+        assertMatchesDatabase(2);
+        assertEquals(3, milkEvents().size());
+        assertTrue(milkEvents().get(2).low());
+
+        assertEquals(List.of("Sugar", "Milk"),
+                ingredientService.getLowStockIngredients().stream().map(IngredientResponse::getName).toList());
+        assertEquals(2, dashboardStatsService.getStats().getLowStockItems());
+
+        Long syrupId = ingredientService.createIngredient(IngredientRequest.builder()
+                .name("Syrup")
+                .unit("l")
+                .quantity(BigDecimal.ZERO)
+                .minimumStock(BigDecimal.ONE)
+                .pricePerUnit(BigDecimal.ONE)
+                .build()).getId();
+        assertMatchesDatabase(3);
+        ingredientService.deleteIngredient(syrupId);
+        assertMatchesDatabase(2);
+    }
+
+    @Test
+    void rolledBackChangesLeaveTheIndexAlone() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lowStockService.stockAdjusted(Map.of(milkId, new BigDecimal("-3.00")));
+            status.setRollbackOnly();
+        });
+
+        assertMatchesDatabase(1);
+        assertTrue(milkEvents().isEmpty());
+    }
+
+    @Test
+    void resyncCorrectsDriftFromOutOfOrderHooks() {
+        // An order's delta applied after a concurrent edit's level, though the order committed first
+        lowStockService.levelChanged(milkId, new BigDecimal("6.00"), new BigDecimal("5.00"));
+        lowStockService.stockAdjusted(Map.of(milkId, new BigDecimal("-1.50")));
+        assertEquals(2, lowStockService.countLowStock());
+        assertEquals(1, milkEvents().size());
+
+        assertTrue(lowStockService.resync());
+
+        assertMatchesDatabase(1);
+        assertEquals(new LowStockEvent(milkId, new BigDecimal("6.00"), new BigDecimal("5.00"), false), milkEvents().get(1));
+        assertTrue(lowStockService.resync());
+        assertEquals(2, milkEvents().size());
+    }
+
+    @Test
+    void answersFromTheDatabaseUntilLoaded() {
+        LowStockServiceImpl unloaded = new LowStockServiceImpl(ingredientRepository, event -> { }, new DataVersionServiceImpl());
+
+        assertEquals(ingredientRepository.findIdsBelowMinimumStock(), unloaded.getLowStockIds());
+        assertEquals(1, unloaded.countLowStock());
+    }
+
+    private void order(int quantity) {
+        orderService.createOrder(CreateOrderRequest.builder()
+                .employeeId(employee.getId())
+                .items(List.of(new OrderItemRequest(latteId, quantity)))
+                .build());
+    }
+
+    private void transaction(String type, String quantity) {
+        ingredientService.recordTransaction(IngredientTransactionRequest.builder()
+                .ingredientId(milkId)
+                .type(type)
+                .quantity(new BigDecimal(quantity))
+                .employeeId(employee.getId())
+                .build());
+    }
+
+    private List<LowStockEvent> milkEvents() {
+        return events.stream(LowStockEvent.class).filter(event -> event.ingredientId().equals(milkId)).toList();
+    }
+
+    private void assertMatchesDatabase(int expected) {
+        assertEquals(ingredientRepository.findIdsBelowMinimumStock(), lowStockService.getLowStockIds());
+        assertEquals(expected, lowStockService.countLowStock());
+    }
+}
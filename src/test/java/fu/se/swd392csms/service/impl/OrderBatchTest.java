@@ -0,0 +1,204 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.BatchCreateOrderRequest;
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.response.OrderBatchResponse;
+import fu.se.swd392csms.dto.response.OrderBatchResultResponse;
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for batch order creation and client order IDs in OrderServiceImpl
+ * Runs against an embedded database so every chunk commits in its own transaction
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "orders.batch.chunk-size=4"
+})
+@Import({OrderServiceTestConfig.class, JpaIngredientStockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBatchTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    private Long employeeId;
+    private Long latteId;
+    private Long teaId;
+    private Long milkId;
+
+    @BeforeEach
+    void setUp() {
+        employeeId = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(LocalDate.now())
+                .status("Active")
+                .build()).getId();
+
+        // Milk for exactly five lattes
+        Ingredient milk = ingredientRepository.save(ingredient("Milk", "1.00"));
+        Ingredient leaves = ingredientRepository.save(ingredient("Tea leaves", "100"));
+        milkId = milk.getId();
+
+        Product latte = productRepository.save(product("Latte", "45000"));
+        Product tea = productRepository.save(product("Tea", "20000"));
+        latteId = latte.getId();
+        teaId = tea.getId();
+
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(latte).ingredient(milk).quantityRequired(new BigDecimal("0.20")).build());
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(tea).ingredient(leaves).quantityRequired(new BigDecimal("0.01")).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productIngredientRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void batchReportsOutcomePerOrderAndDeductsStockOnce() {
+        OrderBatchResponse response = orderService.createOrders(batch(
+                order("c1", employeeId, latteId),
+                order("c2", employeeId, latteId),
+                order("c3", employeeId, latteId),
+                order("c4", employeeId, teaId),
+                // Second chunk needs more milk than is left, so its orders are retried one by one
+                order("c5", employeeId, latteId),
+                order("c6", employeeId, latteId),
+                order("c7", employeeId, latteId),
+                order("c8", employeeId, teaId),
+                order(null, employeeId, teaId),
+                order("c1", employeeId, teaId),
+                order("c9", employeeId, 999L),
+                order("c10", 999L, teaId)));
+
+        List<String> statuses = response.getResults().stream().map(OrderBatchResultResponse::getStatus).toList();
+        assertEquals(List.of("CREATED", "CREATED", "CREATED", "CREATED",
+                "CREATED", "CREATED", "FAILED", "CREATED",
+                "FAILED", "FAILED", "FAILED", "FAILED"), statuses);
+        assertEquals(7, response.getCreated());
+        assertEquals(5, response.getFailed());
+        assertEquals("Duplicate client order ID in batch", response.getResults().get(9).getError());
+        assertEquals("c5", response.getResults().get(4).getOrder().getClientOrderId());
+        assertEquals(0, new BigDecimal("45000").compareTo(response.getResults().get(0).getOrder().getTotalAmount()));
+
+        assertEquals(7, orderRepository.count());
+        Ingredient milk = ingredientRepository.findById(milkId).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(milk.getQuantity()));
+    }
+
+    @Test
+    void resentOrdersAreReportedAsDuplicates() {
+        orderService.createOrders(batch(order("c1", employeeId, latteId), order("c2", employeeId, teaId)));
+
+        OrderBatchResponse resent = orderService.createOrders(batch(
+                order("c1", employeeId, latteId),
+                order("c2", employeeId, teaId),
+                order("c3", employeeId, teaId)));
+
+        assertEquals(List.of("DUPLICATE", "DUPLICATE", "CREATED"),
+                resent.getResults().stream().map(OrderBatchResultResponse::getStatus).toList());
+        assertEquals(2, resent.getDuplicates());
+        assertEquals(1, resent.getResults().get(0).getOrder().getItems().size());
+        assertNull(resent.getResults().get(0).getError());
+        assertEquals(3, orderRepository.count());
+
+        // Only the first sync of c1 used milk
+        Ingredient milk = ingredientRepository.findById(milkId).orElseThrow();
+        assertEquals(0, new BigDecimal("0.80").compareTo(milk.getQuantity()));
+    }
+
+    @Test
+    void resentSingleOrdersReturnTheOrderAlreadyCreated() {
+        OrderResponse created = orderService.createOrder(order("c1", employeeId, latteId));
+        orderService.createOrders(batch(order("c2", employeeId, teaId)));
+
+        OrderResponse resent = orderService.createOrder(order("c1", employeeId, latteId));
+        OrderResponse resentFromBatch = orderService.createOrder(order("c2", employeeId, teaId));
+
+        assertEquals(created.getId(), resent.getId());
+        assertEquals(1, resent.getItems().size());
+        assertEquals("c2", resentFromBatch.getClientOrderId());
+        assertEquals(2, orderRepository.count());
+
+        // Only the first create of c1 used milk
+        Ingredient milk = ingredientRepository.findById(milkId).orElseThrow();
+        assertEquals(0, new BigDecimal("0.80").compareTo(milk.getQuantity()));
+    }
+
+    private static BatchCreateOrderRequest batch(CreateOrderRequest... orders) {
+        return BatchCreateOrderRequest.builder().orders(List.of(orders)).build();
+    }
+
+    private static CreateOrderRequest order(String clientOrderId, Long employeeId, Long productId) {
+        return CreateOrderRequest.builder()
+                .clientOrderId(clientOrderId)
+                .employeeId(employeeId)
+                .items(List.of(new OrderItemRequest(productId, 1)))
+                .build();
+    }
+
+    private static Ingredient ingredient(String name, String quantity) {
+        return Ingredient.builder()
+                .name(name)
+                .unit("unit")
+                .quantity(new BigDecimal(quantity))
+                .pricePerUnit(BigDecimal.ONE)
+                .build();
+    }
+
+    private static Product product(String name, String price) {
+        return Product.builder()
+                .name(name)
+                .category("Drink")
+                .price(new BigDecimal(price))
+                .status("Available")
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.request.UpdateOrderStatusRequest;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for OrderExpiryServiceImpl
+ * Orders expire as soon as they are placed, and the wheel is advanced past their deadlines instead of waiting for them
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "orders.auto-cancel.threshold-minutes=0",
+        "orders.expiry.tick-ms=100"
+})
+@Import({OrderServiceTestConfig.class, JpaIngredientStockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExpiryServiceImplTest {
+
+    // The service and its wheel are shared by every test of the class
+    private static long advancedMillis;
+
+    @Autowired
+    private OrderExpiryServiceImpl orderExpiryService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Employee employee;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(LocalDate.now())
+                .status("Active")
+                .build());
+        productId = productRepository.save(Product.builder()
+                .name("Espresso")
+                .category("Coffee")
+                .price(new BigDecimal("30000"))
+                .status("Available")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOrdersStillPendingAreCancelledWhenTheirTimerFires() {
+        Long expiring = orderService.createOrder(request()).getId();
+        Long completed = orderService.createOrder(request()).getId();
+        Long deleted = orderService.createOrder(request()).getId();
+        assertEquals(3, orderExpiryService.pendingTimers());
+
+        orderService.updateOrderStatus(completed, new UpdateOrderStatusRequest("COMPLETED"));
+        orderService.deleteOrder(deleted);
+        assertEquals(1, orderExpiryService.pendingTimers());
+
+        assertEquals(List.of(expiring), orderExpiryService.expireDueOrders(afterDeadlines()));
+
+        assertEquals("CANCELLED", orderRepository.findById(expiring).orElseThrow().getStatus());
+        assertEquals("COMPLETED", orderRepository.findById(completed).orElseThrow().getStatus());
+        assertEquals(0, orderExpiryService.pendingTimers());
+    }
+
+    @Test
+    void timersAreRebuiltFromPendingOrders() {
+        // Placed before a restart: no timer until the wheel is rebuilt
+        Order pending = orderRepository.save(order("PENDING"));
+        orderRepository.save(order("COMPLETED"));
+        assertEquals(0, orderExpiryService.pendingTimers());
+
+        orderExpiryService.afterSingletonsInstantiated();
+        assertEquals(1, orderExpiryService.pendingTimers());
+
+        assertEquals(List.of(pending.getId()), orderExpiryService.expireDueOrders(afterDeadlines()));
+        assertEquals("CANCELLED", orderRepository.findById(pending.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void timerOfOrderHandledElsewhereChangesNothing() {
+        Long orderId = orderService.createOrder(request()).getId();
+        // Completed by another instance, so this instance still has the timer
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        order.setStatus("COMPLETED");
+        orderRepository.save(order);
+
+        assertEquals(List.of(), orderExpiryService.expireDueOrders(afterDeadlines()));
+        assertEquals("COMPLETED", orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void ordersCancelledElsewhereAreNotReportedAsCancelledHere() {
+        Long expiring = orderService.createOrder(request()).getId();
+        Long cancelledElsewhere = orderService.createOrder(request()).getId();
+        Order order = orderRepository.findById(cancelledElsewhere).orElseThrow();
+        order.setStatus("CANCELLED");
+        orderRepository.save(order);
+
+        assertEquals(List.of(expiring), orderExpiryService.expireDueOrders(afterDeadlines()));
+    }
+
+    /**
+     * A time past every deadline so far; the wheel never moves back, so each call lies further ahead than the last
+     */
+    private static long afterDeadlines() {
+        advancedMillis += 1_000;
+        return System.currentTimeMillis() + advancedMillis;
+    }
+
+    private CreateOrderRequest request() {
+        return CreateOrderRequest.builder()
+                .employeeId(employee.getId())
+                .items(List.of(new OrderItemRequest(productId, 1)))
+                .build();
+    }
+
+    private Order order(String status) {
+        return Order.builder()
+                .employee(employee)
+                .orderDate(LocalDateTime.now())
+                .totalAmount(new BigDecimal("30000"))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,324 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IdempotencyKeyRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.IngredientStockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for OrderIdempotencyServiceImpl
+ * Stock deduction is slowed down so concurrent retries overlap the first attempt
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({OrderServiceTestConfig.class, OrderIdempotencyServiceImpl.class, OrderIdempotencyServiceImplTest.SlowStockConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyServiceImplTest {
+
+    private static final int RETRIES = 8;
+
+    @Autowired
+    private OrderIdempotencyServiceImpl idempotencyService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long employeeId;
+    private Long latteId;
+    private Long milkId;
+
+    @BeforeEach
+    void setUp() {
+        employeeId = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(LocalDate.now())
+                .status("Active")
+                .build()).getId();
+        Ingredient milk = ingredientRepository.save(Ingredient.builder()
+                .name("Milk")
+                .unit("l")
+                .quantity(new BigDecimal("10"))
+                .pricePerUnit(BigDecimal.ONE)
+                .build());
+        Product latte = productRepository.save(Product.builder()
+                .name("Latte")
+                .category("Coffee")
+                .price(new BigDecimal("45000"))
+                .status("Available")
+                .build());
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(latte).ingredient(milk).quantityRequired(new BigDecimal("0.20")).build());
+        milkId = milk.getId();
+        latteId = latte.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The service outlives the test, so forget the keys along with the rows
+        clearRecentKeys();
+        idempotencyKeyRepository.deleteAll();
+        orderRepository.deleteAll();
+        productIngredientRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void retryReturnsOriginalOrderWithoutDeductingAgain() {
+        OrderResponse first = idempotencyService.createOrder("key-1", request(1));
+        OrderResponse retry = idempotencyService.createOrder("key-1", request(1));
+        OrderResponse other = idempotencyService.createOrder("key-2", request(1));
+
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(first.getTotalAmount(), retry.getTotalAmount());
+        assertNotEquals(first.getId(), other.getId());
+        assertEquals(2, orderRepository.count());
+        assertStock("9.60");
+    }
+
+    @Test
+    void concurrentRetriesWaitForTheFirstAttempt() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(RETRIES);
+        List<Future<OrderResponse>> attempts = new ArrayList<>();
+        for (int i = 0; i < RETRIES; i++) {
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return idempotencyService.createOrder("key-1", request(1));
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        for (Future<OrderResponse> attempt : attempts) {
+            orderIds.add(attempt.get(30, TimeUnit.SECONDS).getId());
+        }
+        pool.shutdown();
+
+        assertEquals(1, orderIds.stream().distinct().count());
+        assertEquals(1, orderRepository.count());
+        assertStock("9.80");
+    }
+
+    @Test
+    void storedKeyIsUsedAfterMemoryIsLost() {
+        OrderResponse first = idempotencyService.createOrder("key-1", request(1));
+        clearRecentKeys();
+
+        OrderResponse retry = idempotencyService.createOrder("key-1", request(1));
+
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void rememberedKeyExpiresWithItsStoredRow() {
+        OrderResponse first = idempotencyService.createOrder("key-1", request(1));
+        Object retentionHours = ReflectionTestUtils.getField(idempotencyService, "retentionHours");
+        try {
+            // Every key is past a zero retention, so the purge removes the row and memory must not replay it
+            ReflectionTestUtils.setField(idempotencyService, "retentionHours", 0);
+            assertEquals(1, idempotencyService.purgeExpiredKeys());
+
+            OrderResponse afterRetention = idempotencyService.createOrder("key-1", request(1));
+
+            assertNotEquals(first.getId(), afterRetention.getId());
+            assertEquals(2, orderRepository.count());
+        } finally {
+            ReflectionTestUtils.setField(idempotencyService, "retentionHours", retentionHours);
+        }
+    }
+
+    @Test
+    void requestHashCoversTheOrderFieldsOnly() {
+        CreateOrderRequest request = request(1, "pos-1");
+        String hash = OrderIdempotencyServiceImpl.hash(request);
+
+        assertEquals(hash, OrderIdempotencyServiceImpl.hash(request(1, "pos-1")));
+        assertNotEquals(hash, OrderIdempotencyServiceImpl.hash(request(2, "pos-1")));
+        assertNotEquals(hash, OrderIdempotencyServiceImpl.hash(request(1, "pos-2")));
+        request.setNotes("no sugar");
+        assertNotEquals(hash, OrderIdempotencyServiceImpl.hash(request));
+
+        // Notes cannot pass for the client order ID that follows them
+        CreateOrderRequest shifted = request(1, null);
+        shifted.setNotes("pos-1");
+        assertNotEquals(OrderIdempotencyServiceImpl.hash(request(1, "pos-1")), OrderIdempotencyServiceImpl.hash(shifted));
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        idempotencyService.createOrder("key-1", request(1));
+
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder("key-1", request(2)));
+        clearRecentKeys();
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder("key-1", request(2)));
+    }
+
+    @Test
+    void failedAttemptIsNotRemembered() {
+        // More lattes than there is milk for
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder("key-1", request(100)));
+        milkRestocked();
+
+        OrderResponse retry = idempotencyService.createOrder("key-1", request(100));
+
+        assertEquals(1, orderRepository.count());
+        assertEquals(retry.getId(), orderRepository.findAll().stream().map(Order::getId).findFirst().orElseThrow());
+    }
+
+    @Test
+    void resentClientOrderIdUnderFreshKeyReturnsTheExistingOrder() {
+        OrderResponse first = idempotencyService.createOrder("key-1", request(1, "pos-1"));
+
+        // The client order ID already synced, so the new key is stored for the existing order
+        assertEquals(first.getId(), idempotencyService.createOrder("key-2", request(1, "pos-1")).getId());
+        assertEquals(first.getId(), idempotencyService.createOrder("key-2", request(1, "pos-1")).getId());
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder("key-2", request(1, "pos-2")));
+        assertEquals(1, orderRepository.count());
+        assertStock("9.80");
+    }
+
+    private void milkRestocked() {
+        transactionTemplate.executeWithoutResult(status -> ingredientRepository.setStock(milkId, new BigDecimal("20")));
+    }
+
+    private void clearRecentKeys() {
+        Map<?, ?> recentKeys = (Map<?, ?>) ReflectionTestUtils.getField(idempotencyService, "recentKeys");
+        synchronized (recentKeys) {
+            recentKeys.clear();
+        }
+    }
+
+    private void assertStock(String expected) {
+        Ingredient milk = ingredientRepository.findById(milkId).orElseThrow();
+        assertEquals(0, new BigDecimal(expected).compareTo(milk.getQuantity()));
+    }
+
+    private CreateOrderRequest request(int quantity) {
+        return request(quantity, null);
+    }
+
+    private CreateOrderRequest request(int quantity, String clientOrderId) {
+        return CreateOrderRequest.builder()
+                .employeeId(employeeId)
+                .clientOrderId(clientOrderId)
+                .items(List.of(new OrderItemRequest(latteId, quantity)))
+                .build();
+    }
+
+    /**
+     * Stock service that holds each order in flight for a while
+     */
+    @TestConfiguration
+    static class SlowStockConfig {
+
+        @Bean
+        IngredientStockService ingredientStockService(IngredientRepository ingredientRepository) {
+            JpaIngredientStockService delegate = new JpaIngredientStockService(ingredientRepository);
+            return new IngredientStockService() {
+                @Override
+                public void deductForOrder(Order order, Map<Long, BigDecimal> demandByIngredient,
+                                           Map<Long, Ingredient> ingredients) {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    delegate.deductForOrder(order, demandByIngredient, ingredients);
+                }
+
+                @Override
+                public void deductForOrders(List<OrderDemand> orderDemands, Map<Long, Ingredient> ingredients) {
+                    delegate.deductForOrders(orderDemands, ingredients);
+                }
+
+                @Override
+                public void addStock(Ingredient ingredient, BigDecimal quantity) {
+                    delegate.addStock(ingredient, quantity);
+                }
+
+                @Override
+                public void removeStock(Ingredient ingredient, BigDecimal quantity) {
+                    delegate.removeStock(ingredient, quantity);
+                }
+
+                @Override
+                public void setStock(Ingredient ingredient, BigDecimal quantity) {
+                    delegate.setStock(ingredient, quantity);
+                }
+
+                @Override
+                public void registerIngredient(Ingredient ingredient) {
+                    delegate.registerIngredient(ingredient);
+                }
+
+                @Override
+                public void unregisterIngredient(Long ingredientId) {
+                    delegate.unregisterIngredient(ingredientId);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.response.OrderCursorResponse;
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.OrderItem;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.exception.BadRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query count tests for the OrderServiceImpl read paths
+ * Runs against an embedded database with Hibernate statistics enabled
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({OrderServiceTestConfig.class, JpaIngredientStockService.class})
+class OrderServiceImplQueryTest {
+
+    private static final int ORDERS = 60;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long firstOrderId;
+
+    @BeforeEach
+    void setUp() {
+        List<Employee> employees = new ArrayList<>();
+        for (int e = 0; e < 3; e++) {
+            employees.add(entityManager.persist(Employee.builder()
+                    .fullName("Employee " + e)
+                    .position("Barista")
+                    .hireDate(LocalDate.now())
+                    .status("Active")
+                    .build()));
+        }
+        List<Product> products = new ArrayList<>();
+        for (int p = 0; p < 5; p++) {
+            products.add(entityManager.persist(Product.builder()
+                    .name("Product " + p)
+                    .category("Coffee")
+                    .price(new BigDecimal("25000"))
+                    .status("Available")
+                    .build()));
+        }
+
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = Order.builder()
+                    .employee(employees.get(o % employees.size()))
+                    // Every three orders share a timestamp so the id tie-breaker is exercised
+                    .orderDate(BASE_TIME.minusMinutes(o / 3))
+                    .totalAmount(new BigDecimal("50000"))
+                    .status(o % 2 == 0 ? "PENDING" : "COMPLETED")
+                    .build();
+            for (int i = 0; i < 2; i++) {
+                order.getOrderItems().add(OrderItem.builder()
+                        .order(order)
+                        .product(products.get((o + i) % products.size()))
+                        .quantity(1)
+                        .price(new BigDecimal("25000"))
+                        .build());
+            }
+            entityManager.persist(order);
+            if (firstOrderId == null) {
+                firstOrderId = order.getId();
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void getAllOrdersQueryCountDoesNotGrowWithPageSize() {
+        long smallPage = statementsFor(() -> orderService.getAllOrders(null, PageRequest.of(0, 10, Sort.by("id"))));
+        long largePage = statementsFor(() -> orderService.getAllOrders(null, PageRequest.of(0, 50, Sort.by("id"))));
+        long filteredPage = statementsFor(() -> orderService.getAllOrders("PENDING", PageRequest.of(0, 25, Sort.by("id"))));
+
+        assertEquals(smallPage, largePage);
+        assertEquals(smallPage, filteredPage);
+        assertTrue(largePage <= 3, "page, count and items queries only");
+    }
+
+    @Test
+    void getAllOrdersReturnsItemsAndNames() {
+        entityManager.clear();
+        Page<OrderResponse> page = orderService.getAllOrders(null, PageRequest.of(0, 50, Sort.by("id")));
+
+        assertEquals(ORDERS, page.getTotalElements());
+        page.getContent().forEach(order -> {
+            assertEquals(2, order.getItems().size());
+            assertTrue(order.getEmployeeName().startsWith("Employee "));
+            order.getItems().forEach(item -> assertTrue(item.getProductName().startsWith("Product ")));
+        });
+    }
+
+    @Test
+    void getOrderByIdUsesSingleQuery() {
+        long statements = statementsFor(() -> orderService.getOrderById(firstOrderId));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void cursorSlicesWalkAllOrdersNewestFirst() {
+        List<Long> expected = orderService.getAllOrders(null, PageRequest.of(0, ORDERS)).getContent().stream()
+                .sorted(Comparator.comparing(OrderResponse::getOrderDate).thenComparing(OrderResponse::getId).reversed())
+                .map(OrderResponse::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderCursorResponse slice = orderService.getOrdersByCursor(null, cursor, 7, false);
+            assertNull(slice.getTotalElements());
+            slice.getOrders().forEach(order -> assertEquals(2, order.getItems().size()));
+            slice.getOrders().forEach(order -> walked.add(order.getId()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void cursorSlicesFilterByStatusAndCountOnRequest() {
+        OrderCursorResponse first = orderService.getOrdersByCursor("PENDING", null, 20, true);
+        OrderCursorResponse second = orderService.getOrdersByCursor("PENDING", first.getNextCursor(), 20, true);
+
+        assertEquals(ORDERS / 2, first.getTotalElements());
+        assertTrue(first.isHasMore());
+        assertEquals(10, second.getOrders().size());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        second.getOrders().forEach(order -> assertEquals("PENDING", order.getStatus()));
+    }
+
+    @Test
+    void cursorSliceQueryCountDoesNotDependOnDepth() {
+        String deepCursor = orderService.getOrdersByCursor(null, null, 50, false).getNextCursor();
+
+        long firstSlice = statementsFor(() -> orderService.getOrdersByCursor(null, null, 5, false));
+        long deepSlice = statementsFor(() -> orderService.getOrdersByCursor(null, deepCursor, 5, false));
+
+        assertEquals(2, firstSlice);
+        assertEquals(firstSlice, deepSlice);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(BadRequestException.class, () -> orderService.getOrdersByCursor(null, "not-a-cursor", 10, false));
+        assertThrows(BadRequestException.class, () -> orderService.getOrdersByCursor(null, null, 0, false));
+    }
+
+    private long statementsFor(Runnable call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
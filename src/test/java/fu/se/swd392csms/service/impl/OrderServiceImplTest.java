@@ -0,0 +1,236 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.response.OrderResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.OrderItemRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import fu.se.swd392csms.service.DailyReportService;
+import fu.se.swd392csms.service.DashboardStatsService;
+import fu.se.swd392csms.service.LowStockService;
+import fu.se.swd392csms.service.OrderEventService;
+import fu.se.swd392csms.service.OrderExpiryService;
+import fu.se.swd392csms.service.SalesCubeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderServiceImpl
+ * Repository calls are counted as database round trips
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderServiceImplTest {
+
+    private static final int INGREDIENTS_PER_PRODUCT = 3;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderExpiryService orderExpiryService;
+
+    @Mock
+    private OrderEventService orderEventService;
+
+    @Mock
+    private DailyReportService dailyReportService;
+
+    @Mock
+    private SalesCubeService salesCubeService;
+
+    @Mock
+    private DashboardStatsService dashboardStatsService;
+
+    @Mock
+    private LowStockService lowStockService;
+
+    private OrderServiceImpl orderService;
+
+    private final List<Product> products = new ArrayList<>();
+    private final List<ProductIngredient> recipes = new ArrayList<>();
+    private final Map<Long, Ingredient> stock = new HashMap<>();
+    private Ingredient milk;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderServiceImpl(orderRepository, orderItemRepository, employeeRepository,
+                productRepository, productIngredientRepository, new JpaIngredientStockService(ingredientRepository),
+                new TransactionTemplate(transactionManager), orderExpiryService, orderEventService,
+                dailyReportService, salesCubeService, dashboardStatsService, lowStockService);
+
+        Employee employee = Employee.builder().id(1L).fullName("Barista").build();
+        milk = Ingredient.builder().id(100L).name("Milk").quantity(new BigDecimal("1000")).build();
+
+        for (long productId = 1; productId <= 6; productId++) {
+            Product product = Product.builder()
+                    .id(productId)
+                    .name("Product " + productId)
+                    .price(new BigDecimal("30000"))
+                    .status("Available")
+                    .build();
+            products.add(product);
+
+            // Every product uses milk plus its own ingredients
+            recipes.add(recipe(product, milk, "0.20"));
+            for (int i = 1; i < INGREDIENTS_PER_PRODUCT; i++) {
+                Ingredient own = Ingredient.builder()
+                        .id(productId * 10 + i)
+                        .name("Ingredient " + productId + "-" + i)
+                        .quantity(new BigDecimal("1000"))
+                        .build();
+                recipes.add(recipe(product, own, "0.05"));
+            }
+        }
+
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(productRepository.findAllById(anyCollection())).thenAnswer(inv -> {
+            var ids = inv.<java.util.Collection<Long>>getArgument(0);
+            return products.stream().filter(p -> ids.contains(p.getId())).toList();
+        });
+        when(productIngredientRepository.findByProductIdInWithIngredient(anyCollection())).thenAnswer(inv -> {
+            var ids = inv.<java.util.Collection<Long>>getArgument(0);
+            return recipes.stream().filter(pi -> ids.contains(pi.getProduct().getId())).toList();
+        });
+        when(orderRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Mirror the guarded UPDATE: deduct only when enough stock is left
+        recipes.forEach(pi -> stock.put(pi.getIngredient().getId(), pi.getIngredient()));
+        when(ingredientRepository.decrementStock(anyLong(), any())).thenAnswer(inv -> {
+            Ingredient ingredient = stock.get(inv.<Long>getArgument(0));
+            BigDecimal quantity = inv.getArgument(1);
+            if (ingredient == null || ingredient.getQuantity().compareTo(quantity) < 0) {
+                return 0;
+            }
+            ingredient.setQuantity(ingredient.getQuantity().subtract(quantity));
+            return 1;
+        });
+    }
+
+    @Test
+    void createOrderRoundTripsDoNotGrowWithLineCount() {
+        int singleLine = roundTripsFor(orderWithLines(1));
+        int repeatedLines = roundTripsFor(orderOfSameProduct(6));
+        int rushHour = roundTripsFor(orderWithLines(6));
+
+        // Employee, products, recipes and order save, plus one guarded stock update per distinct ingredient
+        assertEquals(4 + distinctIngredients(1), singleLine);
+        assertEquals(singleLine, repeatedLines);
+        assertEquals(4 + distinctIngredients(6), rushHour);
+    }
+
+    @Test
+    void createOrderAggregatesSharedIngredientDemand() {
+        orderService.createOrder(orderWithLines(6));
+
+        // 6 lines x 0.20 milk deducted once as a single total
+        assertEquals(0, new BigDecimal("998.80").compareTo(milk.getQuantity()));
+    }
+
+    @Test
+    void createOrderRejectsWhenAggregatedDemandExceedsStock() {
+        milk.setQuantity(new BigDecimal("1.00"));
+
+        // Each line alone fits, the whole order does not
+        assertThrows(BadRequestException.class, () -> orderService.createOrder(orderWithLines(6)));
+    }
+
+    @Test
+    void createOrderKeepsOneItemPerRequestLine() {
+        OrderResponse response = orderService.createOrder(orderWithLines(6));
+
+        assertEquals(6, response.getItems().size());
+        assertEquals(0, new BigDecimal("180000").compareTo(response.getTotalAmount()));
+    }
+
+    private int roundTripsFor(CreateOrderRequest request) {
+        Mockito.clearInvocations(allRepositories());
+        orderService.createOrder(request);
+        return Stream.of(allRepositories())
+                .mapToInt(mock -> Mockito.mockingDetails(mock).getInvocations().size())
+                .sum();
+    }
+
+    private static int distinctIngredients(int products) {
+        return 1 + products * (INGREDIENTS_PER_PRODUCT - 1);
+    }
+
+    private Object[] allRepositories() {
+        return new Object[] {orderRepository, orderItemRepository, employeeRepository,
+                productRepository, ingredientRepository, productIngredientRepository};
+    }
+
+    private CreateOrderRequest orderWithLines(int lines) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemRequest(products.get(i).getId(), 1));
+        }
+        return CreateOrderRequest.builder().employeeId(1L).items(items).build();
+    }
+
+    private CreateOrderRequest orderOfSameProduct(int lines) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemRequest(products.get(0).getId(), 1));
+        }
+        return CreateOrderRequest.builder().employeeId(1L).items(items).build();
+    }
+
+    private static ProductIngredient recipe(Product product, Ingredient ingredient, String quantity) {
+        return ProductIngredient.builder()
+                .product(product)
+                .ingredient(ingredient)
+                .quantityRequired(new BigDecimal(quantity))
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.repository.JpaTestConfig;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Test configuration for JPA slice tests of order flows
+ * Imports the order service together with every service its change hooks reach; tests add the
+ * IngredientStockService they need
+ */
+@TestConfiguration
+@Import({JpaTestConfig.class, DataVersionServiceImpl.class, OrderServiceImpl.class, OrderExpiryServiceImpl.class,
+        OrderEventServiceImpl.class, DailyReportServiceImpl.class, ProductCostServiceImpl.class, SalaryCostServiceImpl.class,
+        SalesCubeServiceImpl.class, DashboardStatsServiceImpl.class, LowStockServiceImpl.class})
+public class OrderServiceTestConfig {
+}
@@ -0,0 +1,172 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.entity.ProductIngredient;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.JpaTestConfig;
+import fu.se.swd392csms.repository.ProductIngredientRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the product unit-cost cache in ProductCostServiceImpl
+ * Counts prepared statements to show which products are recomputed after a change
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({JpaTestConfig.class, DataVersionServiceImpl.class, ProductCostServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductCostServiceImplTest {
+
+    @Autowired
+    private ProductCostServiceImpl productCostService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Ingredient milk;
+    private Ingredient leaves;
+    private Product latte;
+    private Product tea;
+    private Product water;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        milk = ingredientRepository.save(ingredient("Milk", "21500.50"));
+        Ingredient beans = ingredientRepository.save(ingredient("Beans", "350000"));
+        leaves = ingredientRepository.save(ingredient("Tea leaves", "400000"));
+        latte = productRepository.save(product("Latte"));
+        tea = productRepository.save(product("Tea"));
+        water = productRepository.save(product("Water"));
+        recipe(latte, milk, "0.20");
+        recipe(latte, beans, "0.02");
+        recipe(tea, leaves, "0.01");
+    }
+
+    @AfterEach
+    void tearDown() {
+        productIngredientRepository.deleteAll();
+        productRepository.deleteAll();
+        ingredientRepository.deleteAll();
+    }
+
+    @Test
+    void unitCostsAreLoadedOnceAndServedFromMemory() {
+        statistics.clear();
+        Map<Long, BigDecimal> costs = productCostService.getUnitCosts(List.of(latte.getId(), tea.getId(), water.getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(0, new BigDecimal("11300.10").compareTo(costs.get(latte.getId())));
+        assertEquals(0, new BigDecimal("4000").compareTo(costs.get(tea.getId())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(costs.get(water.getId())));
+
+        statistics.clear();
+        for (int i = 0; i < 1000; i++) {
+            productCostService.getUnitCost(latte.getId());
+            productCostService.getUnitCost(water.getId());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void priceChangeRecomputesOnlyProductsUsingTheIngredient() {
+        productCostService.getUnitCosts(List.of(latte.getId(), tea.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Ingredient changed = ingredientRepository.findById(milk.getId()).orElseThrow();
+            changed.setPricePerUnit(new BigDecimal("30000"));
+            ingredientRepository.save(changed);
+            productCostService.priceChanged(milk.getId());
+        });
+
+        statistics.clear();
+        assertEquals(0, new BigDecimal("4000").compareTo(productCostService.getUnitCost(tea.getId())));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, new BigDecimal("13000").compareTo(productCostService.getUnitCost(latte.getId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void recipeChangeMovesTheProductToItsNewIngredients() {
+        productCostService.getUnitCosts(List.of(latte.getId(), tea.getId()));
+
+        // Latte now uses tea leaves instead of milk
+        transactionTemplate.executeWithoutResult(status -> {
+            productIngredientRepository.deleteByProductId(latte.getId());
+            recipe(latte, leaves, "0.05");
+            productCostService.recipeChanged(latte.getId());
+        });
+        assertEquals(0, new BigDecimal("20000").compareTo(productCostService.getUnitCost(latte.getId())));
+
+        // A milk price change no longer concerns the latte, a tea leaf price change does
+        productCostService.priceChanged(milk.getId());
+        statistics.clear();
+        productCostService.getUnitCost(latte.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        productCostService.priceChanged(leaves.getId());
+        productCostService.getUnitCosts(List.of(latte.getId(), tea.getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void recipe(Product product, Ingredient ingredient, String quantityRequired) {
+        productIngredientRepository.save(ProductIngredient.builder()
+                .product(product)
+                .ingredient(ingredient)
+                .quantityRequired(new BigDecimal(quantityRequired))
+                .build());
+    }
+
+    private static Ingredient ingredient(String name, String pricePerUnit) {
+        return Ingredient.builder()
+                .name(name)
+                .unit("kg")
+                .quantity(new BigDecimal("100"))
+                .pricePerUnit(new BigDecimal(pricePerUnit))
+                .build();
+    }
+
+    private static Product product(String name) {
+        return Product.builder()
+                .name(name)
+                .category("Drink")
+                .price(new BigDecimal("30000"))
+                .status("Available")
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Ingredient;
+import fu.se.swd392csms.entity.IngredientTransaction;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.exception.TooManyRequestsException;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.IngredientRepository;
+import fu.se.swd392csms.repository.IngredientTransactionRepository;
+import fu.se.swd392csms.repository.JpaTestConfig;
+import fu.se.swd392csms.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the CSV exports in ReportExportServiceImpl
+ */
+@DataJpaTest(properties = {
+        "reports.export.max-concurrent=2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({JpaTestConfig.class, ReportExportServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportExportServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+    private static final int ORDERS = 3000;
+
+    @Autowired
+    private ReportExportServiceImpl reportExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private IngredientTransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Tran, \"Bao\"")
+                .position("Barista")
+                .hireDate(DAY)
+                .status("Active")
+                .build());
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            // Spread over three days, the last of which is outside the exported range
+            orders.add(Order.builder()
+                    .employee(employee)
+                    .orderDate(DAY.plusDays(i % 3).atTime(8, 0).plusSeconds(i))
+                    .totalAmount(new BigDecimal("45000.50"))
+                    .status("COMPLETED")
+                    .build());
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        orderRepository.deleteAll();
+        ingredientRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void ordersAreStreamedAsCsvWithoutLoadingEntities() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = reportExportService.exportOrders(DAY, DAY.plusDays(1), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(ORDERS * 2 / 3, rows);
+        assertEquals(rows + 1, lines.length);
+        assertEquals("id,order_date,status,total_amount,employee,client_order_id", lines[0]);
+        assertEquals("2025-06-01T08:00,COMPLETED,45000.50,\"Tran, \"\"Bao\"\"\",",
+                lines[1].substring(lines[1].indexOf(',') + 1));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void transactionsAreExportedWithIngredientAndNote() throws Exception {
+        Ingredient milk = ingredientRepository.save(Ingredient.builder()
+                .name("Milk")
+                .unit("l")
+                .quantity(new BigDecimal("10"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .build());
+        transactionRepository.save(IngredientTransaction.builder()
+                .ingredient(milk)
+                .employee(employee)
+                .type("Import")
+                .quantity(new BigDecimal("12.50"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .supplier("Dalat Milk")
+                .notes("Morning\ndelivery")
+                .transactionDate(DAY.atTime(7, 30))
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = reportExportService.exportTransactions(DAY, DAY, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(1, rows);
+        assertEquals(",2025-06-01T07:30,Milk,l,Import,12.50,21000.00,Dalat Milk,\"Tran, \"\"Bao\"\"\",\"Morning\ndelivery\"\r\n",
+                csv.substring(csv.indexOf("\r\n") + 2).replaceFirst("^\\d+", ""));
+    }
+
+    @Test
+    void textThatLooksLikeAFormulaIsNotRunBySpreadsheets() throws Exception {
+        Ingredient milk = ingredientRepository.save(Ingredient.builder()
+                .name("=HYPERLINK(\"http://x\")")
+                .unit("@l")
+                .quantity(new BigDecimal("10"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .build());
+        transactionRepository.save(IngredientTransaction.builder()
+                .ingredient(milk)
+                .employee(employee)
+                .type("-Adjustment")
+                .quantity(new BigDecimal("-2.50"))
+                .pricePerUnit(new BigDecimal("21000"))
+                .supplier("+84 90")
+                .notes("\tspilled")
+                .transactionDate(DAY.atTime(7, 30))
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reportExportService.exportTransactions(DAY, DAY, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        // Numbers keep their sign; only text is prefixed
+        assertEquals(",2025-06-01T07:30,\"'=HYPERLINK(\"\"http://x\"\")\",'@l,'-Adjustment,-2.50,21000.00,'+84 90,\"Tran, \"\"Bao\"\"\",'\tspilled\r\n",
+                csv.substring(csv.indexOf("\r\n") + 2).replaceFirst("^\\d+", ""));
+    }
+
+    @Test
+    void exportsBeyondTheLimitAreRefusedUntilASlotIsReleased() {
+        reportExportService.acquireSlot();
+        reportExportService.acquireSlot();
+
+        assertThrows(TooManyRequestsException.class, reportExportService::acquireSlot);
+
+        reportExportService.releaseSlot();
+        reportExportService.acquireSlot();
+        reportExportService.releaseSlot();
+        reportExportService.releaseSlot();
+    }
+}
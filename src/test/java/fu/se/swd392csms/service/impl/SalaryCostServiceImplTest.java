@@ -0,0 +1,159 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.SalaryRequest;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Salary;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.JpaTestConfig;
+import fu.se.swd392csms.repository.SalaryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the monthly salary cost cache in SalaryCostServiceImpl
+ * Salaries are changed through SalaryServiceImpl and the repository; the entity listener reports the months they touch
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // salaries has month and year columns, which are keywords in H2
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({JpaTestConfig.class, DataVersionServiceImpl.class, SalaryCostServiceImpl.class, SalaryServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SalaryCostServiceImplTest {
+
+    private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    @Autowired
+    private SalaryCostServiceImpl salaryCostService;
+
+    @Autowired
+    private SalaryServiceImpl salaryService;
+
+    @Autowired
+    private SalaryRepository salaryRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Employee barista;
+    private Employee cashier;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        barista = employeeRepository.save(employee("Barista"));
+        cashier = employeeRepository.save(employee("Cashier"));
+        salary(barista, FEBRUARY, "8700000", "Paid");
+        salary(cashier, FEBRUARY, "5800000", "Pending");
+        salary(barista, MARCH, "9300000", "Paid");
+    }
+
+    @AfterEach
+    void tearDown() {
+        salaryRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void monthIsSummedOnceAndProratedByItsRealLength() {
+        statistics.clear();
+        for (int day = 0; day < 60; day++) {
+            salaryCostService.getDailySalaryCost(YearMonth.from(FEBRUARY.atDay(1).plusDays(day)));
+        }
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // 29 days in February 2024, 31 in March
+        assertEquals(new BigDecimal("300000.00"), salaryCostService.getDailySalaryCost(FEBRUARY));
+        assertEquals(new BigDecimal("300000.00"), salaryCostService.getDailySalaryCost(MARCH));
+        assertEquals(BigDecimal.ZERO, salaryCostService.getDailySalaryCost(YearMonth.of(2024, 4)));
+    }
+
+    @Test
+    void payingASalaryRecomputesOnlyItsMonth() {
+        salaryCostService.getDailySalaryCost(FEBRUARY);
+        salaryCostService.getDailySalaryCost(MARCH);
+        Long pending = salaryRepository.findByEmployeeIdAndMonthAndYear(cashier.getId(), 2, 2024).orElseThrow().getId();
+
+        salaryService.markMultipleAsPaid(List.of(pending));
+
+        statistics.clear();
+        assertEquals(new BigDecimal("300000.00"), salaryCostService.getDailySalaryCost(MARCH));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(new BigDecimal("500000.00"), salaryCostService.getDailySalaryCost(FEBRUARY));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createOrUpdateSalaryRecomputesItsMonth() {
+        salaryCostService.getDailySalaryCost(MARCH);
+
+        salaryService.createOrUpdateSalary(SalaryRequest.builder()
+                .employeeId(cashier.getId())
+                .month(3)
+                .year(2024)
+                .baseSalary(new BigDecimal("6200000"))
+                .totalSalary(new BigDecimal("6200000"))
+                .status("Paid")
+                .build());
+
+        assertEquals(new BigDecimal("500000.00"), salaryCostService.getDailySalaryCost(MARCH));
+    }
+
+    @Test
+    void salarySavedByAnyWriterRecomputesItsMonth() {
+        salaryCostService.getDailySalaryCost(MARCH);
+
+        // Written straight through the repository, as EmployeeServiceImpl.addSalary does
+        salary(cashier, MARCH, "6200000", "Paid");
+
+        assertEquals(new BigDecimal("500000.00"), salaryCostService.getDailySalaryCost(MARCH));
+        salaryRepository.deleteAll(salaryRepository.findByMonthAndYear(3, 2024));
+        assertEquals(BigDecimal.ZERO, salaryCostService.getDailySalaryCost(MARCH));
+    }
+
+    private void salary(Employee employee, YearMonth month, String total, String status) {
+        salaryRepository.save(Salary.builder()
+                .employee(employee)
+                .month(month.getMonthValue())
+                .year(month.getYear())
+                .baseSalary(new BigDecimal(total))
+                .totalSalary(new BigDecimal(total))
+                .status(status)
+                .build());
+    }
+
+    private static Employee employee(String position) {
+        return Employee.builder()
+                .fullName(position)
+                .position(position)
+                .hireDate(LocalDate.of(2023, 1, 1))
+                .status("Active")
+                .build();
+    }
+}
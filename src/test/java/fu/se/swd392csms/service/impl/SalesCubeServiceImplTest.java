@@ -0,0 +1,265 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.dto.request.CreateOrderRequest;
+import fu.se.swd392csms.dto.request.OrderItemRequest;
+import fu.se.swd392csms.dto.request.UpdateOrderStatusRequest;
+import fu.se.swd392csms.dto.response.SalesHeatmapResponse;
+import fu.se.swd392csms.dto.response.TopProductsResponse;
+import fu.se.swd392csms.entity.Employee;
+import fu.se.swd392csms.entity.Order;
+import fu.se.swd392csms.entity.OrderItem;
+import fu.se.swd392csms.entity.Product;
+import fu.se.swd392csms.exception.BadRequestException;
+import fu.se.swd392csms.repository.EmployeeRepository;
+import fu.se.swd392csms.repository.OrderRepository;
+import fu.se.swd392csms.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the hour-of-day sales cube in SalesCubeServiceImpl
+ * Orders are written straight to the database and the cube is rebuilt as it would be at startup
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "reports.heatmap.days=30"
+})
+@Import({OrderServiceTestConfig.class, JpaIngredientStockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesCubeServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private SalesCubeServiceImpl salesCubeService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Employee employee;
+    private Product espresso;
+    private Product croissant;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .fullName("Barista")
+                .position("Barista")
+                .hireDate(TODAY.minusYears(1))
+                .status("Active")
+                .build());
+        espresso = productRepository.save(product("Espresso", "Coffee", "30000"));
+        croissant = productRepository.save(product("Croissant", "Pastry", "25000.50"));
+
+        order(TODAY.minusDays(1).atTime(8, 15), "COMPLETED", 2, 1);
+        order(TODAY.minusDays(1).atTime(8, 50), "Completed", 1, 0);
+        order(TODAY.minusDays(1).atTime(15, 5), "COMPLETED", 0, 3);
+        order(TODAY.minusDays(2).atTime(8, 30), "COMPLETED", 4, 0);
+        order(TODAY.minusDays(2).atTime(9, 0), "CANCELLED", 9, 9);
+        // Older than the 30 days kept in memory
+        order(TODAY.minusDays(40).atTime(8, 0), "COMPLETED", 7, 0);
+        salesCubeService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void heatmapIsServedFromMemoryAfterTheRebuild() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        SalesHeatmapResponse heatmap = salesCubeService.getHeatmap(TODAY.minusDays(60), TODAY, null, null, "date");
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(TODAY.minusDays(29), heatmap.getStartDate());
+        assertEquals(11, heatmap.getTotalQuantity());
+        assertEquals(new BigDecimal("310002.00"), heatmap.getTotalRevenue());
+        assertEquals(8, heatmap.getPeakHour());
+        assertEquals(8, heatmap.getHourQuantities().get(8));
+        assertEquals(3, heatmap.getHourQuantities().get(15));
+        assertEquals(30, heatmap.getRows().size());
+        assertEquals(List.of(TODAY.minusDays(1).toString(), "7"),
+                List.of(heatmap.getRows().get(28).getLabel(), heatmap.getRows().get(28).getTotalQuantity().toString()));
+        assertEquals(List.of("Espresso", "Croissant"),
+                heatmap.getProducts().stream().map(SalesHeatmapResponse.ProductSales::getProductName).toList());
+    }
+
+    @Test
+    void categoryAndProductNarrowTheSlice() {
+        SalesHeatmapResponse pastry = salesCubeService.getHeatmap(TODAY.minusDays(7), TODAY, "pastry", null, "weekday");
+        assertEquals(4, pastry.getTotalQuantity());
+        assertEquals(15, pastry.getPeakHour());
+        assertEquals(7, pastry.getRows().size());
+        assertEquals(4, pastry.getRows().get(TODAY.minusDays(1).getDayOfWeek().getValue() - 1).getTotalQuantity());
+
+        SalesHeatmapResponse espressoOnly = salesCubeService.getHeatmap(TODAY.minusDays(7), TODAY, null,
+                espresso.getId(), "none");
+        assertEquals(7, espressoOnly.getTotalQuantity());
+        assertEquals(List.of(), espressoOnly.getRows());
+
+        SalesHeatmapResponse none = salesCubeService.getHeatmap(TODAY.minusDays(7), TODAY, "Tea", null, "none");
+        assertEquals(0, none.getTotalQuantity());
+        assertNull(none.getPeakHour());
+    }
+
+    @Test
+    void completingAndReopeningOrdersUpdatesTheCube() {
+        Long orderId = orderService.createOrder(CreateOrderRequest.builder()
+                .employeeId(employee.getId())
+                .items(List.of(new OrderItemRequest(espresso.getId(), 5)))
+                .build()).getId();
+        int hour = orderRepository.findById(orderId).orElseThrow().getOrderDate().getHour();
+        assertEquals(0, espressoSoldToday(hour));
+
+        orderService.updateOrderStatus(orderId, new UpdateOrderStatusRequest("COMPLETED"));
+        assertEquals(5, espressoSoldToday(hour));
+
+        orderService.updateOrderStatus(orderId, new UpdateOrderStatusRequest("CANCELLED"));
+        assertEquals(0, espressoSoldToday(hour));
+
+        orderService.updateOrderStatus(orderId, new UpdateOrderStatusRequest("COMPLETED"));
+        orderService.deleteOrder(orderId);
+        assertEquals(0, espressoSoldToday(hour));
+    }
+
+    @Test
+    void topProductsMatchAnExactQueryForEveryWindow() {
+        Random random = new Random(19);
+        List<Product> menu = new ArrayList<>(List.of(espresso, croissant));
+        // More products than the cube allocates up front
+        for (int i = 0; i < 80; i++) {
+            menu.add(productRepository.save(product("Drink " + i, i % 2 == 0 ? "Coffee" : "Tea",
+                    (20000 + random.nextInt(200) * 100) + ".50")));
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Order order = Order.builder()
+                    .employee(employee)
+                    .orderDate(TODAY.minusDays(random.nextInt(35)).atTime(random.nextInt(24), random.nextInt(60)))
+                    .totalAmount(BigDecimal.ZERO)
+                    .status(random.nextInt(5) == 0 ? "CANCELLED" : "COMPLETED")
+                    .build();
+            for (int line = 0; line < 1 + random.nextInt(3); line++) {
+                // Skewed towards the first products so the top ranks are not all ties
+                Product product = menu.get((int) (menu.size() * Math.pow(random.nextDouble(), 2)));
+                order.getOrderItems().add(item(order, product, 1 + random.nextInt(4)));
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+        salesCubeService.rebuild();
+
+        assertTopProducts("today", TODAY);
+        assertTopProducts("week", TODAY.with(DayOfWeek.MONDAY));
+        assertTopProducts("month", TODAY.withDayOfMonth(1));
+    }
+
+    @Test
+    void invalidRangesAndGroupingsAreRejected() {
+        assertThrows(BadRequestException.class,
+                () -> salesCubeService.getHeatmap(TODAY, TODAY.minusDays(1), null, null, "date"));
+        assertThrows(BadRequestException.class,
+                () -> salesCubeService.getHeatmap(TODAY.minusDays(1), TODAY, null, null, "month"));
+        assertThrows(BadRequestException.class, () -> salesCubeService.getTopProducts("year", 10));
+        assertThrows(BadRequestException.class, () -> salesCubeService.getTopProducts("week", 0));
+    }
+
+    private void assertTopProducts(String window, LocalDate from) {
+        List<String> expected = jdbcTemplate.query(
+                "SELECT oi.product_id, SUM(oi.quantity) AS sold, SUM(oi.quantity * oi.price) AS revenue " +
+                "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                "WHERE UPPER(o.status) = 'COMPLETED' AND o.order_date >= ? AND o.order_date < ? " +
+                "GROUP BY oi.product_id ORDER BY sold DESC, revenue DESC, oi.product_id FETCH FIRST 10 ROWS ONLY",
+                (rs, row) -> rs.getLong(1) + "x" + rs.getLong(2) + "=" + rs.getBigDecimal(3).setScale(2),
+                from.atStartOfDay(), TODAY.plusDays(1).atStartOfDay());
+
+        TopProductsResponse top = salesCubeService.getTopProducts(window, 10);
+
+        assertEquals(from, top.getStartDate());
+        assertEquals(expected, top.getProducts().stream()
+                .map(product -> product.getProductId() + "x" + product.getQuantity() + "=" + product.getRevenue())
+                .toList(), window);
+    }
+
+    private long espressoSoldToday(int hour) {
+        return salesCubeService.getHeatmap(TODAY, TODAY, null, espresso.getId(), "none").getHourQuantities().get(hour);
+    }
+
+    private void order(LocalDateTime orderDate, String status, int espressos, int croissants) {
+        Order order = Order.builder()
+                .employee(employee)
+                .orderDate(orderDate)
+                .totalAmount(BigDecimal.ZERO)
+                .status(status)
+                .build();
+        if (espressos > 0) {
+            order.getOrderItems().add(item(order, espresso, espressos));
+        }
+        if (croissants > 0) {
+            order.getOrderItems().add(item(order, croissant, croissants));
+        }
+        orderRepository.save(order);
+    }
+
+    private static OrderItem item(Order order, Product product, int quantity) {
+        return OrderItem.builder()
+                .order(order)
+                .product(product)
+                .quantity(quantity)
+                .price(product.getPrice())
+                .build();
+    }
+
+    private static Product product(String name, String category, String price) {
+        return Product.builder()
+                .name(name)
+                .category(category)
+                .price(new BigDecimal(price))
+                .status("Available")
+                .build();
+    }
+}
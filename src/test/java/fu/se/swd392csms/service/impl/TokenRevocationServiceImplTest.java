@@ -0,0 +1,118 @@
+package fu.se.swd392csms.service.impl;
+
+import fu.se.swd392csms.entity.RevokedToken;
+import fu.se.swd392csms.repository.JpaTestConfig;
+import fu.se.swd392csms.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for TokenRevocationServiceImpl
+ * Statements are counted to show that tokens which were never revoked are answered from memory
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "security.token-revocation.expected-tokens=1000"
+})
+@Import({JpaTestConfig.class, TokenRevocationServiceImpl.class, TokenRevocationServiceImplTest.MetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceImplTest {
+
+    @Autowired
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteAll();
+        tokenRevocationService.purgeExpired();
+    }
+
+    @Test
+    void tokensThatWereNeverRevokedCostNoQueries() {
+        for (int i = 0; i < 20; i++) {
+            tokenRevocationService.revoke(UUID.randomUUID().toString(), inHours(1));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int revoked = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (tokenRevocationService.isRevoked(UUID.randomUUID().toString())) {
+                revoked++;
+            }
+        }
+
+        assertEquals(0, revoked);
+        // Only false positives of the filter reach the database
+        assertTrue(statistics.getPrepareStatementCount() <= 10, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void revokedTokenIsRejectedUntilItExpires() {
+        tokenRevocationService.revoke("logged-out", inHours(1));
+        tokenRevocationService.revoke("already-expired", inHours(-1));
+
+        assertTrue(tokenRevocationService.isRevoked("logged-out"));
+        assertFalse(tokenRevocationService.isRevoked("already-expired"));
+        assertFalse(tokenRevocationService.isRevoked("still-valid"));
+    }
+
+    @Test
+    void purgeDropsExpiredEntriesAndKeepsTheRest() {
+        tokenRevocationService.revoke("logged-out", inHours(1));
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId("stored-elsewhere")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .revokedAt(LocalDateTime.now())
+                .build());
+        tokenRevocationService.revoke("already-expired", inHours(-1));
+
+        assertEquals(1, tokenRevocationService.purgeExpired());
+
+        assertEquals(2, revokedTokenRepository.count());
+        assertTrue(tokenRevocationService.isRevoked("logged-out"));
+        // Revoked by another instance, picked up by the rebuild
+        assertTrue(tokenRevocationService.isRevoked("stored-elsewhere"));
+    }
+
+    private static Date inHours(int hours) {
+        return new Date(System.currentTimeMillis() + hours * 3_600_000L);
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package fu.se.swd392csms.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for HashedTimerWheel
+ */
+class HashedTimerWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void keysFireOnTheTickOfTheirDeadlineAndNotBefore() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, 8, 0);
+        wheel.schedule(1L, 2500);
+        wheel.schedule(2L, 3000);
+
+        assertEquals(List.of(), wheel.advance(2999));
+        assertEquals(Set.of(1L, 2L), new HashSet<>(wheel.advance(3000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForTheirRound() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, 4, 0);
+        // Same bucket as tick 1, three turns later
+        wheel.schedule(1L, 13_000);
+
+        for (long now = 0; now < 13_000; now += TICK) {
+            assertEquals(List.of(), wheel.advance(now));
+        }
+        assertEquals(List.of(1L), wheel.advance(13_000));
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysFollowTheirLatestDeadline() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, 8, 0);
+        wheel.schedule(1L, 1000);
+        wheel.schedule(2L, 1000);
+        assertTrue(wheel.cancel(1L));
+        assertFalse(wheel.cancel(1L));
+        wheel.schedule(2L, 5000);
+
+        assertEquals(List.of(), wheel.advance(4000));
+        assertEquals(List.of(2L), wheel.advance(5000));
+    }
+
+    @Test
+    void longPauseExpiresEverythingDueInOnePass() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, 8, 0);
+        for (long key = 0; key < 100; key++) {
+            wheel.schedule(key, key * TICK);
+        }
+
+        assertEquals(51, wheel.advance(50_000).size());
+        assertEquals(49, wheel.size());
+        assertEquals(List.of(50L + 1), wheel.advance(51_000));
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextAdvance() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, 8, 0);
+        wheel.advance(10_000);
+        wheel.schedule(1L, 2000);
+
+        // Fires on the next tick boundary, never before it
+        assertEquals(List.of(), wheel.advance(10_500));
+        assertEquals(List.of(1L), wheel.advance(11_000));
+    }
+}